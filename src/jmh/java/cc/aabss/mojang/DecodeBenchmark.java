@@ -0,0 +1,104 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.mojang.PublicPlayerProfile;
+import cc.aabss.mojang.objects.mojang.Value;
+import cc.aabss.mojang.objects.realms.Backup;
+import cc.aabss.mojang.objects.realms.Realm;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding with the hand-written adapters of {@link MojangAPI#gson} against plain reflective gson,
+ * and measures the decoding of the other payloads on hot paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DecodeBenchmark {
+
+    private final Gson reflective = new GsonBuilder().create();
+
+    private String realms;
+    private String backups;
+    private String profiles;
+    private TypeAdapter<Realm> reflectiveRealm;
+    private TypeAdapter<Realm> adaptedRealm;
+
+    @Setup
+    public void setup() {
+        realms = Payloads.realms(50);
+        backups = Payloads.backups(50);
+        profiles = Payloads.profiles(MojangAPI.BULK_LOOKUP_LIMIT);
+        reflectiveRealm = reflective.getAdapter(Realm.class);
+        adaptedRealm = MojangAPI.gson.getAdapter(Realm.class);
+    }
+
+    @Benchmark
+    public List<Realm> realmsReflective() throws IOException {
+        return readRealms(reflectiveRealm);
+    }
+
+    @Benchmark
+    public List<Realm> realmsAdapted() throws IOException {
+        return readRealms(adaptedRealm);
+    }
+
+    @Benchmark
+    public List<Realm> realmsStreamed() throws IOException {
+        return Json.list(new JsonReader(new StringReader(realms)), "servers", Realm.class);
+    }
+
+    @Benchmark
+    public PublicPlayerProfile profileReflective() {
+        return reflective.fromJson(Payloads.PROFILE, PublicPlayerProfile.class);
+    }
+
+    @Benchmark
+    public PublicPlayerProfile profileAdapted() {
+        return MojangAPI.gson.fromJson(Payloads.PROFILE, PublicPlayerProfile.class);
+    }
+
+    @Benchmark
+    public List<Backup> backupsStreamed() throws IOException {
+        return Json.list(new JsonReader(new StringReader(backups)), "backups", Backup.class);
+    }
+
+    @Benchmark
+    public Value texturesFromBase64() {
+        return Value.fromBase64(Payloads.TEXTURES);
+    }
+
+    @Benchmark
+    public Map<String, String> bulkByName() throws IOException {
+        return MojangAPI.readUUIDs(new JsonReader(new StringReader(profiles)));
+    }
+
+    private List<Realm> readRealms(TypeAdapter<Realm> adapter) throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(realms));
+        List<Realm> list = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("servers")) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                list.add(adapter.read(reader));
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        return list;
+    }
+}
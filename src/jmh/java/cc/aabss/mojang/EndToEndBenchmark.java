@@ -0,0 +1,116 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.mojang.PublicPlayerProfile;
+import cc.aabss.mojang.objects.realms.Realm;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures whole calls, from building the request to the mapped response, against a stub server on the loopback
+ * interface that answers with {@link Payloads}. The numbers include the http client and the stub server,
+ * so compare them between runs on the same machine only. Every thread of {@code getProfile} asks for its own UUID,
+ * so each call sends a request, while {@code getProfileShared} has every thread ask for the same UUID to measure how
+ * well concurrent calls share one request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class EndToEndBenchmark {
+
+    private static final String UUID = "069a79f444e94726a5befca90e38aaf5";
+    private static final int PLAYERS = 64;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private Transport previous;
+    private RealmsAPI realms;
+    private String[] players;
+    private final AtomicInteger nextPlayer = new AtomicInteger();
+
+    @Setup
+    public void setup() throws IOException {
+        // Without it every small response of the stub server waits for a delayed ack, read before the first server is made.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(serverExecutor);
+        byte[] profile = Payloads.PROFILE.getBytes(StandardCharsets.UTF_8);
+        byte[] worlds = Payloads.realms(20).getBytes(StandardCharsets.UTF_8);
+        server.createContext("/session/minecraft/profile/", exchange -> respond(exchange, profile));
+        server.createContext("/worlds", exchange -> respond(exchange, worlds));
+        server.start();
+
+        String url = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+        Transport transport = Transport.builder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .baseUrl(Transport.Service.SESSION_SERVER, url)
+                .baseUrl(Transport.Service.REALMS, url)
+                .build();
+        previous = Transport.getDefault();
+        Transport.setDefault(transport);
+        realms = new RealmsAPI("token", UUID, "Notch", "1.21.1", transport);
+        players = new String[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            players[i] = UUID.substring(0, 24) + String.format("%08x", i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Transport.setDefault(previous);
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public PublicPlayerProfile getProfile(Player player) {
+        return MojangAPI.getProfile(player.uuid);
+    }
+
+    @Benchmark
+    public PublicPlayerProfile getProfileShared() {
+        return MojangAPI.getProfile(UUID);
+    }
+
+    @Benchmark
+    public List<Realm> getWorlds() {
+        return realms.getWorlds();
+    }
+
+    /**
+     * The UUID one thread asks for, taken from a pool so no two threads share it while there are fewer threads than UUIDs.
+     */
+    @State(Scope.Thread)
+    public static class Player {
+
+        String uuid;
+
+        @Setup
+        public void setup(EndToEndBenchmark benchmark) {
+            uuid = benchmark.players[benchmark.nextPlayer.getAndIncrement() % PLAYERS];
+        }
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package cc.aabss.mojang;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response bodies shaped like the ones recorded from the real services, shared by the benchmarks.
+ */
+final class Payloads {
+
+    static final String REALM = """
+            {"id":%d,"remoteSubscriptionId":"aebb6a8e0a9e4b4c8f1d6b8e5e1b2c3d","owner":"Notch",
+            "ownerUUID":"069a79f444e94726a5befca90e38aaf5","name":"Realm %d","motd":"Welcome","state":"OPEN",
+            "daysLeft":21,"expired":false,"expiredTrial":false,"worldType":"NORMAL",
+            "players":["069a79f444e94726a5befca90e38aaf5","853c80ef3c3749fdaa49938b674adae6"],"maxPlayers":10,
+            "minigameName":null,"minigameId":null,"minigameImage":null,"activeSlot":1,"slots":4,"member":false,
+            "parentWorldId":0,"parentWorldName":null,"compatibility":"COMPATIBLE","activeVersion":"1.21.1"}""";
+
+    static final String TEXTURES = """
+            ewogICJ0aW1lc3RhbXAiIDogMTcyOTM4MzYwMDAwMCwKICAicHJvZmlsZUlkIiA6ICIwNjlhNzlmNDQ0ZTk0NzI2YTViZWZjYTkwZTM4\
+            YWFmNSIsCiAgInByb2ZpbGVOYW1lIiA6ICJOb3RjaCIsCiAgInRleHR1cmVzIiA6IHsKICAgICJTS0lOIiA6IHsKICAgICAgInVybCIg\
+            OiAiaHR0cDovL3RleHR1cmVzLm1pbmVjcmFmdC5uZXQvdGV4dHVyZS8yOTIwMDlhNDkyNWI1OGYwMmM3N2RhZGMzZWNlZjA3ZWE0Yzc0\
+            NzJmNjRlMGZkYzMyY2U1NTIyNDg5MzYyNjgwIgogICAgfQogIH0KfQ==""";
+
+    static final String PROFILE = """
+            {"id":"069a79f444e94726a5befca90e38aaf5","name":"Notch","properties":[{"name":"textures",
+            "value":"%s","signature":"c2lnbmF0dXJl"}],"profileActions":[]}""".formatted(TEXTURES);
+
+    static final String BACKUP = """
+            {"backupId":"2024-10-%02dT12:00:00.000Z","lastModifiedDate":17293836%05d,"size":52428800,
+            "metdata":{"game_difficulty":"2","name":"Survival","game_server_version":"1.21.1",
+            "enabled_packs":{"resourcePacks":[],"behaviorPacks":[]},"description":"Welcome",
+            "game_mode":"0","world_type":"NORMAL"}}""";
+
+    private Payloads() {}
+
+    /**
+     * Gets a worlds response with some realms.
+     */
+    static String realms(int count) {
+        List<String> servers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            servers.add(REALM.formatted(i, i));
+        }
+        return "{\"servers\":[" + String.join(",", servers) + "]}";
+    }
+
+    /**
+     * Gets a backups response with some backups.
+     */
+    static String backups(int count) {
+        List<String> backups = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            backups.add(BACKUP.formatted(i % 28 + 1, i));
+        }
+        return "{\"backups\":[" + String.join(",", backups) + "]}";
+    }
+
+    /**
+     * Gets a bulk lookup response with some players.
+     */
+    static String profiles(int count) {
+        List<String> profiles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            profiles.add("{\"id\":\"%032x\",\"name\":\"Player%d\"}".formatted(i, i));
+        }
+        return "[" + String.join(",", profiles) + "]";
+    }
+}
@@ -0,0 +1,325 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.mojang.PrivatePlayerProfile;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Authenticates many accounts at once and hands out their API instances.
+ * Every account sends its requests through the same transport, so they share its connections and rate limits,
+ * and at most {@link Builder#parallelism(int)} accounts are logging in at the same time.
+ */
+public final class AccountPool implements AutoCloseable {
+
+    private final Transport transport;
+    private final int parallelism;
+    private final Duration refreshAhead;
+    private final @Nullable ScheduledExecutorService scheduler;
+    private final Map<String, Account> accounts = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private AccountPool(Builder builder) {
+        this.transport = builder.transport;
+        this.parallelism = builder.parallelism;
+        this.refreshAhead = builder.refreshAhead;
+        this.scheduler = builder.scheduler;
+    }
+
+    /**
+     * Makes a new account pool builder.
+     * @return The builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Adds an account to the pool, it is not logged in until {@link #authenticateAll(Executor)} or {@link Account#authenticate(Executor)}.
+     * @param id The key of the account in the pool.
+     * @param microsoftToken Supplies the Microsoft OAuth2 access token of the account.
+     * @return The account.
+     * @throws IllegalArgumentException If the pool already has an account with the key.
+     */
+    public Account add(String id, Supplier<String> microsoftToken) {
+        TokenManager.Builder tokens = TokenManager.builder(microsoftToken).transport(transport).refreshAhead(refreshAhead);
+        if (scheduler != null) tokens.scheduler(scheduler);
+        Account account = new Account(id, tokens.build());
+        if (accounts.putIfAbsent(id, account) != null) {
+            throw new IllegalArgumentException("Duplicate account " + id);
+        }
+        return account;
+    }
+
+    /**
+     * Removes an account from the pool and stops refreshing its token.
+     * @param id The key of the account.
+     */
+    public void remove(String id) {
+        Account account = accounts.remove(id);
+        if (account != null) account.tokens.close();
+    }
+
+    /**
+     * Gets an account of the pool.
+     * @param id The key of the account.
+     * @return The account, or null if the pool does not have it.
+     */
+    @Nullable
+    public Account get(String id) {
+        return accounts.get(id);
+    }
+
+    /**
+     * Gets every account of the pool.
+     * @return The accounts, in the order they were added.
+     */
+    public List<Account> accounts() {
+        synchronized (accounts) {
+            return List.copyOf(accounts.values());
+        }
+    }
+
+    /**
+     * Gets the health of every account of the pool.
+     * @return The health by the key of the account, in the order they were added.
+     */
+    public Map<String, Health> health() {
+        Map<String, Health> health = new LinkedHashMap<>();
+        for (Account account : accounts()) {
+            health.put(account.id, account.health);
+        }
+        return health;
+    }
+
+    /**
+     * Logs in every account that is not healthy, at most {@link Builder#parallelism(int)} at a time.
+     * Failed logins do not fail the future, they are reported in the {@link Health} of their account.
+     * @param executor The executor the responses are processed on.
+     * @return A future completing with the accounts that are healthy once every login finished.
+     */
+    public CompletableFuture<List<Account>> authenticateAll(Executor executor) {
+        List<Account> pending = new ArrayList<>();
+        for (Account account : accounts()) {
+            if (account.health.state() != State.HEALTHY) pending.add(account);
+        }
+        return Dispatcher.dispatch(pending.size(), parallelism, index -> pending.get(index).authenticate(executor))
+                .thenApply(done -> healthy());
+    }
+
+    private List<Account> healthy() {
+        List<Account> healthy = new ArrayList<>();
+        for (Account account : accounts()) {
+            if (account.health.state() == State.HEALTHY) healthy.add(account);
+        }
+        return healthy;
+    }
+
+    /**
+     * Stops refreshing the tokens of every account.
+     */
+    @Override
+    public void close() {
+        for (Account account : accounts()) {
+            account.tokens.close();
+        }
+    }
+
+    /**
+     * An account of a pool.
+     */
+    public final class Account {
+
+        private final String id;
+        private final TokenManager tokens;
+        private final MojangAPI mojang;
+        private volatile @Nullable PrivatePlayerProfile profile;
+        private volatile Health health = new Health(State.PENDING, null, null, 0);
+
+        private Account(String id, TokenManager tokens) {
+            this.id = id;
+            this.tokens = tokens;
+            this.mojang = new MojangAPI(tokens, transport);
+        }
+
+        /**
+         * Gets the key of the account in the pool.
+         * @return The key.
+         */
+        public String id() {
+            return id;
+        }
+
+        /**
+         * Gets the token manager of the account.
+         * @return The token manager.
+         */
+        public TokenManager tokens() {
+            return tokens;
+        }
+
+        /**
+         * Gets the MojangAPI of the account, which uses the refreshed token of the account.
+         * @return The MojangAPI.
+         */
+        public MojangAPI mojang() {
+            return mojang;
+        }
+
+        /**
+         * Makes a RealmsAPI of the account, without sending any request.
+         * Its requests go to the realms URL of the pool's transport, which is production unless it overrides
+         * {@link Transport.Service#REALMS}.
+         * @param version The minecraft version the user is playing on.
+         * @return The RealmsAPI.
+         * @throws IllegalStateException If the account was not logged in yet.
+         */
+        public RealmsAPI realms(String version) {
+            PrivatePlayerProfile profile = this.profile;
+            if (profile == null) throw new IllegalStateException("Account " + id + " is not authenticated");
+            return new RealmsAPI(tokens, profile.id(), profile.name(), version, transport);
+        }
+
+        /**
+         * Gets the profile of the account, fetched when it logged in.
+         * @return The profile, or null if the account was not logged in yet.
+         */
+        @Nullable
+        public PrivatePlayerProfile profile() {
+            return profile;
+        }
+
+        /**
+         * Gets the health of the account.
+         * @return The health.
+         */
+        public Health health() {
+            return health;
+        }
+
+        /**
+         * Logs in the account and fetches its profile.
+         * @param executor The executor the responses are processed on.
+         * @return A future completing with this account, or failing with the reason it could not log in.
+         */
+        public CompletableFuture<Account> authenticate(Executor executor) {
+            Health previous = health;
+            health = new Health(State.AUTHENTICATING, previous.lastSuccess(), previous.lastError(), previous.consecutiveFailures());
+            return tokens.tokenAsync(executor)
+                    .thenCompose(token -> mojang.getProfileAsync(executor))
+                    .handle((profile, throwable) -> {
+                        if (throwable != null) {
+                            Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                            health = new Health(State.FAILED, previous.lastSuccess(), cause, previous.consecutiveFailures() + 1);
+                            throw new CompletionException(cause);
+                        }
+                        this.profile = profile;
+                        health = new Health(State.HEALTHY, Instant.now(), null, 0);
+                        return this;
+                    });
+        }
+    }
+
+    /**
+     * The states of an account.
+     */
+    public enum State {
+        /**
+         * The account was not logged in yet.
+         */
+        PENDING,
+        /**
+         * The account is logging in.
+         */
+        AUTHENTICATING,
+        /**
+         * The account logged in.
+         */
+        HEALTHY,
+        /**
+         * The last login of the account failed.
+         */
+        FAILED
+    }
+
+    /**
+     * The health of an account.
+     * @param state The state of the account.
+     * @param lastSuccess When the account last logged in, or null if it never did.
+     * @param lastError Why the last login failed, or null if it did not.
+     * @param consecutiveFailures How many logins failed since the last one that did not.
+     */
+    public record Health(State state, @Nullable Instant lastSuccess, @Nullable Throwable lastError, int consecutiveFailures) {}
+
+    public static final class Builder {
+
+        private Transport transport = Transport.getDefault();
+        private int parallelism = 8;
+        private Duration refreshAhead = Duration.ofMinutes(5);
+        private @Nullable ScheduledExecutorService scheduler;
+
+        private Builder() {}
+
+        /**
+         * Sets the transport every account sends its requests through, defaults to {@link Transport#getDefault()}.
+         * @param transport The transport.
+         * @return This builder.
+         */
+        public Builder transport(Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Sets how many accounts may be logging in at the same time, defaults to 8.
+         * @param parallelism The limit.
+         * @return This builder.
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) throw new IllegalArgumentException("parallelism must be positive");
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets how long before a Minecraft token expires a new one is fetched in the background, defaults to 5 minutes.
+         * @param refreshAhead The time before the expiry.
+         * @return This builder.
+         * @see TokenManager.Builder#refreshAhead(Duration)
+         */
+        public Builder refreshAhead(Duration refreshAhead) {
+            if (refreshAhead.isNegative()) throw new IllegalArgumentException("refreshAhead must not be negative");
+            this.refreshAhead = refreshAhead;
+            return this;
+        }
+
+        /**
+         * Sets the scheduler the tokens of the accounts are refreshed on.
+         * @param scheduler The scheduler.
+         * @return This builder.
+         * @see TokenManager.Builder#scheduler(ScheduledExecutorService)
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Builds the account pool.
+         * @return The account pool.
+         */
+        public AccountPool build() {
+            return new AccountPool(this);
+        }
+    }
+}
@@ -0,0 +1,1455 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.Pair;
+import cc.aabss.mojang.objects.mojang.*;
+import cc.aabss.mojang.objects.realms.*;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Hand-written streaming type adapters for every model, so decoding does not go through reflection.
+ * Field names, skipped unknown fields and defaults for missing fields match the reflective adapters.
+ */
+final class Adapters implements TypeAdapterFactory {
+
+    private static final Map<Class<?>, Function<Gson, TypeAdapter<?>>> ADAPTERS = new HashMap<>();
+
+    static {
+        ADAPTERS.put(Attributes.class, AttributesAdapter::new);
+        ADAPTERS.put(Ban.class, BanAdapter::new);
+        ADAPTERS.put(BanStatus.class, BanStatusAdapter::new);
+        ADAPTERS.put(BannedScopes.class, BannedScopesAdapter::new);
+        ADAPTERS.put(Cape.class, CapeAdapter::new);
+        ADAPTERS.put(Certificates.class, gson -> new CertificatesAdapter());
+        ADAPTERS.put(MigrationInformation.class, gson -> new MigrationInformationAdapter());
+        ADAPTERS.put(PrivatePlayerProfile.class, PrivatePlayerProfileAdapter::new);
+        ADAPTERS.put(Privileges.class, gson -> new PrivilegesAdapter());
+        ADAPTERS.put(ProfanityFilterPreferences.class, gson -> new ProfanityFilterPreferencesAdapter());
+        ADAPTERS.put(Property.class, gson -> new PropertyAdapter());
+        ADAPTERS.put(PublicPlayerProfile.class, PublicPlayerProfileAdapter::new);
+        ADAPTERS.put(Skin.class, SkinAdapter::new);
+        ADAPTERS.put(Texture.class, TextureAdapter::new);
+        ADAPTERS.put(Texture.Metadata.class, gson -> new TextureMetadataAdapter());
+        ADAPTERS.put(Value.class, ValueAdapter::new);
+        ADAPTERS.put(Backup.class, BackupAdapter::new);
+        ADAPTERS.put(Backup.Metadata.class, BackupMetadataAdapter::new);
+        ADAPTERS.put(BackupDownload.class, gson -> new BackupDownloadAdapter());
+        ADAPTERS.put(Buy.class, gson -> new BuyAdapter());
+        ADAPTERS.put(Invite.class, gson -> new InviteAdapter());
+        ADAPTERS.put(PlayerInvite.class, gson -> new PlayerInviteAdapter());
+        ADAPTERS.put(PrivateRealm.class, PrivateRealmAdapter::new);
+        ADAPTERS.put(Realm.class, RealmAdapter::new);
+        ADAPTERS.put(RealmPlayer.class, gson -> new RealmPlayerAdapter());
+        ADAPTERS.put(Server.class, gson -> new ServerAdapter());
+        ADAPTERS.put(Subscription.class, SubscriptionAdapter::new);
+        ADAPTERS.put(Template.class, TemplateAdapter::new);
+        ADAPTERS.put(Templates.class, TemplatesAdapter::new);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Function<Gson, TypeAdapter<?>> adapter = ADAPTERS.get(type.getRawType());
+        return adapter == null ? null : (TypeAdapter<T>) adapter.apply(gson).nullSafe();
+    }
+
+    // reading -------
+
+    private static String string(JsonReader in) throws IOException {
+        return switch (in.peek()) {
+            case NULL -> {
+                in.nextNull();
+                yield null;
+            }
+            case BOOLEAN -> Boolean.toString(in.nextBoolean());
+            default -> in.nextString();
+        };
+    }
+
+    private static long longValue(JsonReader in) throws IOException {
+        Long value = boxedLong(in);
+        return value == null ? 0 : value;
+    }
+
+    private static Long boxedLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextLong();
+    }
+
+    private static int intValue(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        return in.nextInt();
+    }
+
+    private static boolean bool(JsonReader in) throws IOException {
+        Boolean value = boxedBool(in);
+        return value != null && value;
+    }
+
+    private static Boolean boxedBool(JsonReader in) throws IOException {
+        return switch (in.peek()) {
+            case NULL -> {
+                in.nextNull();
+                yield null;
+            }
+            case STRING -> Boolean.parseBoolean(in.nextString());
+            default -> in.nextBoolean();
+        };
+    }
+
+    private static <T> List<T> list(JsonReader in, TypeAdapter<T> adapter) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<T> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(adapter.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    private static boolean enabled(JsonReader in) throws IOException {
+        boolean enabled = false;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("enabled")) {
+                enabled = bool(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return enabled;
+    }
+
+    // writing -------
+
+    private static <T> void list(JsonWriter out, List<T> list, TypeAdapter<T> adapter) throws IOException {
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (T element : list) {
+            adapter.write(out, element);
+        }
+        out.endArray();
+    }
+
+    private static void enabled(JsonWriter out, String name, boolean enabled) throws IOException {
+        out.name(name).beginObject().name("enabled").value(enabled).endObject();
+    }
+
+    // mojang -------
+
+    private static final class AttributesAdapter extends TypeAdapter<Attributes> {
+
+        private final TypeAdapter<Privileges> privileges;
+        private final TypeAdapter<ProfanityFilterPreferences> profanityFilterPreferences;
+        private final TypeAdapter<BanStatus> banStatus;
+
+        AttributesAdapter(Gson gson) {
+            this.privileges = gson.getAdapter(Privileges.class);
+            this.profanityFilterPreferences = gson.getAdapter(ProfanityFilterPreferences.class);
+            this.banStatus = gson.getAdapter(BanStatus.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, Attributes value) throws IOException {
+            out.beginObject();
+            out.name("privileges");
+            privileges.write(out, value.privileges());
+            out.name("profanityFilterPreferences");
+            profanityFilterPreferences.write(out, value.profanityFilterPreferences());
+            out.name("banStatus");
+            banStatus.write(out, value.banStatus());
+            out.endObject();
+        }
+
+        @Override
+        public Attributes read(JsonReader in) throws IOException {
+            Privileges privileges = null;
+            ProfanityFilterPreferences profanityFilterPreferences = null;
+            BanStatus banStatus = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "privileges" -> privileges = this.privileges.read(in);
+                    case "profanityFilterPreferences" -> profanityFilterPreferences = this.profanityFilterPreferences.read(in);
+                    case "banStatus" -> banStatus = this.banStatus.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Attributes(privileges, profanityFilterPreferences, banStatus);
+        }
+    }
+
+    private static final class BanAdapter extends TypeAdapter<Ban> {
+
+        private final TypeAdapter<Ban.Reason> reason;
+
+        BanAdapter(Gson gson) {
+            this.reason = gson.getAdapter(Ban.Reason.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, Ban value) throws IOException {
+            out.beginObject();
+            out.name("banId").value(value.banId());
+            out.name("expires").value(value.expires());
+            out.name("reason");
+            reason.write(out, value.reason());
+            out.name("reasonMessage").value(value.reasonMessage());
+            out.endObject();
+        }
+
+        @Override
+        public Ban read(JsonReader in) throws IOException {
+            String banId = null;
+            Long expires = null;
+            Ban.Reason reason = null;
+            String reasonMessage = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "banId" -> banId = string(in);
+                    case "expires" -> expires = boxedLong(in);
+                    case "reason" -> reason = this.reason.read(in);
+                    case "reasonMessage" -> reasonMessage = string(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Ban(banId, expires, reason, reasonMessage);
+        }
+    }
+
+    private static final class BanStatusAdapter extends TypeAdapter<BanStatus> {
+
+        private final TypeAdapter<BannedScopes> bannedScopes;
+
+        BanStatusAdapter(Gson gson) {
+            this.bannedScopes = gson.getAdapter(BannedScopes.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, BanStatus value) throws IOException {
+            out.beginObject();
+            out.name("bannedScopes");
+            bannedScopes.write(out, value.bannedScopes());
+            out.endObject();
+        }
+
+        @Override
+        public BanStatus read(JsonReader in) throws IOException {
+            BannedScopes bannedScopes = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("bannedScopes")) {
+                    bannedScopes = this.bannedScopes.read(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return new BanStatus(bannedScopes);
+        }
+    }
+
+    private static final class BannedScopesAdapter extends TypeAdapter<BannedScopes> {
+
+        private final TypeAdapter<Ban> ban;
+
+        BannedScopesAdapter(Gson gson) {
+            this.ban = gson.getAdapter(Ban.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, BannedScopes value) throws IOException {
+            out.beginObject();
+            out.name("bannedMap");
+            if (value.bannedMap() == null) {
+                out.nullValue();
+            } else {
+                out.beginObject();
+                for (Map.Entry<String, Ban> entry : value.bannedMap().entrySet()) {
+                    out.name(entry.getKey());
+                    ban.write(out, entry.getValue());
+                }
+                out.endObject();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public BannedScopes read(JsonReader in) throws IOException {
+            Map<String, Ban> bannedMap = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("bannedMap") && in.peek() == JsonToken.BEGIN_OBJECT) {
+                    bannedMap = new LinkedHashMap<>();
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        bannedMap.put(in.nextName(), ban.read(in));
+                    }
+                    in.endObject();
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return new BannedScopes(bannedMap);
+        }
+    }
+
+    private static final class CapeAdapter extends TypeAdapter<Cape> {
+
+        private final TypeAdapter<ActiveState> state;
+
+        CapeAdapter(Gson gson) {
+            this.state = gson.getAdapter(ActiveState.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, Cape value) throws IOException {
+            out.beginObject();
+            out.name("id").value(value.id());
+            out.name("state");
+            state.write(out, value.state());
+            out.name("url").value(value.url());
+            out.name("alias").value(value.alias());
+            out.endObject();
+        }
+
+        @Override
+        public Cape read(JsonReader in) throws IOException {
+            String id = null;
+            ActiveState state = null;
+            String url = null;
+            String alias = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id" -> id = string(in);
+                    case "state" -> state = this.state.read(in);
+                    case "url" -> url = string(in);
+                    case "alias" -> alias = string(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Cape(id, state, url, alias);
+        }
+    }
+
+    private static final class CertificatesAdapter extends TypeAdapter<Certificates> {
+
+        @Override
+        public void write(JsonWriter out, Certificates value) throws IOException {
+            out.beginObject();
+            out.name("keyPair").beginObject()
+                    .name("privateKey").value(value.keys().getLeft())
+                    .name("publicKey").value(value.keys().getRight())
+                    .endObject();
+            out.name("publicKeySignature").value(value.publicKeySignature());
+            out.name("publicKeySignatureV2").value(value.publicKeySignatureV2());
+            out.name("expiresAt").value(value.expiresAt());
+            out.name("refreshedAfter").value(value.refreshedAfter());
+            out.endObject();
+        }
+
+        @Override
+        public Certificates read(JsonReader in) throws IOException {
+            String privateKey = null;
+            String publicKey = null;
+            String publicKeySignature = null;
+            String publicKeySignatureV2 = null;
+            String expiresAt = null;
+            String refreshedAfter = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "keyPair" -> {
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            switch (in.nextName()) {
+                                case "privateKey" -> privateKey = string(in);
+                                case "publicKey" -> publicKey = string(in);
+                                default -> in.skipValue();
+                            }
+                        }
+                        in.endObject();
+                    }
+                    case "publicKeySignature" -> publicKeySignature = string(in);
+                    case "publicKeySignatureV2" -> publicKeySignatureV2 = string(in);
+                    case "expiresAt" -> expiresAt = string(in);
+                    case "refreshedAfter" -> refreshedAfter = string(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Certificates(Pair.of(privateKey, publicKey), publicKeySignature, publicKeySignatureV2, expiresAt, refreshedAfter);
+        }
+    }
+
+    private static final class MigrationInformationAdapter extends TypeAdapter<MigrationInformation> {
+
+        @Override
+        public void write(JsonWriter out, MigrationInformation value) throws IOException {
+            out.beginObject();
+            out.name("feature").value(value.feature());
+            out.name("rollout").value(value.rollout());
+            out.endObject();
+        }
+
+        @Override
+        public MigrationInformation read(JsonReader in) throws IOException {
+            String feature = null;
+            boolean rollout = false;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "feature" -> feature = string(in);
+                    case "rollout" -> rollout = bool(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new MigrationInformation(feature, rollout);
+        }
+    }
+
+    private static final class PrivatePlayerProfileAdapter extends TypeAdapter<PrivatePlayerProfile> {
+
+        private final TypeAdapter<Skin> skin;
+        private final TypeAdapter<Cape> cape;
+
+        PrivatePlayerProfileAdapter(Gson gson) {
+            this.skin = gson.getAdapter(Skin.class);
+            this.cape = gson.getAdapter(Cape.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, PrivatePlayerProfile value) throws IOException {
+            out.beginObject();
+            out.name("id").value(value.id());
+            out.name("name").value(value.name());
+            out.name("skins");
+            list(out, value.skins(), skin);
+            out.name("capes");
+            list(out, value.capes(), cape);
+            out.endObject();
+        }
+
+        @Override
+        public PrivatePlayerProfile read(JsonReader in) throws IOException {
+            String id = null;
+            String name = null;
+            List<Skin> skins = null;
+            List<Cape> capes = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id" -> id = string(in);
+                    case "name" -> name = string(in);
+                    case "skins" -> skins = list(in, skin);
+                    case "capes" -> capes = list(in, cape);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new PrivatePlayerProfile(id, name, skins, capes);
+        }
+    }
+
+    private static final class PrivilegesAdapter extends TypeAdapter<Privileges> {
+
+        @Override
+        public void write(JsonWriter out, Privileges value) throws IOException {
+            out.beginObject();
+            enabled(out, "onlineChat", value.onlineChat());
+            enabled(out, "multiplayerServer", value.multiplayerServer());
+            enabled(out, "multiplayerRealms", value.multiplayerRealms());
+            enabled(out, "telemetry", value.telemetry());
+            out.endObject();
+        }
+
+        @Override
+        public Privileges read(JsonReader in) throws IOException {
+            boolean onlineChat = false;
+            boolean multiplayerServer = false;
+            boolean multiplayerRealms = false;
+            boolean telemetry = false;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "onlineChat" -> onlineChat = enabled(in);
+                    case "multiplayerServer" -> multiplayerServer = enabled(in);
+                    case "multiplayerRealms" -> multiplayerRealms = enabled(in);
+                    case "telemetry" -> telemetry = enabled(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Privileges(onlineChat, multiplayerServer, multiplayerRealms, telemetry);
+        }
+    }
+
+    private static final class ProfanityFilterPreferencesAdapter extends TypeAdapter<ProfanityFilterPreferences> {
+
+        @Override
+        public void write(JsonWriter out, ProfanityFilterPreferences value) throws IOException {
+            out.beginObject();
+            out.name("profanityFilterOn").value(value.profanityFilterOn());
+            out.endObject();
+        }
+
+        @Override
+        public ProfanityFilterPreferences read(JsonReader in) throws IOException {
+            boolean profanityFilterOn = false;
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("profanityFilterOn")) {
+                    profanityFilterOn = bool(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return new ProfanityFilterPreferences(profanityFilterOn);
+        }
+    }
+
+    private static final class PropertyAdapter extends TypeAdapter<Property> {
+
+        @Override
+        public void write(JsonWriter out, Property value) throws IOException {
+            out.beginObject();
+            out.name("name").value(value.name());
+            out.name("value").value(value.value());
+            out.name("signature").value(value.signature());
+            out.endObject();
+        }
+
+        @Override
+        public Property read(JsonReader in) throws IOException {
+            String name = null;
+            String value = null;
+            String signature = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name" -> name = string(in);
+                    case "value" -> value = string(in);
+                    case "signature" -> signature = string(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Property(name, value, signature);
+        }
+    }
+
+    private static final class PublicPlayerProfileAdapter extends TypeAdapter<PublicPlayerProfile> {
+
+        private final TypeAdapter<Property> property;
+        private final TypeAdapter<ProfileAction> profileAction;
+
+        PublicPlayerProfileAdapter(Gson gson) {
+            this.property = gson.getAdapter(Property.class);
+            this.profileAction = gson.getAdapter(ProfileAction.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, PublicPlayerProfile value) throws IOException {
+            out.beginObject();
+            out.name("id").value(value.id());
+            out.name("name").value(value.name());
+            out.name("properties");
+            list(out, value.properties(), property);
+            out.name("profileActions");
+            list(out, value.profileActions(), profileAction);
+            out.name("legacy").value(value.legacy());
+            out.endObject();
+        }
+
+        @Override
+        public PublicPlayerProfile read(JsonReader in) throws IOException {
+            String id = null;
+            String name = null;
+            List<Property> properties = null;
+            List<ProfileAction> profileActions = null;
+            boolean legacy = false;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id" -> id = string(in);
+                    case "name" -> name = string(in);
+                    case "properties" -> properties = list(in, property);
+                    case "profileActions" -> profileActions = list(in, profileAction);
+                    case "legacy" -> legacy = bool(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new PublicPlayerProfile(id, name, properties, profileActions, legacy);
+        }
+    }
+
+    private static final class SkinAdapter extends TypeAdapter<Skin> {
+
+        private final TypeAdapter<ActiveState> state;
+        private final TypeAdapter<Variant> variant;
+
+        SkinAdapter(Gson gson) {
+            this.state = gson.getAdapter(ActiveState.class);
+            this.variant = gson.getAdapter(Variant.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, Skin value) throws IOException {
+            out.beginObject();
+            out.name("id").value(value.id());
+            out.name("state");
+            state.write(out, value.state());
+            out.name("url").value(value.url());
+            out.name("textureKey").value(value.textureKey());
+            out.name("variant");
+            variant.write(out, value.variant());
+            out.endObject();
+        }
+
+        @Override
+        public Skin read(JsonReader in) throws IOException {
+            String id = null;
+            ActiveState state = null;
+            String url = null;
+            String textureKey = null;
+            Variant variant = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id" -> id = string(in);
+                    case "state" -> state = this.state.read(in);
+                    case "url" -> url = string(in);
+                    case "textureKey" -> textureKey = string(in);
+                    case "variant" -> variant = this.variant.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Skin(id, state, url, textureKey, variant);
+        }
+    }
+
+    private static final class TextureAdapter extends TypeAdapter<Texture> {
+
+        private final TypeAdapter<Texture.Metadata> metadata;
+
+        TextureAdapter(Gson gson) {
+            this.metadata = gson.getAdapter(Texture.Metadata.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, Texture value) throws IOException {
+            out.beginObject();
+            out.name("name").value(value.name());
+            out.name("url").value(value.url());
+            out.name("metadata");
+            metadata.write(out, value.metadata());
+            out.endObject();
+        }
+
+        @Override
+        public Texture read(JsonReader in) throws IOException {
+            return read(in, null);
+        }
+
+        /**
+         * Reads a texture, which in a textures property is keyed by its name instead of holding it.
+         */
+        Texture read(JsonReader in, String name) throws IOException {
+            String url = null;
+            Texture.Metadata metadata = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name" -> name = string(in);
+                    case "url" -> url = string(in);
+                    case "metadata" -> metadata = this.metadata.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Texture(name, url, metadata);
+        }
+    }
+
+    private static final class TextureMetadataAdapter extends TypeAdapter<Texture.Metadata> {
+
+        @Override
+        public void write(JsonWriter out, Texture.Metadata value) throws IOException {
+            out.beginObject();
+            out.name("model").value(value.model() == null ? null : value.model().name().toLowerCase(Locale.ROOT));
+            out.endObject();
+        }
+
+        @Override
+        public Texture.Metadata read(JsonReader in) throws IOException {
+            Variant model = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("model")) {
+                    model = variant(string(in));
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Texture.Metadata(model);
+        }
+
+        private static Variant variant(String model) {
+            if (model == null) return null;
+            try {
+                return Variant.valueOf(model.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class ValueAdapter extends TypeAdapter<Value> {
+
+        private final TextureAdapter texture;
+
+        ValueAdapter(Gson gson) {
+            this.texture = new TextureAdapter(gson);
+        }
+
+        @Override
+        public void write(JsonWriter out, Value value) throws IOException {
+            out.beginObject();
+            out.name("rawValue").value(value.rawValue());
+            out.name("timestamp").value(value.timestamp());
+            out.name("profileId").value(value.profileId());
+            out.name("profileName").value(value.profileName());
+            out.name("signatureRequired").value(value.signatureRequired());
+            out.name("textures");
+            list(out, value.textures(), texture);
+            out.endObject();
+        }
+
+        @Override
+        public Value read(JsonReader in) throws IOException {
+            String rawValue = null;
+            long timestamp = 0;
+            String profileId = null;
+            String profileName = null;
+            boolean signatureRequired = false;
+            List<Texture> textures = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "rawValue" -> rawValue = string(in);
+                    case "timestamp" -> timestamp = longValue(in);
+                    case "profileId" -> profileId = string(in);
+                    case "profileName" -> profileName = string(in);
+                    case "signatureRequired" -> signatureRequired = bool(in);
+                    case "textures" -> textures = textures(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Value(rawValue, timestamp, profileId, profileName, signatureRequired, textures);
+        }
+
+        private List<Texture> textures(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                return list(in, texture);
+            }
+            // The textures property holds an object of textures keyed by their name, like "SKIN" and "CAPE".
+            List<Texture> textures = new ArrayList<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                textures.add(texture.read(in, in.nextName()));
+            }
+            in.endObject();
+            return textures;
+        }
+    }
+
+    // realms -------
+
+    private static final class BackupAdapter extends TypeAdapter<Backup> {
+
+        private final TypeAdapter<Backup.Metadata> metadata;
+
+        BackupAdapter(Gson gson) {
+            this.metadata = gson.getAdapter(Backup.Metadata.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, Backup value) throws IOException {
+            out.beginObject();
+            out.name("backupId").value(value.backupId());
+            out.name("lastModifiedDate").value(value.lastModifiedDate());
+            out.name("size").value(value.size());
+            out.name("metdata");
+            metadata.write(out, value.metdata());
+            out.endObject();
+        }
+
+        @Override
+        public Backup read(JsonReader in) throws IOException {
+            String backupId = null;
+            long lastModifiedDate = 0;
+            long size = 0;
+            Backup.Metadata metdata = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "backupId" -> backupId = string(in);
+                    case "lastModifiedDate" -> lastModifiedDate = longValue(in);
+                    case "size" -> size = longValue(in);
+                    case "metdata" -> metdata = metadata.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Backup(backupId, lastModifiedDate, size, metdata);
+        }
+    }
+
+    private static final class BackupMetadataAdapter extends TypeAdapter<Backup.Metadata> {
+
+        private final TypeAdapter<JsonObject> jsonObject;
+        private final TypeAdapter<WorldType> worldType;
+
+        BackupMetadataAdapter(Gson gson) {
+            this.jsonObject = gson.getAdapter(JsonObject.class);
+            this.worldType = gson.getAdapter(WorldType.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, Backup.Metadata value) throws IOException {
+            out.beginObject();
+            out.name("game_difficulty").value(value.gameDifficulty());
+            out.name("name").value(value.name());
+            out.name("game_server_version").value(value.gameServerVersion());
+            out.name("enabled_packs");
+            jsonObject.write(out, value.enabledPacks());
+            out.name("description").value(value.description());
+            out.name("game_mode").value(value.gameMode());
+            out.name("world_type");
+            worldType.write(out, value.worldType());
+            out.endObject();
+        }
+
+        @Override
+        public Backup.Metadata read(JsonReader in) throws IOException {
+            String gameDifficulty = null;
+            String name = null;
+            String gameServerVersion = null;
+            JsonObject enabledPacks = null;
+            String description = null;
+            String gameMode = null;
+            WorldType worldType = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "game_difficulty" -> gameDifficulty = string(in);
+                    case "name" -> name = string(in);
+                    case "game_server_version" -> gameServerVersion = string(in);
+                    case "enabled_packs" -> enabledPacks = jsonObject.read(in);
+                    case "description" -> description = string(in);
+                    case "game_mode" -> gameMode = string(in);
+                    case "world_type" -> worldType = this.worldType.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Backup.Metadata(gameDifficulty, name, gameServerVersion, enabledPacks, description, gameMode, worldType);
+        }
+    }
+
+    private static final class BackupDownloadAdapter extends TypeAdapter<BackupDownload> {
+
+        @Override
+        public void write(JsonWriter out, BackupDownload value) throws IOException {
+            out.beginObject();
+            out.name("downloadLink").value(value.downloadLink());
+            out.name("resourcePackUrl").value(value.resourcePackUrl());
+            out.name("resourcePackHash").value(value.resourcePackHash());
+            out.endObject();
+        }
+
+        @Override
+        public BackupDownload read(JsonReader in) throws IOException {
+            String downloadLink = null;
+            String resourcePackUrl = null;
+            String resourcePackHash = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "downloadLink" -> downloadLink = string(in);
+                    case "resourcePackUrl" -> resourcePackUrl = string(in);
+                    case "resourcePackHash" -> resourcePackHash = string(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new BackupDownload(downloadLink, resourcePackUrl, resourcePackHash);
+        }
+    }
+
+    private static final class BuyAdapter extends TypeAdapter<Buy> {
+
+        @Override
+        public void write(JsonWriter out, Buy value) throws IOException {
+            out.beginObject();
+            out.name("statusMessage").value(value.statusMessage());
+            out.name("buyLink").value(value.buyLink());
+            out.endObject();
+        }
+
+        @Override
+        public Buy read(JsonReader in) throws IOException {
+            String statusMessage = null;
+            String buyLink = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "statusMessage" -> statusMessage = string(in);
+                    case "buyLink" -> buyLink = string(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Buy(statusMessage, buyLink);
+        }
+    }
+
+    private static final class InviteAdapter extends TypeAdapter<Invite> {
+
+        @Override
+        public void write(JsonWriter out, Invite value) throws IOException {
+            out.beginObject();
+            out.name("invitationId").value(value.invitationId());
+            out.name("worldName").value(value.worldName());
+            out.name("worldDescription").value(value.worldDescription());
+            out.name("worldOwnerName").value(value.worldOwnerName());
+            out.name("worldOwnerUuid").value(value.worldOwnerUuid());
+            out.name("date").value(value.date());
+            out.endObject();
+        }
+
+        @Override
+        public Invite read(JsonReader in) throws IOException {
+            String invitationId = null;
+            String worldName = null;
+            String worldDescription = null;
+            String worldOwnerName = null;
+            String worldOwnerUuid = null;
+            Long date = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "invitationId" -> invitationId = string(in);
+                    case "worldName" -> worldName = string(in);
+                    case "worldDescription" -> worldDescription = string(in);
+                    case "worldOwnerName" -> worldOwnerName = string(in);
+                    case "worldOwnerUuid" -> worldOwnerUuid = string(in);
+                    case "date" -> date = boxedLong(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Invite(invitationId, worldName, worldDescription, worldOwnerName, worldOwnerUuid, date);
+        }
+    }
+
+    private static final class PlayerInviteAdapter extends TypeAdapter<PlayerInvite> {
+
+        @Override
+        public void write(JsonWriter out, PlayerInvite value) throws IOException {
+            out.beginObject();
+            out.name("name").value(value.name());
+            out.name("uuid").value(value.uuid());
+            out.name("operator").value(value.operator());
+            out.name("accepted").value(value.accepted());
+            out.name("online").value(value.online());
+            out.endObject();
+        }
+
+        @Override
+        public PlayerInvite read(JsonReader in) throws IOException {
+            String name = null;
+            String uuid = null;
+            Boolean operator = null;
+            Boolean accepted = null;
+            Boolean online = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name" -> name = string(in);
+                    case "uuid" -> uuid = string(in);
+                    case "operator" -> operator = boxedBool(in);
+                    case "accepted" -> accepted = boxedBool(in);
+                    case "online" -> online = boxedBool(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new PlayerInvite(name, uuid, operator, accepted, online);
+        }
+    }
+
+    private static final class PrivateRealmAdapter extends TypeAdapter<PrivateRealm> {
+
+        private final TypeAdapter<ServerState> state;
+        private final TypeAdapter<WorldType> worldType;
+        private final TypeAdapter<RealmPlayer> player;
+
+        PrivateRealmAdapter(Gson gson) {
+            this.state = gson.getAdapter(ServerState.class);
+            this.worldType = gson.getAdapter(WorldType.class);
+            this.player = gson.getAdapter(RealmPlayer.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, PrivateRealm value) throws IOException {
+            out.beginObject();
+            out.name("id").value(value.id());
+            out.name("remoteSubscriptionId").value(value.remoteSubscriptionId());
+            out.name("owner").value(value.owner());
+            out.name("ownerUUID").value(value.ownerUUID());
+            out.name("name").value(value.name());
+            out.name("motd").value(value.motd());
+            out.name("defaultPermission").value(value.defaultPermission());
+            out.name("state");
+            state.write(out, value.state());
+            out.name("daysLeft").value(value.daysLeft());
+            out.name("expired").value(value.expired());
+            out.name("expiredTrial").value(value.expiredTrial());
+            out.name("gracePeriod").value(value.gracePeriod());
+            out.name("worldType");
+            worldType.write(out, value.worldType());
+            out.name("players");
+            list(out, value.players(), player);
+            out.name("maxPlayers").value(value.maxPlayers());
+            out.name("minigameName").value(value.minigameName());
+            out.name("minigameId").value(value.minigameId());
+            out.name("minigameImage").value(value.minigameImage());
+            out.name("activeSlot").value(value.activeSlot());
+            out.name("slots").value(value.slots());
+            out.name("member").value(value.member());
+            out.name("clubId").value(value.clubId());
+            out.endObject();
+        }
+
+        @Override
+        public PrivateRealm read(JsonReader in) throws IOException {
+            long id = 0;
+            String remoteSubscriptionId = null;
+            String owner = null;
+            String ownerUUID = null;
+            String name = null;
+            String motd = null;
+            String defaultPermission = null;
+            ServerState state = null;
+            int daysLeft = 0;
+            boolean expired = false;
+            boolean expiredTrial = false;
+            boolean gracePeriod = false;
+            WorldType worldType = null;
+            List<RealmPlayer> players = null;
+            int maxPlayers = 0;
+            String minigameName = null;
+            Long minigameId = null;
+            String minigameImage = null;
+            int activeSlot = 0;
+            int slots = 0;
+            boolean member = false;
+            long clubId = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id" -> id = longValue(in);
+                    case "remoteSubscriptionId" -> remoteSubscriptionId = string(in);
+                    case "owner" -> owner = string(in);
+                    case "ownerUUID" -> ownerUUID = string(in);
+                    case "name" -> name = string(in);
+                    case "motd" -> motd = string(in);
+                    case "defaultPermission" -> defaultPermission = string(in);
+                    case "state" -> state = this.state.read(in);
+                    case "daysLeft" -> daysLeft = intValue(in);
+                    case "expired" -> expired = bool(in);
+                    case "expiredTrial" -> expiredTrial = bool(in);
+                    case "gracePeriod" -> gracePeriod = bool(in);
+                    case "worldType" -> worldType = this.worldType.read(in);
+                    case "players" -> players = list(in, player);
+                    case "maxPlayers" -> maxPlayers = intValue(in);
+                    case "minigameName" -> minigameName = string(in);
+                    case "minigameId" -> minigameId = boxedLong(in);
+                    case "minigameImage" -> minigameImage = string(in);
+                    case "activeSlot" -> activeSlot = intValue(in);
+                    case "slots" -> slots = intValue(in);
+                    case "member" -> member = bool(in);
+                    case "clubId" -> clubId = longValue(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new PrivateRealm(id, remoteSubscriptionId, owner, ownerUUID, name, motd, defaultPermission, state,
+                    daysLeft, expired, expiredTrial, gracePeriod, worldType, players, maxPlayers, minigameName,
+                    minigameId, minigameImage, activeSlot, slots, member, clubId);
+        }
+    }
+
+    private static final class RealmAdapter extends TypeAdapter<Realm> {
+
+        private final TypeAdapter<ServerState> state;
+        private final TypeAdapter<WorldType> worldType;
+        private final TypeAdapter<ServerCompatibility> compatibility;
+
+        RealmAdapter(Gson gson) {
+            this.state = gson.getAdapter(ServerState.class);
+            this.worldType = gson.getAdapter(WorldType.class);
+            this.compatibility = gson.getAdapter(ServerCompatibility.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, Realm value) throws IOException {
+            out.beginObject();
+            out.name("id").value(value.id());
+            out.name("remoteSubscriptionId").value(value.remoteSubscriptionId());
+            out.name("owner").value(value.owner());
+            out.name("ownerUUID").value(value.ownerUUID());
+            out.name("name").value(value.name());
+            out.name("motd").value(value.motd());
+            out.name("state");
+            state.write(out, value.state());
+            out.name("daysLeft").value(value.daysLeft());
+            out.name("expired").value(value.expired());
+            out.name("expiredTrial").value(value.expiredTrial());
+            out.name("worldType");
+            worldType.write(out, value.worldType());
+            out.name("players");
+            if (value.players() == null) {
+                out.nullValue();
+            } else {
+                out.beginArray();
+                for (String player : value.players()) {
+                    out.value(player);
+                }
+                out.endArray();
+            }
+            out.name("maxPlayers").value(value.maxPlayers());
+            out.name("minigameName").value(value.minigameName());
+            out.name("minigameId").value(value.minigameId());
+            out.name("minigameImage").value(value.minigameImage());
+            out.name("activeSlot").value(value.activeSlot());
+            out.name("slots").value(value.slots());
+            out.name("member").value(value.member());
+            out.name("parentWorldId").value(value.parentWorldId());
+            out.name("parentWorldName").value(value.parentWorldName());
+            out.name("compatibility");
+            compatibility.write(out, value.compatibility());
+            out.name("activeVersion").value(value.activeVersion());
+            out.endObject();
+        }
+
+        @Override
+        public Realm read(JsonReader in) throws IOException {
+            long id = 0;
+            String remoteSubscriptionId = null;
+            String owner = null;
+            String ownerUUID = null;
+            String name = null;
+            String motd = null;
+            ServerState state = null;
+            int daysLeft = 0;
+            boolean expired = false;
+            boolean expiredTrial = false;
+            WorldType worldType = null;
+            List<String> players = null;
+            int maxPlayers = 0;
+            String minigameName = null;
+            Long minigameId = null;
+            String minigameImage = null;
+            int activeSlot = 0;
+            int slots = 0;
+            boolean member = false;
+            int parentWorldId = 0;
+            String parentWorldName = null;
+            ServerCompatibility compatibility = null;
+            String activeVersion = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id" -> id = longValue(in);
+                    case "remoteSubscriptionId" -> remoteSubscriptionId = string(in);
+                    case "owner" -> owner = string(in);
+                    case "ownerUUID" -> ownerUUID = string(in);
+                    case "name" -> name = string(in);
+                    case "motd" -> motd = string(in);
+                    case "state" -> state = this.state.read(in);
+                    case "daysLeft" -> daysLeft = intValue(in);
+                    case "expired" -> expired = bool(in);
+                    case "expiredTrial" -> expiredTrial = bool(in);
+                    case "worldType" -> worldType = this.worldType.read(in);
+                    case "players" -> players = strings(in);
+                    case "maxPlayers" -> maxPlayers = intValue(in);
+                    case "minigameName" -> minigameName = string(in);
+                    case "minigameId" -> minigameId = boxedLong(in);
+                    case "minigameImage" -> minigameImage = string(in);
+                    case "activeSlot" -> activeSlot = intValue(in);
+                    case "slots" -> slots = intValue(in);
+                    case "member" -> member = bool(in);
+                    case "parentWorldId" -> parentWorldId = intValue(in);
+                    case "parentWorldName" -> parentWorldName = string(in);
+                    case "compatibility" -> compatibility = this.compatibility.read(in);
+                    case "activeVersion" -> activeVersion = string(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Realm(id, remoteSubscriptionId, owner, ownerUUID, name, motd, state, daysLeft, expired,
+                    expiredTrial, worldType, players, maxPlayers, minigameName, minigameId, minigameImage, activeSlot,
+                    slots, member, parentWorldId, parentWorldName, compatibility, activeVersion);
+        }
+
+        private static List<String> strings(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            List<String> list = new ArrayList<>();
+            in.beginArray();
+            while (in.hasNext()) {
+                list.add(string(in));
+            }
+            in.endArray();
+            return list;
+        }
+    }
+
+    private static final class RealmPlayerAdapter extends TypeAdapter<RealmPlayer> {
+
+        @Override
+        public void write(JsonWriter out, RealmPlayer value) throws IOException {
+            out.beginObject();
+            out.name("name").value(value.name());
+            out.name("uuid").value(value.uuid());
+            out.name("operator").value(value.operator());
+            out.name("accepted").value(value.accepted());
+            out.name("online").value(value.online());
+            out.name("permission").value(value.permission());
+            out.endObject();
+        }
+
+        @Override
+        public RealmPlayer read(JsonReader in) throws IOException {
+            String name = null;
+            String uuid = null;
+            boolean operator = false;
+            boolean accepted = false;
+            boolean online = false;
+            String permission = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name" -> name = string(in);
+                    case "uuid" -> uuid = string(in);
+                    case "operator" -> operator = bool(in);
+                    case "accepted" -> accepted = bool(in);
+                    case "online" -> online = bool(in);
+                    case "permission" -> permission = string(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new RealmPlayer(name, uuid, operator, accepted, online, permission);
+        }
+    }
+
+    private static final class ServerAdapter extends TypeAdapter<Server> {
+
+        @Override
+        public void write(JsonWriter out, Server value) throws IOException {
+            out.beginObject();
+            out.name("address").value(value.address());
+            out.name("pendingUpdate").value(value.pendingUpdate());
+            out.endObject();
+        }
+
+        @Override
+        public Server read(JsonReader in) throws IOException {
+            String address = null;
+            boolean pendingUpdate = false;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "address" -> address = string(in);
+                    case "pendingUpdate" -> pendingUpdate = bool(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Server(address, pendingUpdate);
+        }
+    }
+
+    private static final class SubscriptionAdapter extends TypeAdapter<Subscription> {
+
+        private final TypeAdapter<SubscriptionType> subscriptionType;
+
+        SubscriptionAdapter(Gson gson) {
+            this.subscriptionType = gson.getAdapter(SubscriptionType.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, Subscription value) throws IOException {
+            out.beginObject();
+            out.name("startDate").value(value.startDate());
+            out.name("daysLeft").value(value.daysLeft());
+            out.name("subscriptionType");
+            subscriptionType.write(out, value.subscriptionType());
+            out.endObject();
+        }
+
+        @Override
+        public Subscription read(JsonReader in) throws IOException {
+            Long startDate = null;
+            int daysLeft = 0;
+            SubscriptionType subscriptionType = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "startDate" -> startDate = boxedLong(in);
+                    case "daysLeft" -> daysLeft = intValue(in);
+                    case "subscriptionType" -> subscriptionType = this.subscriptionType.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Subscription(startDate, daysLeft, subscriptionType);
+        }
+    }
+
+    private static final class TemplateAdapter extends TypeAdapter<Template> {
+
+        private final TypeAdapter<WorldType> type;
+
+        TemplateAdapter(Gson gson) {
+            this.type = gson.getAdapter(WorldType.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, Template value) throws IOException {
+            out.beginObject();
+            out.name("id").value(value.id());
+            out.name("name").value(value.name());
+            out.name("version").value(value.version());
+            out.name("author").value(value.author());
+            out.name("link").value(value.link());
+            out.name("image").value(value.image());
+            out.name("trailer").value(value.trailer());
+            out.name("recommendedPlayers").value(value.recommendedPlayers());
+            out.name("type");
+            type.write(out, value.type());
+            out.endObject();
+        }
+
+        @Override
+        public Template read(JsonReader in) throws IOException {
+            long id = 0;
+            String name = null;
+            String version = null;
+            String author = null;
+            String link = null;
+            String image = null;
+            String trailer = null;
+            String recommendedPlayers = null;
+            WorldType type = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id" -> id = longValue(in);
+                    case "name" -> name = string(in);
+                    case "version" -> version = string(in);
+                    case "author" -> author = string(in);
+                    case "link" -> link = string(in);
+                    case "image" -> image = string(in);
+                    case "trailer" -> trailer = string(in);
+                    case "recommendedPlayers" -> recommendedPlayers = string(in);
+                    case "type" -> type = this.type.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Template(id, name, version, author, link, image, trailer, recommendedPlayers, type);
+        }
+    }
+
+    private static final class TemplatesAdapter extends TypeAdapter<Templates> {
+
+        private final TypeAdapter<Template> template;
+
+        TemplatesAdapter(Gson gson) {
+            this.template = gson.getAdapter(Template.class);
+        }
+
+        @Override
+        public void write(JsonWriter out, Templates value) throws IOException {
+            out.beginObject();
+            out.name("templates");
+            list(out, value.templates(), template);
+            out.name("page").value(value.page());
+            out.name("size").value(value.size());
+            out.name("total").value(value.total());
+            out.endObject();
+        }
+
+        @Override
+        public Templates read(JsonReader in) throws IOException {
+            List<Template> templates = null;
+            int page = 0;
+            int size = 0;
+            int total = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "templates" -> templates = list(in, template);
+                    case "page" -> page = intValue(in);
+                    case "size" -> size = intValue(in);
+                    case "total" -> total = intValue(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Templates(templates, page, size, total);
+        }
+    }
+}
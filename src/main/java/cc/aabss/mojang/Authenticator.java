@@ -1,17 +1,34 @@
 package cc.aabss.mojang;
 
-import cc.aabss.mojang.objects.Pair;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
-import java.net.URI;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-
-import static cc.aabss.mojang.MojangAPI.httpClient;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class Authenticator {
+
+    /**
+     * Makes a new instance of Authenticator that sends its requests through {@link Transport#getDefault()}.
+     */
+    public Authenticator() {
+        this(Transport.getDefault());
+    }
+
+    /**
+     * Makes a new instance of Authenticator.
+     * @param transport The transport requests are sent through.
+     */
+    public Authenticator(Transport transport) {
+        this.transport = transport;
+    }
+
+    private final Transport transport;
+
     /**
      * Gets a Minecraft access token by a Microsoft OAuth2 flow.
      * <a href="https://wiki.vg/Microsoft_Authentication_Scheme">GUIDE</a>
@@ -19,20 +36,47 @@ public class Authenticator {
      * @return The Minecraft access token,
      */
     public static String authenticate(String accessToken) {
-        try {
-            Pair<String, String> pair = xboxLive(accessToken);
-            String xbl = pair.getLeft();
-            String userHash = pair.getRight();
-            String xsts = xsts(xbl);
-            return minecraft(userHash, xsts);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return new Authenticator(Transport.getDefault()).login(accessToken);
+    }
+
+    /**
+     * Gets a Minecraft access token by a Microsoft OAuth2 flow without blocking.
+     * <a href="https://wiki.vg/Microsoft_Authentication_Scheme">GUIDE</a>
+     * @param accessToken The Microsoft OAuth2 flow.
+     * @param executor The executor the responses are processed on.
+     * @return A future completing with the Minecraft access token.
+     */
+    public static CompletableFuture<String> authenticateAsync(String accessToken, Executor executor) {
+        return new Authenticator(Transport.getDefault()).loginAsync(accessToken, executor);
+    }
+
+    /**
+     * Gets a Minecraft access token by a Microsoft OAuth2 flow.
+     * <a href="https://wiki.vg/Microsoft_Authentication_Scheme">GUIDE</a>
+     * @param accessToken The Microsoft OAuth2 flow.
+     * @return The Minecraft access token,
+     */
+    public String login(String accessToken) {
+        Token xbl = FlightEvents.stage("xboxLive", () -> xboxLive(accessToken).send());
+        Token xsts = FlightEvents.stage("xsts", () -> xsts(xbl).send());
+        return FlightEvents.stage("minecraft", () -> minecraft(xsts).send()).value();
     }
 
-    private static Pair<String, String> xboxLive(String accessToken) throws IOException, InterruptedException {
-        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder()
-                .uri(URI.create("https://user.auth.xboxlive.com/user/authenticate"))
+    /**
+     * Gets a Minecraft access token by a Microsoft OAuth2 flow without blocking.
+     * <a href="https://wiki.vg/Microsoft_Authentication_Scheme">GUIDE</a>
+     * @param accessToken The Microsoft OAuth2 flow.
+     * @param executor The executor the responses are processed on.
+     * @return A future completing with the Minecraft access token.
+     */
+    public CompletableFuture<String> loginAsync(String accessToken, Executor executor) {
+        return FlightEvents.stageAsync("xboxLive", () -> xboxLive(accessToken).sendAsync(executor)).thenCompose(xbl ->
+                FlightEvents.stageAsync("xsts", () -> xsts(xbl).sendAsync(executor)).thenCompose(xsts ->
+                        FlightEvents.stageAsync("minecraft", () -> minecraft(xsts).sendAsync(executor)))).thenApply(Token::value);
+    }
+
+    Call<Token> xboxLive(String accessToken) {
+        HttpRequest request = transport.request(Transport.Service.XBOX_LIVE, "/user/authenticate")
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString("""
@@ -46,19 +90,12 @@ public class Authenticator {
                                     "TokenType": "JWT"
                                  }
                                 """.replaceAll("<access token>", accessToken)))
-                .build(), HttpResponse.BodyHandlers.ofString());
-        JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
-        return Pair.of(json.get("token").getAsString(), json
-                .getAsJsonObject("DisplayClaims")
-                .getAsJsonArray("xui")
-                .get(0).getAsJsonObject()
-                .get("uhs").getAsString()
-        );
+                .build();
+        return Call.json(transport, "Authenticator.xboxLive", request, (response, reader) -> xboxToken(JsonParser.parseReader(reader).getAsJsonObject()));
     }
 
-    private static String xsts(String xblToken) throws IOException, InterruptedException {
-        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder()
-                .uri(URI.create("https://xsts.auth.xboxlive.com/xsts/authorize"))
+    Call<Token> xsts(Token xbl) {
+        HttpRequest request = transport.request(Transport.Service.XSTS, "/xsts/authorize")
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString("""
@@ -71,22 +108,43 @@ public class Authenticator {
                     },
                     "RelyingParty": "rp://api.minecraftservices.com/",
                     "TokenType": "JWT"
-                 }""".replaceAll("<xbl_token>", xblToken)))
-                .build(), HttpResponse.BodyHandlers.ofString());
-        JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
-        return json.get("Token").getAsString();
+                 }""".replaceAll("<xbl_token>", xbl.value())))
+                .build();
+        return Call.json(transport, "Authenticator.xsts", request, (response, reader) -> xboxToken(JsonParser.parseReader(reader).getAsJsonObject()));
     }
 
-    private static String minecraft(String userHash, String xstsToken) throws IOException, InterruptedException {
-        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder()
-                .uri(URI.create("https://api.minecraftservices.com/authentication/login_with_xbox"))
+    Call<Token> minecraft(Token xsts) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/authentication/login_with_xbox")
                 .POST(HttpRequest.BodyPublishers.ofString(
                         "{\"identityToken\": \"XBL3.0 x=<userhash>;<xsts_token>\"}"
-                                .replaceAll("<userhash>", userHash)
-                                .replaceAll("<xsts_token>", xstsToken))
+                                .replaceAll("<userhash>", xsts.userHash())
+                                .replaceAll("<xsts_token>", xsts.value()))
                 )
-                .build(), HttpResponse.BodyHandlers.ofString());
-        JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
-        return json.get("access_token").getAsString();
+                .build();
+        return Call.json(transport, "Authenticator.minecraft", request, (response, reader) -> {
+            JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+            // Tokens without an expiry are not reused.
+            return new Token(json.get("access_token").getAsString(), null,
+                    Instant.now().plusSeconds(json.has("expires_in") ? json.get("expires_in").getAsLong() : 0));
+        });
     }
-}
\ No newline at end of file
+
+    private static Token xboxToken(JsonObject json) {
+        JsonElement token = json.has("Token") ? json.get("Token") : json.get("token");
+        return new Token(token.getAsString(), json
+                .getAsJsonObject("DisplayClaims")
+                .getAsJsonArray("xui")
+                .get(0).getAsJsonObject()
+                .get("uhs").getAsString(),
+                json.has("NotAfter") ? Instant.parse(json.get("NotAfter").getAsString()) : Instant.now()
+        );
+    }
+
+    /**
+     * A token of one step of the login.
+     * @param value The token.
+     * @param userHash The user hash of an Xbox Live token, or null for a Minecraft token.
+     * @param expiresAt When the token expires.
+     */
+    record Token(String value, @Nullable String userHash, Instant expiresAt) {}
+}
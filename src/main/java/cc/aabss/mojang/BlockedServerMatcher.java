@@ -0,0 +1,262 @@
+package cc.aabss.mojang;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks server addresses against the blocked servers of {@link MojangAPI#getBlockedServers()}.
+ * The SHA-1 hashes are kept as 160-bit keys in an open-addressing set, and an address is checked
+ * together with its wildcard domains ({@code *.example.com}) or IP ranges ({@code 1.2.3.*}) without allocating.
+ */
+public final class BlockedServerMatcher {
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final Transport transport;
+    private volatile HashSet160 hashes;
+
+    /**
+     * Makes a new matcher that is empty until {@link #refresh(Executor)} is called.
+     * @param transport The transport the blocked servers are fetched through.
+     */
+    public BlockedServerMatcher(Transport transport) {
+        this.transport = transport;
+        this.hashes = HashSet160.of(List.of());
+    }
+
+    /**
+     * Makes a new matcher of already fetched hashes.
+     * @param hashes The hex SHA-1 hashes of the blocked servers.
+     * @return The matcher.
+     */
+    public static BlockedServerMatcher of(Collection<String> hashes) {
+        BlockedServerMatcher matcher = new BlockedServerMatcher(Transport.getDefault());
+        matcher.hashes = HashSet160.of(hashes);
+        return matcher;
+    }
+
+    /**
+     * Fetches the blocked servers again, the previous hashes are used until the new ones are in.
+     * @param executor The executor the response is processed on.
+     * @return A future completing once the new hashes are used.
+     */
+    public CompletableFuture<Void> refresh(Executor executor) {
+        return MojangAPI.blockedServersCall(transport).sendAsync(executor)
+                .thenAccept(hashes -> this.hashes = HashSet160.of(hashes));
+    }
+
+    /**
+     * Fetches the blocked servers now and then every interval, failed fetches keep the previous hashes.
+     * @param scheduler The scheduler the fetches are started and processed on.
+     * @param interval The time between two fetches.
+     * @return The scheduled task, cancel it to stop refreshing.
+     */
+    public ScheduledFuture<?> scheduleRefresh(ScheduledExecutorService scheduler, Duration interval) {
+        return scheduler.scheduleWithFixedDelay(() -> refresh(scheduler), 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the amount of blocked hashes.
+     * @return The size.
+     */
+    public int size() {
+        return hashes.size;
+    }
+
+    /**
+     * Whether a hash is blocked.
+     * @param sha1 The hex SHA-1 hash.
+     * @return True if it is blocked, otherwise false.
+     */
+    public boolean containsHash(String sha1) {
+        Scratch scratch = SCRATCH.get();
+        return parse(sha1, scratch.digest) && hashes.contains(scratch.digest);
+    }
+
+    /**
+     * Whether a server address is blocked, either by itself or by one of its wildcard domains or IP ranges.
+     * @param address The host name or IPv4 address, without a port.
+     * @return True if it is blocked, otherwise false.
+     */
+    public boolean isBlocked(String address) {
+        HashSet160 hashes = this.hashes;
+        if (hashes.size == 0) return false;
+        Scratch scratch = SCRATCH.get();
+        int length = scratch.load(address);
+        byte[] host = scratch.host;
+        if (scratch.matches(hashes, host, 0, length, false)) return true;
+        if (isIPv4(host, length)) {
+            // 1.2.3.*, 1.2.*, 1.*
+            for (int i = length - 1; i > 0; i--) {
+                if (host[i] == '.' && scratch.matches(hashes, host, 0, i + 1, true)) return true;
+            }
+        } else {
+            // *.example.com, *.com
+            for (int i = 0; i < length; i++) {
+                if (host[i] == '.' && i + 1 < length && scratch.matches(hashes, host, i, length - i, true)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIPv4(byte[] host, int length) {
+        int dots = 0;
+        int digits = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = host[i];
+            if (b == '.') {
+                if (digits == 0) return false;
+                dots++;
+                digits = 0;
+            } else if (b >= '0' && b <= '9') {
+                if (++digits > 3) return false;
+            } else {
+                return false;
+            }
+        }
+        return dots == 3 && digits > 0;
+    }
+
+    private static boolean parse(String hex, byte[] out) {
+        if (hex.length() != 40) return false;
+        for (int i = 0; i < 20; i++) {
+            int high = Character.digit(hex.charAt(i * 2), 16);
+            int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) return false;
+            out[i] = (byte) (high << 4 | low);
+        }
+        return true;
+    }
+
+    private static final class Scratch {
+
+        private final MessageDigest sha1;
+        private final byte[] digest = new byte[20];
+        private byte[] host = new byte[255];
+
+        Scratch() {
+            try {
+                this.sha1 = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Copies the lower-cased address into the host buffer, without a trailing dot.
+         * @return The length of the address.
+         */
+        int load(String address) {
+            int length = address.length();
+            if (length > 0 && address.charAt(length - 1) == '.') length--;
+            if (host.length < length) host = new byte[length];
+            for (int i = 0; i < length; i++) {
+                char c = address.charAt(i);
+                if (c > 127) {
+                    // Internationalized names are hashed as their UTF-8 bytes.
+                    byte[] bytes = address.substring(0, length).toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+                    host = bytes.length > host.length ? bytes : host;
+                    System.arraycopy(bytes, 0, host, 0, bytes.length);
+                    return bytes.length;
+                }
+                host[i] = (byte) (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+            }
+            return length;
+        }
+
+        /**
+         * Hashes a part of the host, prefixed or suffixed with a wildcard, and checks it against the set.
+         * @param wildcard Whether to add a {@code *}, before the part if it starts with a dot, otherwise after it.
+         */
+        boolean matches(HashSet160 hashes, byte[] bytes, int offset, int length, boolean wildcard) {
+            if (wildcard && bytes[offset] == '.') sha1.update((byte) '*');
+            sha1.update(bytes, offset, length);
+            if (wildcard && bytes[offset] != '.') sha1.update((byte) '*');
+            try {
+                sha1.digest(digest, 0, 20);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+            return hashes.contains(digest);
+        }
+    }
+
+    /**
+     * An immutable open-addressing set of 160-bit keys, stored as two longs and an int per slot.
+     */
+    private static final class HashSet160 {
+
+        private final long[] high;
+        private final long[] middle;
+        private final int[] low;
+        private final boolean[] used;
+        private final int mask;
+
+        private int size;
+
+        private HashSet160(int capacity) {
+            this.high = new long[capacity];
+            this.middle = new long[capacity];
+            this.low = new int[capacity];
+            this.used = new boolean[capacity];
+            this.mask = capacity - 1;
+        }
+
+        static HashSet160 of(Collection<String> hashes) {
+            // At most half full, so probe sequences stay short.
+            HashSet160 set = new HashSet160(Integer.highestOneBit(Math.max(2, hashes.size())) << 2);
+            byte[] key = new byte[20];
+            for (String hash : hashes) {
+                if (parse(hash.trim(), key) && set.add(key)) set.size++;
+            }
+            return set;
+        }
+
+        private boolean add(byte[] key) {
+            long h = (long) LONG.get(key, 0);
+            long m = (long) LONG.get(key, 8);
+            int l = (int) INT.get(key, 16);
+            for (int i = index(h); ; i = (i + 1) & mask) {
+                if (!used[i]) {
+                    used[i] = true;
+                    high[i] = h;
+                    middle[i] = m;
+                    low[i] = l;
+                    return true;
+                }
+                if (high[i] == h && middle[i] == m && low[i] == l) return false;
+            }
+        }
+
+        boolean contains(byte[] key) {
+            long h = (long) LONG.get(key, 0);
+            long m = (long) LONG.get(key, 8);
+            int l = (int) INT.get(key, 16);
+            for (int i = index(h); used[i]; i = (i + 1) & mask) {
+                if (high[i] == h && middle[i] == m && low[i] == l) return true;
+            }
+            return false;
+        }
+
+        private int index(long high) {
+            // SHA-1 is already uniformly distributed.
+            return (int) (high ^ high >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package cc.aabss.mojang;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * A prepared request together with the mapping of its response, which can be
+ * sent either blocking or asynchronously.
+ * @param <T> The type the response is mapped to.
+ */
+final class Call<T> {
+
+    private final Transport transport;
+    /**
+     * The name the call is reported under to the metrics listener of the transport.
+     */
+    private final String endpoint;
+    private final HttpRequest request;
+    private final HttpResponse.BodyHandler<Object> handler;
+    private final Function<HttpResponse<Object>, T> mapper;
+    private final @Nullable String key;
+
+    Call(Transport transport, String endpoint, HttpRequest request, Function<HttpResponse<String>, T> mapper) {
+        this(transport, endpoint, request, HttpResponse.BodyHandlers.ofString(), mapper);
+    }
+
+    <B> Call(Transport transport, String endpoint, HttpRequest request, HttpResponse.BodyHandler<B> handler, Function<HttpResponse<B>, T> mapper) {
+        this(transport, endpoint, request, eraseHandler(handler), eraseMapper(mapper), null);
+    }
+
+    private Call(Transport transport, String endpoint, HttpRequest request, HttpResponse.BodyHandler<Object> handler, Function<HttpResponse<Object>, T> mapper, @Nullable String key) {
+        this.transport = transport;
+        this.endpoint = endpoint;
+        this.request = request;
+        this.handler = handler;
+        this.mapper = mapper;
+        this.key = key;
+    }
+
+    /**
+     * Makes a call that decodes its response straight from the body stream,
+     * without holding the body as a string or building a json tree first.
+     * @param decoder Decodes the response, the reader is closed afterwards.
+     */
+    static <T> Call<T> json(Transport transport, String endpoint, HttpRequest request, Json.Decoder<T> decoder) {
+        return new Call<>(transport, endpoint, request, HttpResponse.BodyHandlers.ofInputStream(), response -> Json.decode(response, decoder));
+    }
+
+    /**
+     * Makes concurrent calls with the same key share one request and its mapped response.
+     * Only use this for idempotent requests. Callers joining a request that was sent
+     * asynchronously wait for its response to be mapped on the executor of the caller that sent it.
+     * @param key The key identifying the request and everything its response depends on.
+     * @return The shared call.
+     */
+    Call<T> shared(String key) {
+        return new Call<>(transport, endpoint, request, handler, mapper, key);
+    }
+
+    /**
+     * Sends the request, blocking the current thread until the response is mapped.
+     * @return The mapped response.
+     */
+    T send() {
+        if (key == null) {
+            return exchange();
+        }
+        CompletableFuture<T> flight = new CompletableFuture<>();
+        CompletableFuture<T> existing = transport.joinFlight(key, flight);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+            }
+        }
+        try {
+            T result = exchange();
+            transport.leaveFlight(key, flight);
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            transport.leaveFlight(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Sends the request without blocking.
+     * @param executor The executor the response is mapped on.
+     * @return A future completing with the mapped response.
+     */
+    CompletableFuture<T> sendAsync(Executor executor) {
+        if (key == null) {
+            return exchangeAsync(executor);
+        }
+        CompletableFuture<T> flight = new CompletableFuture<>();
+        CompletableFuture<T> existing = transport.joinFlight(key, flight);
+        if (existing != null) {
+            return existing.copy();
+        }
+        exchangeAsync(executor).whenComplete((result, throwable) -> {
+            transport.leaveFlight(key, flight);
+            if (throwable != null) {
+                flight.completeExceptionally(throwable);
+            } else {
+                flight.complete(result);
+            }
+        });
+        return flight.copy();
+    }
+
+    private T exchange() {
+        Trace trace = transport.trace(endpoint, request);
+        if (trace == null) {
+            try {
+                return mapper.apply(transport.send(request, handler));
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        try {
+            T result = trace.map(mapper, transport.send(request, handler, trace));
+            trace.finish(null);
+            return result;
+        } catch (IOException | InterruptedException e) {
+            trace.finish(e);
+            throw new RuntimeException(e);
+        } catch (RuntimeException | Error e) {
+            trace.finish(e);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<T> exchangeAsync(Executor executor) {
+        Trace trace = transport.trace(endpoint, request);
+        if (trace == null) {
+            return transport.sendAsync(request, handler).thenApplyAsync(mapper, executor);
+        }
+        return transport.sendAsync(request, handler, trace)
+                .thenApplyAsync(response -> trace.map(mapper, response), executor)
+                .whenComplete((result, throwable) -> trace.finish(throwable));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <B> HttpResponse.BodyHandler<Object> eraseHandler(HttpResponse.BodyHandler<B> handler) {
+        return (HttpResponse.BodyHandler<Object>) (HttpResponse.BodyHandler<?>) handler;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <B, T> Function<HttpResponse<Object>, T> eraseMapper(Function<HttpResponse<B>, T> mapper) {
+        return (Function<HttpResponse<Object>, T>) (Function<?, T>) mapper;
+    }
+
+    static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
+    }
+}
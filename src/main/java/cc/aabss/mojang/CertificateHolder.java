@@ -0,0 +1,211 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.mojang.Certificates;
+import org.jetbrains.annotations.Nullable;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the chat signing certificates of an account, with their keys parsed once.
+ * The certificates are served from memory until their {@code refreshedAfter}, after which they are still served
+ * while new ones are fetched in the background. Only certificates past their {@code expiresAt} are waited for.
+ */
+public final class CertificateHolder implements AutoCloseable {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final MojangAPI api;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+
+    private volatile @Nullable Keys keys;
+    private @Nullable CompletableFuture<Keys> refreshing;
+    private @Nullable ScheduledFuture<?> scheduled;
+    private boolean closed;
+
+    /**
+     * Makes a new holder, no certificates are fetched until they are asked for.
+     * @param api The MojangAPI of the account.
+     */
+    public CertificateHolder(MojangAPI api) {
+        this(api, SharedExecutors.SCHEDULER, SharedExecutors.WORKERS);
+    }
+
+    /**
+     * Makes a new holder, no certificates are fetched until they are asked for.
+     * @param api The MojangAPI of the account.
+     * @param scheduler The scheduler the background refreshes are started from.
+     * @param executor The executor the responses of background and blocking refreshes are processed on.
+     */
+    public CertificateHolder(MojangAPI api, ScheduledExecutorService scheduler, Executor executor) {
+        this.api = api;
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the certificates, only blocking if there are none that did not expire yet.
+     * @return The certificates.
+     */
+    public Keys get() {
+        Keys keys = current();
+        if (keys != null) {
+            return keys;
+        }
+        try {
+            return refresh(executor).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Gets the certificates without blocking.
+     * @param executor The executor the response is processed on if new certificates are fetched.
+     * @return A future completing with the certificates.
+     */
+    public CompletableFuture<Keys> getAsync(Executor executor) {
+        Keys keys = current();
+        return keys != null ? CompletableFuture.completedFuture(keys) : refresh(executor);
+    }
+
+    /**
+     * Drops the certificates, for example after they were rejected, so new ones are fetched.
+     */
+    public void invalidate() {
+        keys = null;
+    }
+
+    /**
+     * Stops refreshing the certificates in the background.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (scheduled != null) scheduled.cancel(false);
+    }
+
+    /**
+     * Gets the certificates that did not expire, starting a background refresh if they should be refreshed.
+     */
+    @Nullable
+    private Keys current() {
+        Keys keys = this.keys;
+        if (keys == null) return null;
+        Instant now = Instant.now();
+        if (!now.isBefore(keys.expiresAt)) return null;
+        if (!now.isBefore(keys.refreshedAfter)) refresh(executor);
+        return keys;
+    }
+
+    /**
+     * Fetches new certificates, concurrent callers share one request.
+     */
+    private synchronized CompletableFuture<Keys> refresh(Executor executor) {
+        if (refreshing != null) {
+            return refreshing.copy();
+        }
+        CompletableFuture<Keys> flight = new CompletableFuture<>();
+        refreshing = flight;
+        api.getCertificatesAsync(executor)
+                .thenApply(Keys::of)
+                .whenComplete((keys, throwable) -> {
+                    synchronized (this) {
+                        if (refreshing == flight) refreshing = null;
+                        if (keys != null) {
+                            this.keys = keys;
+                            schedule(keys.refreshedAfter);
+                        } else if (isUsable(this.keys)) {
+                            schedule(Instant.now().plus(RETRY_DELAY));
+                        }
+                    }
+                    if (throwable != null) {
+                        flight.completeExceptionally(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+                    } else {
+                        flight.complete(keys);
+                    }
+                });
+        return flight.copy();
+    }
+
+    private static boolean isUsable(@Nullable Keys keys) {
+        return keys != null && Instant.now().isBefore(keys.expiresAt);
+    }
+
+    private void schedule(Instant at) {
+        if (closed) return;
+        if (scheduled != null) scheduled.cancel(false);
+        long delay = Math.max(0, Duration.between(Instant.now(), at).toMillis());
+        scheduled = scheduler.schedule(() -> refresh(executor), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Certificates of an account with their keys and timestamps parsed.
+     * @param privateKey The private key chat messages are signed with.
+     * @param publicKey The public key of the private key.
+     * @param publicKeySignature The signature of the public key by Mojang.
+     * @param publicKeySignatureV2 The signature of the public key and the uuid of the player by Mojang.
+     * @param expiresAt When the certificates expire.
+     * @param refreshedAfter When new certificates should be fetched.
+     * @param certificates The certificates as they were received.
+     */
+    public record Keys(PrivateKey privateKey, PublicKey publicKey, byte[] publicKeySignature, byte[] publicKeySignatureV2,
+                       Instant expiresAt, Instant refreshedAfter, Certificates certificates) {
+
+        /**
+         * Parses the keys and timestamps of certificates.
+         * @param certificates The certificates.
+         * @return The parsed certificates.
+         */
+        public static Keys of(Certificates certificates) {
+            try {
+                KeyFactory factory = KeyFactory.getInstance("RSA");
+                return new Keys(
+                        factory.generatePrivate(new PKCS8EncodedKeySpec(pem(certificates.keys().getLeft()))),
+                        factory.generatePublic(new X509EncodedKeySpec(pem(certificates.keys().getRight()))),
+                        signature(certificates.publicKeySignature()),
+                        signature(certificates.publicKeySignatureV2()),
+                        instant(certificates.expiresAt()),
+                        instant(certificates.refreshedAfter()),
+                        certificates
+                );
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * Decodes the base64 body of a PEM block, the {@code -----BEGIN ...-----} and {@code -----END ...-----} lines are skipped.
+         */
+        static byte[] pem(String pem) {
+            StringBuilder body = new StringBuilder(pem.length());
+            for (String line : pem.split("\\R")) {
+                if (!line.startsWith("-----")) body.append(line.trim());
+            }
+            return Base64.getDecoder().decode(body.toString());
+        }
+
+        private static byte[] signature(@Nullable String signature) {
+            return signature == null ? new byte[0] : Base64.getDecoder().decode(signature);
+        }
+
+        private static Instant instant(String timestamp) {
+            return DateTimeFormatter.ISO_DATE_TIME.parse(timestamp, Instant::from);
+        }
+    }
+}
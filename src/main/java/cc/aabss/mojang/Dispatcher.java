@@ -0,0 +1,77 @@
+package cc.aabss.mojang;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Runs a numbered list of asynchronous tasks with a bounded amount in flight, starting the next task whenever one completes.
+ * Tasks that complete while they are being started, such as requests rejected by the rate limiter, do not start their
+ * successor from within their own completion: the loop that is already starting tasks picks it up, so the stack stays
+ * flat however many tasks complete at once.
+ */
+final class Dispatcher {
+
+    private final int tasks;
+    private final IntFunction<CompletableFuture<?>> task;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger outstanding;
+    /**
+     * The tasks waiting to be started, only the thread that raised it from zero starts them.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private Dispatcher(int tasks, IntFunction<CompletableFuture<?>> task) {
+        this.tasks = tasks;
+        this.task = task;
+        this.outstanding = new AtomicInteger(tasks);
+    }
+
+    /**
+     * Runs the tasks.
+     * @param tasks The amount of tasks.
+     * @param maxConcurrency The most tasks in flight at once.
+     * @param task Starts the task of an index, the future it returns is not awaited before it completes.
+     * @return A future completing once every task completed, whether it failed or not.
+     */
+    static CompletableFuture<Void> dispatch(int tasks, int maxConcurrency, IntFunction<CompletableFuture<?>> task) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be positive");
+        Dispatcher dispatcher = new Dispatcher(tasks, task);
+        if (tasks == 0) {
+            dispatcher.done.complete(null);
+        } else {
+            dispatcher.start(Math.min(maxConcurrency, tasks));
+        }
+        return dispatcher.done;
+    }
+
+    private void start(int count) {
+        if (pending.getAndAdd(count) != 0) return;
+        int starting = count;
+        do {
+            for (int i = 0; i < starting; i++) {
+                startNext();
+            }
+            starting = pending.addAndGet(-starting);
+        } while (starting != 0);
+    }
+
+    private void startNext() {
+        int index = next.getAndIncrement();
+        if (index >= tasks) return;
+        CompletableFuture<?> future;
+        try {
+            future = task.apply(index);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((result, throwable) -> {
+            if (outstanding.decrementAndGet() == 0) {
+                done.complete(null);
+            } else {
+                start(1);
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package cc.aabss.mojang;
+
+/**
+ * Receives the progress of a download, possibly from several threads at once.
+ * @see RealmsAPI#downloadBackup(long, int, java.nio.file.Path, DownloadProgress)
+ */
+@FunctionalInterface
+public interface DownloadProgress {
+
+    /**
+     * Called after a part of the download was written to disk.
+     * @param downloaded The amount of bytes on disk, including those of an earlier attempt that was resumed.
+     * @param total The size of the download in bytes, or -1 if it is not known.
+     */
+    void progress(long downloaded, long total);
+}
@@ -0,0 +1,188 @@
+package cc.aabss.mojang;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * The JDK Flight Recorder events of this library, all in the {@code Mojang} category.
+ * Events are only made and committed while a recording has them enabled.
+ */
+final class FlightEvents {
+
+    private FlightEvents() {}
+
+    /**
+     * Begins an exchange event if a recording has it enabled.
+     * @return The event, or null if it is not recorded.
+     */
+    @Nullable
+    static Exchange exchange() {
+        Exchange event = new Exchange();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records a cache lookup.
+     * @param cache The name of the cache.
+     * @param key The key that was looked up.
+     * @param result The result of the lookup, like {@code hit} or {@code miss}.
+     */
+    static void cacheLookup(String cache, String key, String result) {
+        CacheLookup event = new CacheLookup();
+        if (!event.isEnabled()) return;
+        event.cache = cache;
+        event.key = key;
+        event.result = result;
+        event.commit();
+    }
+
+    /**
+     * Records a login stage that reused a token instead of sending a request.
+     * @param stage The name of the stage.
+     */
+    static void cachedStage(String stage) {
+        AuthenticationStage event = new AuthenticationStage();
+        if (!event.isEnabled()) return;
+        event.stage = stage;
+        event.cached = true;
+        event.succeeded = true;
+        event.commit();
+    }
+
+    /**
+     * Records a login stage that blocks until it finished.
+     * @param stage The name of the stage.
+     * @param request Sends the request of the stage.
+     * @return The result of the stage.
+     */
+    static <T> T stage(String stage, Supplier<T> request) {
+        AuthenticationStage event = new AuthenticationStage();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            T result = request.get();
+            succeeded = true;
+            return result;
+        } finally {
+            event.stage = stage;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a login stage that is sent asynchronously.
+     * @param stage The name of the stage.
+     * @param request Sends the request of the stage.
+     * @return The future of the stage.
+     */
+    static <T> CompletableFuture<T> stageAsync(String stage, Supplier<CompletableFuture<T>> request) {
+        AuthenticationStage event = new AuthenticationStage();
+        if (!event.isEnabled()) return request.get();
+        event.begin();
+        return request.get().whenComplete((result, throwable) -> {
+            event.stage = stage;
+            event.succeeded = throwable == null;
+            event.commit();
+        });
+    }
+
+    @Name("cc.aabss.mojang.Exchange")
+    @Label("Mojang Exchange")
+    @Category("Mojang")
+    @Description("A call to a Mojang, Realms or Xbox Live endpoint, from its rate limit wait until its response was mapped")
+    @StackTrace(false)
+    static final class Exchange extends Event {
+
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Host")
+        String host;
+
+        @Label("Status Code")
+        @Description("The status code of the last response, or -1 if there was none")
+        int statusCode;
+
+        @Label("Request Bytes")
+        @DataAmount
+        long requestBytes;
+
+        @Label("Response Bytes")
+        @DataAmount
+        long responseBytes;
+
+        @Label("Retries")
+        @Description("How many times the request was sent again after a 429")
+        int retries;
+
+        @Label("Queue Time")
+        @Description("The time spent waiting for the rate limit and a free connection")
+        @Timespan
+        long queueTime;
+
+        @Label("Network Time")
+        @Description("The time until the response headers were received")
+        @Timespan
+        long networkTime;
+
+        @Label("Body Time")
+        @Description("The time a streamed response body kept arriving after the headers")
+        @Timespan
+        long bodyTime;
+
+        @Label("Decode Time")
+        @Description("The time the response was mapped, not counting waiting for the body")
+        @Timespan
+        long decodeTime;
+
+        @Label("Failure")
+        String failure;
+    }
+
+    @Name("cc.aabss.mojang.CacheLookup")
+    @Label("Mojang Cache Lookup")
+    @Category("Mojang")
+    @Description("A lookup in the UUIDCache or TextureCache")
+    @StackTrace(false)
+    static final class CacheLookup extends Event {
+
+        @Label("Cache")
+        String cache;
+
+        @Label("Key")
+        String key;
+
+        @Label("Result")
+        String result;
+    }
+
+    @Name("cc.aabss.mojang.AuthenticationStage")
+    @Label("Mojang Authentication Stage")
+    @Category("Mojang")
+    @Description("One stage of the Microsoft to Minecraft login")
+    static final class AuthenticationStage extends Event {
+
+        @Label("Stage")
+        String stage;
+
+        @Label("Cached")
+        @Description("Whether a token of an earlier login was reused instead of sending a request")
+        boolean cached;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+}
@@ -0,0 +1,188 @@
+package cc.aabss.mojang;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A metrics listener that keeps counters and latency histograms of every endpoint in memory.
+ * Latencies are kept in log-linear buckets, so the reported percentiles are at most 12.5% over the real ones.
+ * <pre>{@code
+ * InMemoryMetrics metrics = new InMemoryMetrics();
+ * Transport transport = Transport.builder().metrics(metrics).build();
+ * ...
+ * Duration p99 = metrics.snapshot().get("MojangAPI.profile").network().p99();
+ * }</pre>
+ */
+public final class InMemoryMetrics implements MetricsListener {
+
+    private final ConcurrentHashMap<String, Recorder> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void onExchange(Exchange exchange) {
+        endpoints.computeIfAbsent(exchange.endpoint(), endpoint -> new Recorder()).record(exchange);
+    }
+
+    /**
+     * Gets the metrics of every endpoint that was called since this listener was made or reset.
+     * @return The metrics by the name of the endpoint, sorted by name.
+     */
+    public Map<String, Endpoint> snapshot() {
+        Map<String, Endpoint> snapshot = new TreeMap<>();
+        endpoints.forEach((name, recorder) -> snapshot.put(name, recorder.snapshot(name)));
+        return snapshot;
+    }
+
+    /**
+     * Gets the metrics of an endpoint.
+     * @param endpoint The name of the endpoint, like {@code MojangAPI.profile}.
+     * @return The metrics, which are empty if the endpoint was not called.
+     */
+    public Endpoint snapshot(String endpoint) {
+        Recorder recorder = endpoints.get(endpoint);
+        return (recorder != null ? recorder : new Recorder()).snapshot(endpoint);
+    }
+
+    /**
+     * Forgets the metrics of every endpoint.
+     */
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * The metrics of an endpoint.
+     * @param endpoint The name of the endpoint.
+     * @param count How many calls were made.
+     * @param failures How many calls threw, error statuses that were mapped to a result are only counted in the status codes.
+     * @param statusCodes How many responses had each status code, -1 counts the calls that got no response.
+     * @param requestBytes The amount of request body bytes sent.
+     * @param responseBytes The amount of response body bytes received.
+     * @param retries How many requests were sent again after a 429.
+     * @param queue How long the calls waited for their rate limit and a free connection.
+     * @param network How long it took until the response headers were received.
+     * @param body How long streamed response bodies kept arriving after the headers.
+     * @param decode How long the responses were mapped, not counting waiting for the body.
+     * @param total How long the calls took altogether.
+     */
+    public record Endpoint(String endpoint, long count, long failures, Map<Integer, Long> statusCodes, long requestBytes,
+                           long responseBytes, long retries, Latency queue, Latency network, Latency body, Latency decode, Latency total) {}
+
+    /**
+     * The latency distribution of an endpoint.
+     * @param count How many calls were measured.
+     * @param mean The mean latency.
+     * @param p50 The median latency.
+     * @param p90 The 90th percentile latency.
+     * @param p99 The 99th percentile latency.
+     * @param max The highest latency.
+     */
+    public record Latency(long count, Duration mean, Duration p50, Duration p90, Duration p99, Duration max) {}
+
+    private static final class Recorder {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final ConcurrentHashMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final Histogram queue = new Histogram();
+        private final Histogram network = new Histogram();
+        private final Histogram body = new Histogram();
+        private final Histogram decode = new Histogram();
+        private final Histogram total = new Histogram();
+
+        void record(Exchange exchange) {
+            count.increment();
+            if (exchange.failure() != null) failures.increment();
+            statusCodes.computeIfAbsent(exchange.statusCode(), code -> new LongAdder()).increment();
+            if (exchange.requestBytes() > 0) requestBytes.add(exchange.requestBytes());
+            responseBytes.add(exchange.responseBytes());
+            retries.add(exchange.retries());
+            long queueNanos = exchange.queueTime().toNanos();
+            long networkNanos = exchange.networkTime().toNanos();
+            long bodyNanos = exchange.bodyTime().toNanos();
+            long decodeNanos = exchange.decodeTime().toNanos();
+            queue.record(queueNanos);
+            network.record(networkNanos);
+            body.record(bodyNanos);
+            decode.record(decodeNanos);
+            total.record(queueNanos + networkNanos + bodyNanos + decodeNanos);
+        }
+
+        Endpoint snapshot(String name) {
+            Map<Integer, Long> codes = new TreeMap<>();
+            statusCodes.forEach((code, adder) -> codes.put(code, adder.sum()));
+            return new Endpoint(name, count.sum(), failures.sum(), codes, requestBytes.sum(), responseBytes.sum(), retries.sum(),
+                    queue.snapshot(), network.snapshot(), body.snapshot(), decode.snapshot(), total.snapshot());
+        }
+    }
+
+    /**
+     * Counts nanosecond values in buckets of 8 linear steps per power of two.
+     */
+    static final class Histogram {
+
+        private static final int SUB_BUCKETS = 8;
+        private static final int SUB_BITS = 3;
+        private static final long MAX_VALUE = (1L << 62) - 1;
+        private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+            counts.incrementAndGet(index(value));
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        static int index(long value) {
+            if (value < SUB_BUCKETS) return (int) value;
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        /**
+         * Gets the highest value counted in a bucket.
+         */
+        static long upperBound(int index) {
+            if (index < SUB_BUCKETS) return index;
+            int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+            long sub = index % SUB_BUCKETS;
+            return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+        }
+
+        Latency snapshot() {
+            long[] snapshot = new long[BUCKETS];
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                count += snapshot[i];
+            }
+            long max = this.max.get();
+            return new Latency(count, Duration.ofNanos(count == 0 ? 0 : sum.sum() / count),
+                    percentile(snapshot, count, 0.50, max), percentile(snapshot, count, 0.90, max),
+                    percentile(snapshot, count, 0.99, max), Duration.ofNanos(max));
+        }
+
+        private static Duration percentile(long[] counts, long count, double percentile, long max) {
+            if (count == 0) return Duration.ZERO;
+            long rank = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Duration.ofNanos(Math.min(upperBound(i), max));
+            }
+            return Duration.ofNanos(max);
+        }
+    }
+}
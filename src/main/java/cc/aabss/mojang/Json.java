@@ -0,0 +1,101 @@
+package cc.aabss.mojang;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Helpers for decoding responses with a streaming {@link JsonReader}.
+ */
+final class Json {
+
+    private Json() {}
+
+    /**
+     * Decodes a response from its json body.
+     * @param <T> The decoded type.
+     */
+    @FunctionalInterface
+    interface Decoder<T> {
+        T decode(HttpResponse<?> response, JsonReader reader) throws IOException;
+    }
+
+    static <T> T decode(HttpResponse<InputStream> response, Decoder<T> decoder) {
+        try (InputStream body = response.body()) {
+            T result = decoder.decode(response, new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+            // Reading to the end lets the connection be reused.
+            body.transferTo(OutputStream.nullOutputStream());
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads a value with the adapter of the shared gson.
+     */
+    static <T> T read(JsonReader reader, Class<T> type) throws IOException {
+        return MojangAPI.wireGson.getAdapter(type).read(reader);
+    }
+
+    /**
+     * Reads one field of an object, skipping the others.
+     * @return The field, or null if the object does not have it.
+     */
+    @Nullable
+    static <T> T field(JsonReader reader, String name, Class<T> type) throws IOException {
+        T value = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals(name) && reader.peek() != JsonToken.NULL) {
+                value = read(reader, type);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+
+    /**
+     * Reads one array field of an object, skipping the others.
+     * @return The elements of the array, empty if the object does not have it.
+     */
+    static <T> List<T> list(JsonReader reader, String name, Class<T> type) throws IOException {
+        List<T> list = List.of();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                list = array(reader, type);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return list;
+    }
+
+    /**
+     * Reads an array.
+     * @return The unmodifiable elements of the array.
+     */
+    static <T> List<T> array(JsonReader reader, Class<T> type) throws IOException {
+        List<T> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            list.add(read(reader, type));
+        }
+        reader.endArray();
+        return Collections.unmodifiableList(list);
+    }
+}
@@ -0,0 +1,47 @@
+package cc.aabss.mojang;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Receives a report of every call sent through a transport, for example to export metrics.
+ * Listeners are called on the thread that finished the call and must not block or throw.
+ * @see Transport.Builder#metrics(MetricsListener)
+ * @see InMemoryMetrics
+ */
+@FunctionalInterface
+public interface MetricsListener {
+
+    /**
+     * Called once a call finished, successfully or not.
+     * @param exchange The report of the call.
+     */
+    void onExchange(Exchange exchange);
+
+    /**
+     * The report of one call, including the requests sent again after a 429.
+     * @param endpoint The name of the endpoint, like {@code MojangAPI.profile}.
+     * @param host The host the request was sent to.
+     * @param statusCode The status code of the last response, or -1 if there was none.
+     * @param requestBytes The size of the request body, or -1 if it is not known.
+     * @param responseBytes The amount of response body bytes received.
+     * @param retries How many times the request was sent again after a 429.
+     * @param queueTime How long the request waited for its rate limit and a free connection.
+     * @param networkTime How long it took until the response headers were received.
+     * @param bodyTime How long the response body kept arriving after the headers, while it was streamed to the mapper.
+     * @param decodeTime How long the response was mapped, not counting the time it waited for the body.
+     * @param failure Why the call failed, or null if it did not.
+     */
+    record Exchange(String endpoint, String host, int statusCode, long requestBytes, long responseBytes, int retries,
+                    Duration queueTime, Duration networkTime, Duration bodyTime, Duration decodeTime, @Nullable Throwable failure) {
+
+        /**
+         * Gets the total time of the call.
+         * @return The queue, network, body and decode time together.
+         */
+        public Duration totalTime() {
+            return queueTime.plus(networkTime).plus(bodyTime).plus(decodeTime);
+        }
+    }
+}
@@ -5,98 +5,39 @@ import cc.aabss.mojang.objects.mojang.*;
 import cc.aabss.mojang.objects.realms.SessionID;
 import com.google.gson.*;
 import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
 import org.jetbrains.annotations.Nullable;
 
 import javax.imageio.ImageIO;
 import java.awt.image.RenderedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @SuppressWarnings("unused")
 public class MojangAPI {
 
-    final static HttpClient httpClient = HttpClient.newHttpClient();
-    public final static Gson gson = new GsonBuilder()
-            .setPrettyPrinting()
-            .registerTypeAdapter(Privileges.class, new TypeAdapter<Privileges>() {
-                @Override
-                public void write(JsonWriter out, Privileges value) throws IOException {
-                    out.beginObject()
-                            .name("onlineChat")
-                                .beginObject()
-                                    .name("enabled").value(value.onlineChat())
-                                .endObject()
-
-                            .name("multiplayerServer")
-                                .beginObject()
-                                    .name("enabled").value(value.multiplayerServer())
-                                .endObject()
-
-                            .name("multiplayerRealms")
-                                .beginObject()
-                                    .name("enabled").value(value.multiplayerRealms())
-                                .endObject()
-
-                            .name("telemetry")
-                                .beginObject()
-                                    .name("enabled").value(value.telemetry())
-                                .endObject()
-
-                            .endObject()
-                            .close();
-                }
+    public final static Gson gson = gsonBuilder().setPrettyPrinting().create();
 
-                @Override
-                public Privileges read(JsonReader in) {
-                    JsonObject object = JsonParser.parseReader(in).getAsJsonObject();
-                    return new Privileges(
-                            object.get("onlineChat").getAsJsonObject().get("enabled").getAsBoolean(),
-                            object.get("multiplayerServer").getAsJsonObject().get("enabled").getAsBoolean(),
-                            object.get("multiplayerRealms").getAsJsonObject().get("enabled").getAsBoolean(),
-                            object.get("telemetry").getAsJsonObject().get("enabled").getAsBoolean()
-                    );
-                }
-            })
-            .registerTypeAdapter(Certificates.class, new TypeAdapter<Certificates>() {
-                @Override
-                public void write(JsonWriter out, Certificates value) throws IOException {
-                    out.beginObject()
-                            .name("keyPair")
-                                .beginObject()
-                                    .name("privateKey").value(value.keys().getLeft())
-                                    .name("publicKey").value(value.keys().getRight())
-                                .endObject()
-                                .name("publicKeySignature").value(value.publicKeySignature())
-                                .name("publicKeySignatureV2").value(value.publicKeySignatureV2())
-                                .name("expiresAt").value(value.expiresAt())
-                                .name("refreshedAfter").value(value.refreshedAfter())
-                            .endObject()
-                            .close();
-                }
+    /**
+     * The compact gson requests are written with.
+     */
+    static final Gson wireGson = gsonBuilder().create();
 
-                @Override
-                public Certificates read(JsonReader in) {
-                    JsonObject object = JsonParser.parseReader(in).getAsJsonObject();
-                    JsonObject keyPair = object.getAsJsonObject("keyPair");
-                    return new Certificates(
-                            Pair.of(keyPair.get("privateKey").getAsString(), keyPair.get("publicKey").getAsString()),
-                            object.get("publicKeySignature").getAsString(),
-                            object.get("publicKeySignatureV2").getAsString(),
-                            object.get("expiresAt").getAsString(),
-                            object.get("refreshedAfter").getAsString()
-                    );
-                }
-            })
-            .setFieldNamingPolicy(FieldNamingPolicy.IDENTITY).create();
+    private static GsonBuilder gsonBuilder() {
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(new Adapters())
+                .setFieldNamingPolicy(FieldNamingPolicy.IDENTITY);
+    }
 
     /**
      * Makes a new instance of MojangAPI.
@@ -104,44 +45,239 @@ public class MojangAPI {
      * @see Authenticator#authenticate(String)
      */
     public MojangAPI(String authorization) {
+        this(authorization, Transport.getDefault());
+    }
+
+    /**
+     * Makes a new instance of MojangAPI.
+     * @param authorization The access token of the minecraft account.
+     * @param transport The transport requests are sent through.
+     * @see Authenticator#login(String)
+     */
+    public MojangAPI(String authorization, Transport transport) {
+        this(new FixedToken(authorization), transport);
+    }
+
+    /**
+     * Makes a new instance of MojangAPI that asks for the access token on every request, so it can be refreshed.
+     * @param authorization Supplies the access token of the minecraft account.
+     * @see TokenManager
+     */
+    public MojangAPI(Supplier<String> authorization) {
+        this(authorization, Transport.getDefault());
+    }
+
+    /**
+     * Makes a new instance of MojangAPI that asks for the access token on every request, so it can be refreshed.
+     * @param authorization Supplies the access token of the minecraft account.
+     * @param transport The transport requests are sent through.
+     * @see TokenManager
+     */
+    public MojangAPI(Supplier<String> authorization, Transport transport) {
         this.sessionID = null;
         this.authorization = authorization;
+        this.transport = transport;
     }
 
-    MojangAPI(SessionID sessionID) {
-        this.authorization = sessionID.accessToken();
+    MojangAPI(SessionID sessionID, Transport transport) {
+        this.authorization = new FixedToken(sessionID.accessToken());
         this.sessionID = sessionID;
+        this.transport = transport;
     }
 
     final SessionID sessionID;
-    private final String authorization;
+    final Supplier<String> authorization;
+    final Transport transport;
+
+    /**
+     * Gets the access token without blocking the caller. A {@link TokenManager} whose token expired logs in again
+     * on the executor, any other supplier is asked on the executor, as it may block.
+     */
+    CompletableFuture<String> authorizationAsync(Executor executor) {
+        if (authorization instanceof FixedToken token) return CompletableFuture.completedFuture(token.value());
+        if (authorization instanceof TokenManager tokens) return tokens.tokenAsync(executor);
+        return CompletableFuture.supplyAsync(authorization, executor);
+    }
+
+    /**
+     * Sends a call once the access token is known.
+     * @param call Makes the call with the access token.
+     */
+    <T> CompletableFuture<T> authorized(Executor executor, Function<String, Call<T>> call) {
+        return authorizationAsync(executor).thenCompose(token -> call.apply(token).sendAsync(executor));
+    }
+
+    /**
+     * An access token that never changes, so it is known without asking a supplier on another thread.
+     */
+    private record FixedToken(String value) implements Supplier<String> {
+
+        @Override
+        public String get() {
+            return value;
+        }
+    }
+
+    /**
+     * The most names the bulk lookup endpoint accepts in one request.
+     */
+    public static final int BULK_LOOKUP_LIMIT = 10;
 
     /**
      * Converts a list of players into their uuid.
+     * Use {@link #lookupUUIDs(Collection, int)} to get the uuids that were found when some requests fail.
      * @param names The list of names.
-     * @return The uuids of the players.
+     * @return The uuids of the players, keyed by the names as they were given. Names that do not exist are left out.
+     * @throws RuntimeException If a request failed, so some names could not be looked up.
      */
-    @Nullable
     public static Map<String, String> getUUIDbyName(Collection<String> names) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/minecraft/profile/lookup/bulk/byname"))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(names)))
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return completeUUIDs(lookupUUIDs(names, 4));
+    }
+
+    /**
+     * Converts a list of players into their uuid without blocking.
+     * Use {@link #lookupUUIDsAsync(Collection, int, Executor)} to get the uuids that were found when some requests fail.
+     * @param names The list of names.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the uuids of the players, keyed by the names as they were given,
+     * or failing if a request failed. Names that do not exist are left out.
+     */
+    public static CompletableFuture<Map<String, String>> getUUIDbyNameAsync(Collection<String> names, Executor executor) {
+        return lookupUUIDsAsync(names, 4, executor).thenApply(MojangAPI::completeUUIDs);
+    }
+
+    /**
+     * Converts a list of players of any size into their uuid.
+     * The names are deduplicated case-insensitively, answered from the {@link UUIDCache} and {@link PlayerStore} where
+     * possible and sent in requests of {@link #BULK_LOOKUP_LIMIT} names. The uuids are keyed by the names as they were
+     * given, whether they were answered by Mojang or not, and by the first spelling of names given more than once.
+     * @param names The list of names.
+     * @param maxConcurrency The most requests sent at once.
+     * @return The uuids of the players together with the requests that failed.
+     */
+    public static BulkLookup lookupUUIDs(Collection<String> names, int maxConcurrency) {
+        // The responses are decoded from blocking streams, which must not happen on the http client's threads.
+        return lookupUUIDsAsync(names, maxConcurrency, SharedExecutors.WORKERS).join();
+    }
+
+    /**
+     * Converts a list of players of any size into their uuid without blocking.
+     * The names are deduplicated case-insensitively, answered from the {@link UUIDCache} and {@link PlayerStore} where
+     * possible and sent in requests of {@link #BULK_LOOKUP_LIMIT} names. The uuids are keyed by the names as they were
+     * given, whether they were answered by Mojang or not, and by the first spelling of names given more than once.
+     * @param names The list of names.
+     * @param maxConcurrency The most requests sent at once.
+     * @param executor The executor the responses are processed on.
+     * @return A future completing with the uuids of the players together with the requests that failed.
+     */
+    public static CompletableFuture<BulkLookup> lookupUUIDsAsync(Collection<String> names, int maxConcurrency, Executor executor) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be positive");
+        Transport transport = Transport.getDefault();
+        UUIDCache cache = uuidCache;
+        PlayerStore store = playerStore;
+        Map<String, String> uuids = new ConcurrentHashMap<>();
+        Queue<BulkLookup.Failure> failures = new ConcurrentLinkedQueue<>();
+
+        Set<String> seen = new HashSet<>();
+        List<String> remaining = new ArrayList<>();
+        for (String name : names) {
+            if (!seen.add(name.toLowerCase(Locale.ROOT))) continue;
+            UUIDCache.Entry cached = cache == null ? null : cache.lookup(name);
+            String stored = cached == null ? storedUUID(name) : null;
+            if (stored != null) {
+                uuids.put(name, stored);
+            } else if (cached == null) {
+                remaining.add(name);
+            } else if (cached.uuid() != null) {
+                uuids.put(name, cached.uuid());
+            }
+        }
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < remaining.size(); i += BULK_LOOKUP_LIMIT) {
+            chunks.add(remaining.subList(i, Math.min(i + BULK_LOOKUP_LIMIT, remaining.size())));
+        }
+
+        return Dispatcher.dispatch(chunks.size(), maxConcurrency, index -> {
+            List<String> chunk = chunks.get(index);
+            return uuidsByNameCall(transport, cache, store, chunk).sendAsync(executor).whenComplete((response, throwable) -> {
+                if (throwable != null) {
+                    failures.add(new BulkLookup.Failure(chunk, -1, throwable));
+                } else if (response.getRight() == null) {
+                    failures.add(new BulkLookup.Failure(chunk, response.getLeft(), null));
+                } else {
+                    // Mojang answers with the names as the players spell them, key them as the caller did instead.
+                    Map<String, String> given = new HashMap<>();
+                    for (String name : chunk) {
+                        given.put(name.toLowerCase(Locale.ROOT), name);
+                    }
+                    response.getRight().forEach((name, uuid) -> {
+                        String key = given.get(name.toLowerCase(Locale.ROOT));
+                        if (key != null) uuids.put(key, uuid);
+                    });
+                }
+            });
+        }).thenApply(done -> new BulkLookup(uuids, List.copyOf(failures)));
+    }
+
+    private static Map<String, String> completeUUIDs(BulkLookup lookup) {
+        if (!lookup.isComplete()) {
+            BulkLookup.Failure failure = lookup.failures().get(0);
+            int failed = lookup.failures().stream().mapToInt(f -> f.names().size()).sum();
+            String message = "Could not look up " + failed + " of the names"
+                    + (failure.statusCode() == -1 ? "" : ": " + failure.statusCode());
+            throw new RuntimeException(message, failure.cause());
+        }
+        return lookup.uuids();
+    }
+
+    static Call<Pair<Integer, Map<String, String>>> uuidsByNameCall(Transport transport, @Nullable UUIDCache cache, @Nullable PlayerStore store, List<String> names) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/minecraft/profile/lookup/bulk/byname")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(wireGson.toJson(names)))
+                .build();
+        return Call.json(transport, "MojangAPI.uuidsByName", request, (response, reader) -> {
             if (response.statusCode() == 200) {
-                JsonArray json = JsonParser.parseString(response.body()).getAsJsonArray();
-                Map<String, String> map = new HashMap<>();
-                for (JsonObject object : json.asList().stream().map(JsonElement::getAsJsonObject).toList()) {
-                    map.put(object.get("name").getAsString(), object.get("id").getAsString());
+                Map<String, String> map = readUUIDs(reader);
+                if (store != null) map.forEach(store::putUUID);
+                if (cache != null) {
+                    Set<String> found = new HashSet<>();
+                    map.forEach((name, uuid) -> {
+                        cache.put(name, uuid);
+                        found.add(name.toLowerCase(Locale.ROOT));
+                    });
+                    for (String name : names) {
+                        if (!found.contains(name.toLowerCase(Locale.ROOT))) cache.putMissing(name);
+                    }
                 }
-                return map;
+                return Pair.of(200, map);
             }
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
+            return Pair.of(response.statusCode(), null);
+        });
+    }
+
+    /**
+     * Reads the profiles of a bulk lookup response.
+     * @return The uuids by the names of the players, as spelled in the response.
+     */
+    static Map<String, String> readUUIDs(JsonReader reader) throws IOException {
+        Map<String, String> map = new HashMap<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String name = null;
+            String id = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name" -> name = reader.nextString();
+                    case "id" -> id = reader.nextString();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (name != null && id != null) map.put(name, id);
         }
-        return null;
+        reader.endArray();
+        return map;
     }
 
     /**
@@ -151,19 +287,135 @@ public class MojangAPI {
      */
     @Nullable
     public static String getUUIDbyName(String name) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.mojang.com/users/profiles/minecraft/"+name))
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        UUIDCache.Entry cached = cachedUUID(name);
+        if (cached != null) {
+            return cached.uuid();
+        }
+        String stored = storedUUID(name);
+        if (stored != null) {
+            return stored;
+        }
+        return uuidByNameCall(Transport.getDefault(), name).send();
+    }
+
+    /**
+     * Converts a player's name to their uuid without blocking.
+     * @param name The name of the player.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the uuid of the player.
+     */
+    public static CompletableFuture<String> getUUIDbyNameAsync(String name, Executor executor) {
+        UUIDCache.Entry cached = cachedUUID(name);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.uuid());
+        }
+        String stored = storedUUID(name);
+        if (stored != null) {
+            return CompletableFuture.completedFuture(stored);
+        }
+        return uuidByNameCall(Transport.getDefault(), name).sendAsync(executor);
+    }
+
+    /**
+     * Converts a player's name to their uuid.
+     * @param name The name of the player.
+     * @return The uuid of the player.
+     */
+    @Nullable
+    public static PlayerUUID getPlayerUUID(String name) {
+        return PlayerUUID.tryParse(getUUIDbyName(name));
+    }
+
+    /**
+     * Converts a player's name to their uuid without blocking.
+     * @param name The name of the player.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the uuid of the player.
+     */
+    public static CompletableFuture<PlayerUUID> getPlayerUUIDAsync(String name, Executor executor) {
+        return getUUIDbyNameAsync(name, executor).thenApply(PlayerUUID::tryParse);
+    }
+
+    /**
+     * Sets the cache {@link #getUUIDbyName(String)} is answered from, there is none by default.
+     * @param cache The cache, or null to always ask Mojang.
+     */
+    public static void setUUIDCache(@Nullable UUIDCache cache) {
+        uuidCache = cache;
+    }
+
+    /**
+     * Gets the cache {@link #getUUIDbyName(String)} is answered from.
+     * @return The cache, or null if there is none.
+     */
+    @Nullable
+    public static UUIDCache getUUIDCache() {
+        return uuidCache;
+    }
+
+    private static volatile @Nullable UUIDCache uuidCache;
+
+    /**
+     * Sets the store that keeps uuids and profiles across restarts, there is none by default.
+     * {@link #getUUIDbyName(String)} asks it after the {@link UUIDCache} and {@link #getProfile(String, boolean)} asks it first,
+     * both only use what is younger than the store's maximum age and store what they receive from Mojang.
+     * @param store The store, or null to keep nothing on the disk.
+     */
+    public static void setPlayerStore(@Nullable PlayerStore store) {
+        playerStore = store;
+    }
+
+    /**
+     * Gets the store that keeps uuids and profiles across restarts.
+     * @return The store, or null if there is none.
+     */
+    @Nullable
+    public static PlayerStore getPlayerStore() {
+        return playerStore;
+    }
+
+    private static volatile @Nullable PlayerStore playerStore;
+
+    @Nullable
+    private static UUIDCache.Entry cachedUUID(String name) {
+        UUIDCache cache = uuidCache;
+        return cache == null ? null : cache.lookup(name);
+    }
+
+    /**
+     * Gets a uuid from the store, putting it in the cache as well.
+     */
+    @Nullable
+    private static String storedUUID(String name) {
+        PlayerStore store = playerStore;
+        String uuid = store == null ? null : store.freshUUID(name);
+        UUIDCache cache = uuidCache;
+        if (uuid != null && cache != null) cache.put(name, uuid);
+        return uuid;
+    }
+
+    static Call<String> uuidByNameCall(Transport transport, String name) {
+        UUIDCache cache = uuidCache;
+        PlayerStore store = playerStore;
+        HttpRequest request = transport.request(Transport.Service.MOJANG_API, "/users/profiles/minecraft/"+name)
+                .build();
+        return Call.json(transport, "MojangAPI.uuidByName", request, (response, reader) -> {
             if (response.statusCode() == 200) {
-                JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
-                return json.get("id").getAsString();
+                String uuid = Json.field(reader, "id", String.class);
+                if (uuid == null) {
+                    // A body without an id is no answer, it must not be kept for as long as a found uuid.
+                    if (cache != null) cache.putMissing(name);
+                    return null;
+                }
+                if (cache != null) cache.put(name, uuid);
+                if (store != null) store.putUUID(name, uuid);
+                return uuid;
             }
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-        return null;
+            if (cache != null && (response.statusCode() == 204 || response.statusCode() == 404)) {
+                cache.putMissing(name);
+            }
+            return null;
+        }).shared("uuid:"+name.toLowerCase(Locale.ROOT));
     }
 
     /**
@@ -184,18 +436,98 @@ public class MojangAPI {
      */
     @Nullable
     public static PublicPlayerProfile getProfile(String uuid, boolean unsigned) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://sessionserver.mojang.com/session/minecraft/profile/"+uuid+"?unsigned="+unsigned))
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        PublicPlayerProfile stored = storedProfile(uuid, unsigned);
+        if (stored != null) {
+            return stored;
+        }
+        return profileCall(Transport.getDefault(), uuid, unsigned).send();
+    }
+
+    /**
+     * Gets a public player profile of a player by their uuid.
+     * @param uuid UUID of the player.
+     * @return The public player profile.
+     */
+    @Nullable
+    public static PublicPlayerProfile getProfile(PlayerUUID uuid) {
+        return getProfile(uuid.toString(), false);
+    }
+
+    /**
+     * Gets a public player profile of a player by their uuid.
+     * @param uuid UUID of the player.
+     * @param unsigned If true, will include the signature.
+     * @return The public player profile.
+     */
+    @Nullable
+    public static PublicPlayerProfile getProfile(PlayerUUID uuid, boolean unsigned) {
+        return getProfile(uuid.toString(), unsigned);
+    }
+
+    /**
+     * Gets a public player profile of a player by their uuid without blocking.
+     * @param uuid UUID of the player.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the public player profile.
+     */
+    public static CompletableFuture<PublicPlayerProfile> getProfileAsync(PlayerUUID uuid, Executor executor) {
+        return getProfileAsync(uuid.toString(), false, executor);
+    }
+
+    /**
+     * Gets a public player profile of a player by their uuid without blocking.
+     * @param uuid UUID of the player.
+     * @param unsigned If true, will include the signature.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the public player profile.
+     */
+    public static CompletableFuture<PublicPlayerProfile> getProfileAsync(PlayerUUID uuid, boolean unsigned, Executor executor) {
+        return getProfileAsync(uuid.toString(), unsigned, executor);
+    }
+
+    /**
+     * Gets a public player profile of a player by their uuid without blocking.
+     * @param uuid UUID of the player.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the public player profile.
+     */
+    public static CompletableFuture<PublicPlayerProfile> getProfileAsync(String uuid, Executor executor) {
+        return getProfileAsync(uuid, false, executor);
+    }
+
+    /**
+     * Gets a public player profile of a player by their uuid without blocking.
+     * @param uuid UUID of the player.
+     * @param unsigned If true, will include the signature.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the public player profile.
+     */
+    public static CompletableFuture<PublicPlayerProfile> getProfileAsync(String uuid, boolean unsigned, Executor executor) {
+        PublicPlayerProfile stored = storedProfile(uuid, unsigned);
+        if (stored != null) {
+            return CompletableFuture.completedFuture(stored);
+        }
+        return profileCall(Transport.getDefault(), uuid, unsigned).sendAsync(executor);
+    }
+
+    @Nullable
+    private static PublicPlayerProfile storedProfile(String uuid, boolean unsigned) {
+        PlayerStore store = playerStore;
+        return store == null ? null : store.freshProfile(uuid, unsigned);
+    }
+
+    static Call<PublicPlayerProfile> profileCall(Transport transport, String uuid, boolean unsigned) {
+        PlayerStore store = playerStore;
+        HttpRequest request = transport.request(Transport.Service.SESSION_SERVER, "/session/minecraft/profile/"+uuid+"?unsigned="+unsigned)
+                .build();
+        return Call.json(transport, "MojangAPI.profile", request, (response, reader) -> {
             if (response.statusCode() == 200) {
-                return gson.fromJson(response.body(), PublicPlayerProfile.class);
+                PublicPlayerProfile profile = Json.read(reader, PublicPlayerProfile.class);
+                if (store != null && profile != null) store.putProfile(profile, unsigned);
+                return profile;
             }
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-        return null;
+            return null;
+        }).shared("profile:"+uuid+":"+unsigned);
     }
 
     /**
@@ -203,15 +535,22 @@ public class MojangAPI {
      * @return All the blocked servers.
      */
     public static List<String> getBlockedServers() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://sessionserver.mojang.com/blockedservers"))
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return Arrays.stream(response.body().split("\n")).toList();
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return blockedServersCall(Transport.getDefault()).send();
+    }
+
+    /**
+     * Gets all the hashes of all the blocked servers without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with all the blocked servers.
+     */
+    public static CompletableFuture<List<String>> getBlockedServersAsync(Executor executor) {
+        return blockedServersCall(Transport.getDefault()).sendAsync(executor);
+    }
+
+    static Call<List<String>> blockedServersCall(Transport transport) {
+        HttpRequest request = transport.request(Transport.Service.SESSION_SERVER, "/blockedservers")
+                .build();
+        return new Call<>(transport, "MojangAPI.blockedServers", request, response -> Arrays.stream(response.body().split("\n")).toList());
     }
 
     /**
@@ -219,33 +558,42 @@ public class MojangAPI {
      * @return All the public keys.
      */
     public static Map<String, List<String>> getPublicKeys() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/publickeys"))
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
-
-            JsonArray profilePropertyKeysJson = json.getAsJsonArray("profilePropertyKeys");
-            List<String> profilePropertyKeys = new ArrayList<>();
-            for (JsonElement element : profilePropertyKeysJson) {
-                profilePropertyKeys.add(element.getAsJsonObject().get("publicKey").getAsString());
-            }
+        return publicKeysCall(Transport.getDefault()).send();
+    }
 
-            JsonArray playerCertificateKeysJson = json.getAsJsonArray("playerCertificateKeys");
-            List<String> playerCertificateKeys = new ArrayList<>();
-            for (JsonElement element : playerCertificateKeysJson) {
-                playerCertificateKeys.add(element.getAsJsonObject().get("publicKey").getAsString());
-            }
+    /**
+     * Gets all the public keys without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with all the public keys.
+     */
+    public static CompletableFuture<Map<String, List<String>>> getPublicKeysAsync(Executor executor) {
+        return publicKeysCall(Transport.getDefault()).sendAsync(executor);
+    }
 
+    static Call<Map<String, List<String>>> publicKeysCall(Transport transport) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/publickeys")
+                .build();
+        return Call.json(transport, "MojangAPI.publicKeys", request, (response, reader) -> {
             HashMap<String, List<String>> map = new HashMap<>();
-            map.put("profilePropertyKeys", profilePropertyKeys);
-            map.put("playerCertificateKeys", playerCertificateKeys);
-
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (!name.equals("profilePropertyKeys") && !name.equals("playerCertificateKeys")) {
+                    reader.skipValue();
+                    continue;
+                }
+                List<String> keys = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    String key = Json.field(reader, "publicKey", String.class);
+                    if (key != null) keys.add(key);
+                }
+                reader.endArray();
+                map.put(name, keys);
+            }
+            reader.endObject();
             return map;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        });
     }
 
     // signed in -------
@@ -255,16 +603,23 @@ public class MojangAPI {
      * @return The profile.
      */
     public PrivatePlayerProfile getProfile() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/minecraft/profile"))
-                    .header("Authorization", "Bearer "+authorization)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return gson.fromJson(response.body(), PrivatePlayerProfile.class);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return privateProfileCall(authorization.get()).send();
+    }
+
+    /**
+     * Gets the profile of the account without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the profile.
+     */
+    public CompletableFuture<PrivatePlayerProfile> getProfileAsync(Executor executor) {
+        return authorized(executor, this::privateProfileCall);
+    }
+
+    private Call<PrivatePlayerProfile> privateProfileCall(String token) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/minecraft/profile")
+                .header("Authorization", "Bearer "+token)
+                .build();
+        return Call.json(transport, "MojangAPI.privateProfile", request, (response, reader) -> Json.read(reader, PrivatePlayerProfile.class));
     }
 
     /**
@@ -272,16 +627,23 @@ public class MojangAPI {
      * @return The attributes.
      */
     public Attributes getAttributes() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/player/attributes"))
-                    .header("Authorization", "Bearer "+authorization)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return gson.fromJson(response.body(), Attributes.class);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return attributesCall(authorization.get()).send();
+    }
+
+    /**
+     * Gets all the attributes associated with the account without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the attributes.
+     */
+    public CompletableFuture<Attributes> getAttributesAsync(Executor executor) {
+        return authorized(executor, this::attributesCall);
+    }
+
+    private Call<Attributes> attributesCall(String token) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/player/attributes")
+                .header("Authorization", "Bearer "+token)
+                .build();
+        return Call.json(transport, "MojangAPI.attributes", request, (response, reader) -> Json.read(reader, Attributes.class));
     }
 
     /**
@@ -290,24 +652,33 @@ public class MojangAPI {
      * @param newBool The new value of the preference
      */
     public boolean setAttribute(Privileges.Privilege privilege, boolean newBool) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/player/attributes"))
-                    .header("Content-Type", "application/json")
-                    .header("Authorization", "Bearer "+authorization)
-                    .POST(HttpRequest.BodyPublishers.ofString("""
-                            {
-                                "privileges": {
-                                    "<privilege>": <newBool>
-                                }
+        return setAttributeCall(authorization.get(), privilege, newBool).send();
+    }
+
+    /**
+     * Sets the value of a privilege without blocking.
+     * @param privilege The privilege to set.
+     * @param newBool The new value of the preference
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise.
+     */
+    public CompletableFuture<Boolean> setAttributeAsync(Privileges.Privilege privilege, boolean newBool, Executor executor) {
+        return authorized(executor, token -> setAttributeCall(token, privilege, newBool));
+    }
+
+    private Call<Boolean> setAttributeCall(String token, Privileges.Privilege privilege, boolean newBool) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/player/attributes")
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer "+token)
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {
+                            "privileges": {
+                                "<privilege>": <newBool>
                             }
-                            """.replaceAll("<privilege>", privilege.name).replaceAll("<newBool>", newBool+"")))
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+                        }
+                        """.replaceAll("<privilege>", privilege.name).replaceAll("<newBool>", newBool+"")))
+                .build();
+        return new Call<>(transport, "MojangAPI.setAttribute", request, Call::isSuccess);
     }
 
     /**
@@ -316,24 +687,33 @@ public class MojangAPI {
      * @param newBool The new value of the preference
      */
     public boolean setAttribute(ProfanityFilterPreferences.ProfanityFilterPreference profanityFilterPreference, boolean newBool) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/player/attributes"))
-                    .header("Content-Type", "application/json")
-                    .header("Authorization", "Bearer "+authorization)
-                    .POST(HttpRequest.BodyPublishers.ofString("""
-                            {
-                                "profanityFilterPreferences": {
-                                    "<privilege>": <newBool>
-                                }
+        return setAttributeCall(authorization.get(), profanityFilterPreference, newBool).send();
+    }
+
+    /**
+     * Sets the value of a profanity filter preference without blocking.
+     * @param profanityFilterPreference The preference to set.
+     * @param newBool The new value of the preference
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise.
+     */
+    public CompletableFuture<Boolean> setAttributeAsync(ProfanityFilterPreferences.ProfanityFilterPreference profanityFilterPreference, boolean newBool, Executor executor) {
+        return authorized(executor, token -> setAttributeCall(token, profanityFilterPreference, newBool));
+    }
+
+    private Call<Boolean> setAttributeCall(String token, ProfanityFilterPreferences.ProfanityFilterPreference profanityFilterPreference, boolean newBool) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/player/attributes")
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer "+token)
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {
+                            "profanityFilterPreferences": {
+                                "<privilege>": <newBool>
                             }
-                            """.replaceAll("<privilege>", profanityFilterPreference.name).replaceAll("<newBool>", newBool+"")))
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+                        }
+                        """.replaceAll("<privilege>", profanityFilterPreference.name).replaceAll("<newBool>", newBool+"")))
+                .build();
+        return new Call<>(transport, "MojangAPI.setAttribute", request, Call::isSuccess);
     }
 
     /**
@@ -341,18 +721,41 @@ public class MojangAPI {
      * @return The blocklist.
      */
     public List<String> getBlocklist() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/privacy/blocklist"))
-                    .header("Content-Type", "application/json")
-                    .header("Authorization", "Bearer "+authorization)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            JsonObject jsonObject = JsonParser.parseString(response.body()).getAsJsonObject();
-            return jsonObject.getAsJsonArray("blockedProfiles").asList().stream().map(JsonElement::getAsString).toList();
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return blocklistCall(authorization.get()).send();
+    }
+
+    /**
+     * Gets the uuids of all the blocked players of the account without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the blocklist.
+     */
+    public CompletableFuture<List<String>> getBlocklistAsync(Executor executor) {
+        return authorized(executor, this::blocklistCall);
+    }
+
+    /**
+     * Gets the uuids of all the blocked players of the account as a set.
+     * @return The blocklist.
+     */
+    public UUIDSet getBlocklistUUIDs() {
+        return UUIDSet.copyOf(getBlocklist());
+    }
+
+    /**
+     * Gets the uuids of all the blocked players of the account as a set without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the blocklist.
+     */
+    public CompletableFuture<UUIDSet> getBlocklistUUIDsAsync(Executor executor) {
+        return getBlocklistAsync(executor).thenApply(UUIDSet::copyOf);
+    }
+
+    private Call<List<String>> blocklistCall(String token) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/privacy/blocklist")
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer "+token)
+                .build();
+        return Call.json(transport, "MojangAPI.blocklist", request, (response, reader) -> Json.list(reader, "blockedProfiles", String.class));
     }
 
     /**
@@ -360,17 +763,24 @@ public class MojangAPI {
      * @return The certificates.
      */
     public Certificates getCertificates() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/player/certificates"))
-                    .POST(HttpRequest.BodyPublishers.noBody())
-                    .header("Authorization", "Bearer "+authorization)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return gson.fromJson(response.body(), Certificates.class);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return certificatesCall(authorization.get()).send();
+    }
+
+    /**
+     * Gets the certificates of the account without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the certificates.
+     */
+    public CompletableFuture<Certificates> getCertificatesAsync(Executor executor) {
+        return authorized(executor, this::certificatesCall);
+    }
+
+    private Call<Certificates> certificatesCall(String token) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/player/certificates")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .header("Authorization", "Bearer "+token)
+                .build();
+        return Call.json(transport, "MojangAPI.certificates", request, (response, reader) -> Json.read(reader, Certificates.class));
     }
 
     /**
@@ -379,16 +789,24 @@ public class MojangAPI {
      * @return True if the gift card is valid, otherwise false.
      */
     public boolean checkProductVoucher(String giftCard) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/productvoucher/"+giftCard))
-                    .header("Authorization", "Bearer "+authorization)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return productVoucherCall(authorization.get(), giftCard).send();
+    }
+
+    /**
+     * Checks the status of a product voucher without blocking.
+     * @param giftCard The gift card code to check.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if the gift card is valid, otherwise false.
+     */
+    public CompletableFuture<Boolean> checkProductVoucherAsync(String giftCard, Executor executor) {
+        return authorized(executor, token -> productVoucherCall(token, giftCard));
+    }
+
+    private Call<Boolean> productVoucherCall(String token, String giftCard) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/productvoucher/"+giftCard)
+                .header("Authorization", "Bearer "+token)
+                .build();
+        return new Call<>(transport, "MojangAPI.productVoucher", request, Call::isSuccess);
     }
 
     /**
@@ -397,16 +815,24 @@ public class MojangAPI {
      * @return The status of the name.
      */
     public NameStatus getNameAvailability(String name) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/minecraft/profile/name/"+name+"/available"))
-                    .header("Authorization", "Bearer "+authorization)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return NameStatus.valueOf(JsonParser.parseString(response.body()).getAsJsonObject().get("status").getAsString());
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return nameAvailabilityCall(authorization.get(), name).send();
+    }
+
+    /**
+     * Checks the status of a name without blocking.
+     * @param name The name to check.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the status of the name.
+     */
+    public CompletableFuture<NameStatus> getNameAvailabilityAsync(String name, Executor executor) {
+        return authorized(executor, token -> nameAvailabilityCall(token, name));
+    }
+
+    private Call<NameStatus> nameAvailabilityCall(String token, String name) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/minecraft/profile/name/"+name+"/available")
+                .header("Authorization", "Bearer "+token)
+                .build();
+        return Call.json(transport, "MojangAPI.nameAvailability", request, (response, reader) -> NameStatus.valueOf(Json.field(reader, "status", String.class)));
     }
 
     /**
@@ -415,17 +841,25 @@ public class MojangAPI {
      * @return True if successful, false otherwise
      */
     public boolean changeName(String name) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/minecraft/profile/name/"+name))
-                    .PUT(HttpRequest.BodyPublishers.noBody())
-                    .header("Authorization", "Bearer "+authorization)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return changeNameCall(authorization.get(), name).send();
+    }
+
+    /**
+     * Changes the name of the account logged in to without blocking.
+     * @param name The new name to be set.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise
+     */
+    public CompletableFuture<Boolean> changeNameAsync(String name, Executor executor) {
+        return authorized(executor, token -> changeNameCall(token, name));
+    }
+
+    private Call<Boolean> changeNameCall(String token, String name) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/minecraft/profile/name/"+name)
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .header("Authorization", "Bearer "+token)
+                .build();
+        return new Call<>(transport, "MojangAPI.changeName", request, Call::isSuccess);
     }
 
     /**
@@ -434,23 +868,31 @@ public class MojangAPI {
      * @return True if successful, false otherwise
      */
     public boolean changeSkin(String url, Variant variant) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/minecraft/profile/skins"))
-                    .POST(HttpRequest.BodyPublishers.ofString("""
-                            {
-                                "variant": "<variant>",
-                                "url": "<url>"
-                            }
-                            """.replaceAll("<variant>", variant.name()).replaceAll("<url>", url)))
-                    .header("Authorization", "Bearer "+authorization)
-                    .header("Content-Type", "application/json")
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return changeSkinCall(authorization.get(), url, variant).send();
+    }
+
+    /**
+     * Changes the skin of the account logged in to without blocking.
+     * @param url The skin to be set.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise
+     */
+    public CompletableFuture<Boolean> changeSkinAsync(String url, Variant variant, Executor executor) {
+        return authorized(executor, token -> changeSkinCall(token, url, variant));
+    }
+
+    private Call<Boolean> changeSkinCall(String token, String url, Variant variant) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/minecraft/profile/skins")
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {
+                            "variant": "<variant>",
+                            "url": "<url>"
+                        }
+                        """.replaceAll("<variant>", variant.name()).replaceAll("<url>", url)))
+                .header("Authorization", "Bearer "+token)
+                .header("Content-Type", "application/json")
+                .build();
+        return new Call<>(transport, "MojangAPI.changeSkin", request, Call::isSuccess);
     }
 
     /**
@@ -459,13 +901,18 @@ public class MojangAPI {
      * @return True if successful, false otherwise
      */
     public boolean uploadSkin(RenderedImage image, Variant variant) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(image, "png", baos);
-            return uploadSkin(baos.toByteArray(), variant);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return uploadSkinCall(authorization.get(), encodeSkin(image), variant).send();
+    }
+
+    /**
+     * Changes the skin of the account logged in to without blocking.
+     * @param image The skin to be set.
+     * @param executor The executor the image is encoded and the response is processed on.
+     * @return A future completing with true if successful, false otherwise
+     */
+    public CompletableFuture<Boolean> uploadSkinAsync(RenderedImage image, Variant variant, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> encodeSkin(image), executor)
+                .thenCompose(skin -> authorized(executor, token -> uploadSkinCall(token, skin, variant)));
     }
 
     /**
@@ -474,53 +921,97 @@ public class MojangAPI {
      * @return True if successful, false otherwise
      */
     public boolean uploadSkin(File file, Variant variant) {
+        return uploadSkin(file.toPath(), variant);
+    }
+
+    /**
+     * Changes the skin of the account logged in to without blocking.
+     * @param file The skin to be set.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise
+     */
+    public CompletableFuture<Boolean> uploadSkinAsync(File file, Variant variant, Executor executor) {
+        return uploadSkinAsync(file.toPath(), variant, executor);
+    }
+
+    /**
+     * Changes the skin of the account logged in to, the file is streamed as it is sent.
+     * @param path The skin to be set.
+     * @return True if successful, false otherwise
+     */
+    public boolean uploadSkin(Path path, Variant variant) {
+        return uploadSkinCall(authorization.get(), readSkin(path), variant).send();
+    }
+
+    /**
+     * Changes the skin of the account logged in to without blocking, the file is streamed as it is sent.
+     * @param path The skin to be set.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise
+     */
+    public CompletableFuture<Boolean> uploadSkinAsync(Path path, Variant variant, Executor executor) {
+        HttpRequest.BodyPublisher skin;
+        try {
+            skin = readSkin(path);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return authorized(executor, token -> uploadSkinCall(token, skin, variant));
+    }
+
+    private static HttpRequest.BodyPublisher encodeSkin(RenderedImage image) {
         try {
-            return uploadSkin(Files.readAllBytes(file.toPath()), variant);
+            Multipart.Blocks blocks = new Multipart.Blocks();
+            ImageIO.write(image, "png", blocks);
+            return blocks.publisher();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private boolean uploadSkin(byte[] skinData, Variant variant) {
-        String boundary = UUID.randomUUID().toString();
-        String body = "--" + boundary + "\r\n" +
-                "Content-Disposition: form-data; name=\"variant\"\r\n\r\n" +
-                variant.name() + "\r\n" +
-                "--" + boundary + "\r\n" +
-                "Content-Disposition: form-data; name=\"file\"; filename=\"skin.png\"\r\n" +
-                "Content-Type: image/png\r\n\r\n" +
-                new String(skinData) + "\r\n" +
-                "--" + boundary + "--";
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("https://api.minecraftservices.com/minecraft/profile/skins"))
-                .header("Authorization", "Bearer " + authorization)
-                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .build();
+    private static HttpRequest.BodyPublisher readSkin(Path path) {
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
+            return Multipart.ofFile(path);
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private Call<Boolean> uploadSkinCall(String token, HttpRequest.BodyPublisher skin, Variant variant) {
+        Multipart body = new Multipart()
+                .field("variant", variant.name())
+                .file("file", "skin.png", "image/png", skin);
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/minecraft/profile/skins")
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", body.contentType())
+                .POST(body.publisher())
+                .build();
+        return new Call<>(transport, "MojangAPI.uploadSkin", request, Call::isSuccess);
+    }
+
     /**
      * Resets the skin of the account logged in to.
      * @return True if successful, false otherwise
      */
     public boolean resetSkin() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/minecraft/profile/skins/active"))
-                    .DELETE()
-                    .header("Authorization", "Bearer "+authorization)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return resetSkinCall(authorization.get()).send();
+    }
+
+    /**
+     * Resets the skin of the account logged in to without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise
+     */
+    public CompletableFuture<Boolean> resetSkinAsync(Executor executor) {
+        return authorized(executor, this::resetSkinCall);
+    }
+
+    private Call<Boolean> resetSkinCall(String token) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/minecraft/profile/skins/active")
+                .DELETE()
+                .header("Authorization", "Bearer "+token)
+                .build();
+        return new Call<>(transport, "MojangAPI.resetSkin", request, Call::isSuccess);
     }
 
     /**
@@ -528,17 +1019,24 @@ public class MojangAPI {
      * @return True if successful, false otherwise
      */
     public boolean hideCape() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/minecraft/profile/capes/active"))
-                    .DELETE()
-                    .header("Authorization", "Bearer "+authorization)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return hideCapeCall(authorization.get()).send();
+    }
+
+    /**
+     * Hides the cape of the account logged in to without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise
+     */
+    public CompletableFuture<Boolean> hideCapeAsync(Executor executor) {
+        return authorized(executor, this::hideCapeCall);
+    }
+
+    private Call<Boolean> hideCapeCall(String token) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/minecraft/profile/capes/active")
+                .DELETE()
+                .header("Authorization", "Bearer "+token)
+                .build();
+        return new Call<>(transport, "MojangAPI.hideCape", request, Call::isSuccess);
     }
 
     /**
@@ -547,17 +1045,25 @@ public class MojangAPI {
      * @return True if successful, false otherwise
      */
     public boolean showCape(String id) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/minecraft/profile/capes/active"))
-                    .POST(HttpRequest.BodyPublishers.ofString("{\"capeId\": \""+id+"\"}"))
-                    .header("Authorization", "Bearer "+authorization)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return showCapeCall(authorization.get(), id).send();
+    }
+
+    /**
+     * Sets the cape shown on the account logged in to without blocking.
+     * @param id The id of the cape.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise
+     */
+    public CompletableFuture<Boolean> showCapeAsync(String id, Executor executor) {
+        return authorized(executor, token -> showCapeCall(token, id));
+    }
+
+    private Call<Boolean> showCapeCall(String token, String id) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/minecraft/profile/capes/active")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"capeId\": \""+id+"\"}"))
+                .header("Authorization", "Bearer "+token)
+                .build();
+        return new Call<>(transport, "MojangAPI.showCape", request, Call::isSuccess);
     }
 
     /**
@@ -565,16 +1071,23 @@ public class MojangAPI {
      * @return The migration information.
      */
     public MigrationInformation getMigrationInformation() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/rollout/v1/msamigration"))
-                    .header("Authorization", "Bearer "+authorization)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return gson.fromJson(response.body(), MigrationInformation.class);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return migrationInformationCall(authorization.get()).send();
+    }
+
+    /**
+     * Gets the migration information of the account without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the migration information.
+     */
+    public CompletableFuture<MigrationInformation> getMigrationInformationAsync(Executor executor) {
+        return authorized(executor, this::migrationInformationCall);
+    }
+
+    private Call<MigrationInformation> migrationInformationCall(String token) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/rollout/v1/msamigration")
+                .header("Authorization", "Bearer "+token)
+                .build();
+        return Call.json(transport, "MojangAPI.migrationInformation", request, (response, reader) -> Json.read(reader, MigrationInformation.class));
     }
 
     /**
@@ -582,18 +1095,25 @@ public class MojangAPI {
      * @return The otp ID (needed to verify).
      */
     public String accountMigrationOTP() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/twofactorauth/migration/otp"))
-                    .header("Authorization", "Bearer "+authorization)
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.noBody())
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return JsonParser.parseString(response.body()).getAsJsonObject().get("otpId").getAsString();
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return accountMigrationOTPCall(authorization.get()).send();
+    }
+
+    /**
+     * Sends an OTP email to the account without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the otp ID (needed to verify).
+     */
+    public CompletableFuture<String> accountMigrationOTPAsync(Executor executor) {
+        return authorized(executor, this::accountMigrationOTPCall);
+    }
+
+    private Call<String> accountMigrationOTPCall(String token) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/twofactorauth/migration/otp")
+                .header("Authorization", "Bearer "+token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return Call.json(transport, "MojangAPI.accountMigrationOTP", request, (response, reader) -> Json.field(reader, "otpId", String.class));
     }
 
     /**
@@ -602,18 +1122,26 @@ public class MojangAPI {
      * @return True if successful, otherwise false.
      */
     public boolean verifyAccountMigrationOTP(String otpId) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/twofactorauth/migration/otp/"+otpId+"/verify"))
-                    .header("Authorization", "Bearer "+authorization)
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString("{\"otp\": \""+otpId+"\"}"))
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return verifyAccountMigrationOTPCall(authorization.get(), otpId).send();
+    }
+
+    /**
+     * Verifies an account migration OTP without blocking.
+     * @param otpId the otp ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, otherwise false.
+     */
+    public CompletableFuture<Boolean> verifyAccountMigrationOTPAsync(String otpId, Executor executor) {
+        return authorized(executor, token -> verifyAccountMigrationOTPCall(token, otpId));
+    }
+
+    private Call<Boolean> verifyAccountMigrationOTPCall(String token, String otpId) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/twofactorauth/migration/otp/"+otpId+"/verify")
+                .header("Authorization", "Bearer "+token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"otp\": \""+otpId+"\"}"))
+                .build();
+        return new Call<>(transport, "MojangAPI.verifyAccountMigrationOTP", request, Call::isSuccess);
     }
 
     /**
@@ -622,18 +1150,26 @@ public class MojangAPI {
      * @return True if successful, otherwise false.
      */
     public boolean submitMigrationToken(String email) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.minecraftservices.com/migration/token"))
-                    .header("Authorization", "Bearer "+authorization)
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString("{\"accountEmail\": \""+email+"\"}"))
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return submitMigrationTokenCall(authorization.get(), email).send();
+    }
+
+    /**
+     * Submits a migration token without blocking.
+     * @param email the email.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, otherwise false.
+     */
+    public CompletableFuture<Boolean> submitMigrationTokenAsync(String email, Executor executor) {
+        return authorized(executor, token -> submitMigrationTokenCall(token, email));
+    }
+
+    private Call<Boolean> submitMigrationTokenCall(String token, String email) {
+        HttpRequest request = transport.request(Transport.Service.MINECRAFT_SERVICES, "/migration/token")
+                .header("Authorization", "Bearer "+token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"accountEmail\": \""+email+"\"}"))
+                .build();
+        return new Call<>(transport, "MojangAPI.submitMigrationToken", request, Call::isSuccess);
     }
 
 }
@@ -0,0 +1,218 @@
+package cc.aabss.mojang;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@code multipart/form-data} request body that streams its parts, so binary content is sent byte for byte
+ * and never held as one large array. The body can be subscribed to again, which retried requests do.
+ */
+final class Multipart {
+
+    private final String boundary = UUID.randomUUID().toString();
+    private final List<HttpRequest.BodyPublisher> parts = new ArrayList<>();
+
+    /**
+     * Adds a text field.
+     * @return This body.
+     */
+    Multipart field(String name, String value) {
+        parts.add(bytes("--" + boundary + "\r\n" +
+                "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" +
+                value + "\r\n"));
+        return this;
+    }
+
+    /**
+     * Adds a file field.
+     * @param content The content of the file, which should know its length so the whole body does.
+     * @return This body.
+     */
+    Multipart file(String name, String filename, String contentType, HttpRequest.BodyPublisher content) {
+        parts.add(bytes("--" + boundary + "\r\n" +
+                "Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename + "\"\r\n" +
+                "Content-Type: " + contentType + "\r\n\r\n"));
+        parts.add(content);
+        parts.add(bytes("\r\n"));
+        return this;
+    }
+
+    String contentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    HttpRequest.BodyPublisher publisher() {
+        List<HttpRequest.BodyPublisher> body = new ArrayList<>(parts);
+        body.add(bytes("--" + boundary + "--\r\n"));
+        return HttpRequest.BodyPublishers.concat(body.toArray(HttpRequest.BodyPublisher[]::new));
+    }
+
+    private static HttpRequest.BodyPublisher bytes(String string) {
+        return HttpRequest.BodyPublishers.ofByteArray(string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Makes a body that reads a file through a {@link FileChannel} each time it is subscribed to.
+     * @throws IOException If the size of the file can not be read.
+     */
+    static HttpRequest.BodyPublisher ofFile(Path path) throws IOException {
+        return new ChannelPublisher(path, Files.size(path));
+    }
+
+    /**
+     * An output stream collecting what is written into fixed size blocks, which are sent as they are
+     * instead of being grown and copied into one array.
+     */
+    static final class Blocks extends OutputStream {
+
+        private static final int BLOCK_SIZE = 8192;
+
+        private final List<byte[]> blocks = new ArrayList<>();
+        private byte[] block = new byte[BLOCK_SIZE];
+        private int position;
+
+        @Override
+        public void write(int b) {
+            if (position == block.length) next();
+            block[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            while (length > 0) {
+                if (position == block.length) next();
+                int count = Math.min(length, block.length - position);
+                System.arraycopy(bytes, offset, block, position, count);
+                position += count;
+                offset += count;
+                length -= count;
+            }
+        }
+
+        private void next() {
+            blocks.add(block);
+            block = new byte[BLOCK_SIZE];
+            position = 0;
+        }
+
+        /**
+         * Makes a body of what was written so far.
+         */
+        HttpRequest.BodyPublisher publisher() {
+            HttpRequest.BodyPublisher[] publishers = new HttpRequest.BodyPublisher[blocks.size() + 1];
+            for (int i = 0; i < blocks.size(); i++) {
+                publishers[i] = HttpRequest.BodyPublishers.ofByteArray(blocks.get(i));
+            }
+            publishers[blocks.size()] = HttpRequest.BodyPublishers.ofByteArray(block, 0, position);
+            return HttpRequest.BodyPublishers.concat(publishers);
+        }
+    }
+
+    private record ChannelPublisher(Path path, long contentLength) implements HttpRequest.BodyPublisher {
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            } catch (IOException e) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {}
+
+                    @Override
+                    public void cancel() {}
+                });
+                subscriber.onError(e);
+                return;
+            }
+            subscriber.onSubscribe(new ChannelSubscription(channel, subscriber));
+        }
+    }
+
+    private static final class ChannelSubscription implements Flow.Subscription {
+
+        private static final int CHUNK_SIZE = 16384;
+
+        private final FileChannel channel;
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile boolean done;
+
+        ChannelSubscription(FileChannel channel, Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.channel = channel;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("non-positive request " + n));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            close();
+        }
+
+        /**
+         * Emits chunks while there is demand, only one thread emits at a time and the others leave their work to it.
+         */
+        private void drain() {
+            if (work.getAndIncrement() != 0) return;
+            do {
+                while (!done && demand.get() > 0) {
+                    ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+                    int read;
+                    try {
+                        read = channel.read(chunk);
+                    } catch (IOException e) {
+                        fail(e);
+                        return;
+                    }
+                    if (read < 0) {
+                        done = true;
+                        close();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(chunk.flip());
+                }
+            } while (work.decrementAndGet() != 0);
+        }
+
+        private void fail(Throwable throwable) {
+            if (done) return;
+            done = true;
+            close();
+            subscriber.onError(throwable);
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
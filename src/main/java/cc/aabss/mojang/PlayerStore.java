@@ -0,0 +1,540 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.mojang.PublicPlayerProfile;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent store of resolved uuids and profiles, so they survive a restart without asking Mojang again.
+ * Records are appended to a memory-mapped log file together with the time they were stored. Opening the store only
+ * indexes the keys of the log, values are decoded from the mapped file when they are looked up. Once most of the log
+ * is overwritten records, it is rewritten without them in the background into the next generation of the log,
+ * {@code players.1.log}, {@code players.2.log} and so on, so a file is never replaced while it is mapped.
+ * <pre>{@code
+ * MojangAPI.setPlayerStore(PlayerStore.builder(Path.of("cache")).build());
+ * }</pre>
+ * @see MojangAPI#setPlayerStore(PlayerStore)
+ */
+public final class PlayerStore implements AutoCloseable {
+
+    private static final String FILE = "players.log";
+    private static final Pattern GENERATION = Pattern.compile("players(?:\\.(\\d+))?\\.log");
+    private static final int INITIAL_CAPACITY = 1 << 20;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    /**
+     * The timestamp, key length and checksum of a record, next to its length prefix, key and value.
+     */
+    private static final int OVERHEAD = Long.BYTES + Short.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final Duration uuidMaxAge;
+    private final Duration profileMaxAge;
+    private final Executor executor;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long generation;
+    private Path file;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private HashMap<String, Integer> index = new HashMap<>();
+    private int end;
+    private long liveBytes;
+    private boolean compacting;
+    /**
+     * The end of the log past which it is compacted in the background, raised after a compaction failed.
+     */
+    private long compactAfter = INITIAL_CAPACITY;
+    private boolean closed;
+
+    private PlayerStore(Builder builder) throws IOException {
+        Files.createDirectories(builder.directory);
+        this.directory = builder.directory;
+        this.uuidMaxAge = builder.uuidMaxAge;
+        this.profileMaxAge = builder.profileMaxAge;
+        this.executor = builder.executor != null ? builder.executor : SharedExecutors.WORKERS;
+        this.generation = latestGeneration();
+        this.file = generationFile(generation);
+        Files.deleteIfExists(compactFile());
+        deleteOldGenerations();
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size > MAX_CAPACITY) throw new IOException("Store is too large: " + file);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_CAPACITY, size));
+        load();
+    }
+
+    /**
+     * Makes a new store builder.
+     * @param directory The directory the store keeps its file in.
+     * @return The builder.
+     */
+    public static Builder builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    /**
+     * Gets the stored uuid of a player, however old it is.
+     * @param name The name of the player, matched case-insensitively.
+     * @return The uuid and when it was stored, or null if it is not stored.
+     */
+    @Nullable
+    public Stored<String> uuid(String name) {
+        Stored<byte[]> stored = read(uuidKey(name));
+        return stored == null ? null : new Stored<>(new String(stored.value(), StandardCharsets.UTF_8), stored.storedAt());
+    }
+
+    /**
+     * Gets the stored profile of a player, however old it is.
+     * @param uuid The uuid of the player, with or without dashes.
+     * @param unsigned Whether the profile was fetched without signatures.
+     * @return The profile and when it was stored, or null if it is not stored.
+     */
+    @Nullable
+    public Stored<PublicPlayerProfile> profile(String uuid, boolean unsigned) {
+        Stored<byte[]> stored = read(profileKey(uuid, unsigned));
+        if (stored == null) return null;
+        PublicPlayerProfile profile = MojangAPI.wireGson.fromJson(new String(stored.value(), StandardCharsets.UTF_8), PublicPlayerProfile.class);
+        return new Stored<>(profile, stored.storedAt());
+    }
+
+    /**
+     * Stores the uuid of a player.
+     * @param name The name of the player.
+     * @param uuid The uuid of the player.
+     */
+    public void putUUID(String name, String uuid) {
+        write(uuidKey(name), uuid.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stores the profile of a player.
+     * @param profile The profile.
+     * @param unsigned Whether the profile was fetched without signatures.
+     */
+    public void putProfile(PublicPlayerProfile profile, boolean unsigned) {
+        write(profileKey(profile.id(), unsigned), MojangAPI.wireGson.toJson(profile).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets the amount of uuids and profiles in the store.
+     * @return The size of the store.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the amount of bytes the log uses, including overwritten records that were not compacted yet.
+     * @return The size of the log in bytes.
+     */
+    public long fileSize() {
+        lock.readLock().lock();
+        try {
+            return end;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the stored records to the disk.
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            if (!closed) buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the log without its overwritten records, blocking until it is done.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            if (compacting || closed) return;
+            compacting = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rewrite();
+    }
+
+    /**
+     * Writes the stored records to the disk and closes the file.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) return;
+            closed = true;
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a stored uuid that is not older than the maximum age.
+     */
+    @Nullable
+    String freshUUID(String name) {
+        Stored<String> stored = uuid(name);
+        return stored != null && isFresh(stored, uuidMaxAge) ? stored.value() : null;
+    }
+
+    /**
+     * Gets a stored profile that is not older than the maximum age.
+     */
+    @Nullable
+    PublicPlayerProfile freshProfile(String uuid, boolean unsigned) {
+        Stored<PublicPlayerProfile> stored = profile(uuid, unsigned);
+        return stored != null && isFresh(stored, profileMaxAge) ? stored.value() : null;
+    }
+
+    private static boolean isFresh(Stored<?> stored, Duration maxAge) {
+        return stored.storedAt().plus(maxAge).isAfter(Instant.now());
+    }
+
+    private static String uuidKey(String name) {
+        return "n:" + name.toLowerCase(Locale.ROOT);
+    }
+
+    private static String profileKey(String uuid, boolean unsigned) {
+        return "p:" + uuid.replace("-", "").toLowerCase(Locale.ROOT) + (unsigned ? ":u" : ":s");
+    }
+
+    private Path compactFile() {
+        return directory.resolve(FILE + ".compact");
+    }
+
+    private Path generationFile(long generation) {
+        return directory.resolve(generation == 0 ? FILE : "players." + generation + ".log");
+    }
+
+    /**
+     * Finds the newest generation of the log, a generation is only renamed into place once it is complete.
+     */
+    private long latestGeneration() throws IOException {
+        long latest = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path path : files) {
+                Matcher matcher = GENERATION.matcher(path.getFileName().toString());
+                if (matcher.matches() && matcher.group(1) != null) latest = Math.max(latest, Long.parseLong(matcher.group(1)));
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Deletes the generations before the current one. A generation still mapped by this process cannot be deleted on
+     * some platforms, it is then left for the next compaction or the next time the store is opened.
+     */
+    private void deleteOldGenerations() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path path : files) {
+                Matcher matcher = GENERATION.matcher(path.getFileName().toString());
+                if (!matcher.matches() || (matcher.group(1) == null ? 0 : Long.parseLong(matcher.group(1))) >= generation) continue;
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException ignored) {
+                }
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Indexes the records of the log, a record that was not written completely ends it.
+     */
+    private void load() {
+        int capacity = buffer.capacity();
+        int position = 0;
+        while (position <= capacity - Integer.BYTES) {
+            int length = buffer.getInt(position);
+            if (length < OVERHEAD || length > capacity - position - Integer.BYTES || !isIntact(buffer, position, length)) break;
+            String key = key(buffer, position);
+            Integer previous = index.put(key, position);
+            if (previous != null) liveBytes -= recordSize(buffer, previous);
+            liveBytes += Integer.BYTES + length;
+            position += Integer.BYTES + length;
+        }
+        end = position;
+        // Whatever follows is a torn record, which must not be read as one once the log grows past it.
+        if (end <= capacity - Integer.BYTES) buffer.putInt(end, 0);
+    }
+
+    @Nullable
+    private Stored<byte[]> read(String key) {
+        lock.readLock().lock();
+        try {
+            if (closed) return null;
+            Integer position = index.get(key);
+            if (position == null) return null;
+            int length = buffer.getInt(position);
+            int keyLength = buffer.getShort(position + Integer.BYTES + Long.BYTES) & 0xFFFF;
+            int valueStart = position + Integer.BYTES + Long.BYTES + Short.BYTES + keyLength;
+            byte[] value = new byte[length - OVERHEAD - keyLength];
+            buffer.get(valueStart, value);
+            return new Stored<>(value, Instant.ofEpochMilli(buffer.getLong(position + Integer.BYTES)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = OVERHEAD + keyBytes.length + value.length;
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length);
+        record.putInt(length).putLong(System.currentTimeMillis()).putShort((short) keyBytes.length).put(keyBytes).put(value);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), Integer.BYTES, length - Integer.BYTES);
+        record.putInt((int) crc.getValue());
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            if (closed) return;
+            ensureCapacity(record.capacity() + Integer.BYTES);
+            int position = end;
+            buffer.put(position, record.array());
+            end += record.capacity();
+            if (end <= buffer.capacity() - Integer.BYTES) buffer.putInt(end, 0);
+            Integer previous = index.put(key, position);
+            if (previous != null) liveBytes -= recordSize(buffer, previous);
+            liveBytes += record.capacity();
+            compact = !compacting && end > compactAfter && end > liveBytes * 2;
+            if (compact) compacting = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) executor.execute(this::rewrite);
+    }
+
+    private void ensureCapacity(int bytes) {
+        int capacity = buffer.capacity();
+        if (end <= capacity - bytes) return;
+        if (end > MAX_CAPACITY - bytes) throw new IllegalStateException("Store is full: " + file);
+        long grown = Math.max((long) capacity * 2, (long) end + bytes);
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(grown, MAX_CAPACITY));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Copies the current records to the next generation of the log and switches to it.
+     * Records below the end of the log never change, so they are copied without holding the lock,
+     * only the records appended meanwhile are copied while writes wait. The new generation is renamed into place
+     * before it is opened again and mapped, no file is moved or replaced while it is open or mapped.
+     */
+    private void rewrite() {
+        Path target = compactFile();
+        boolean done = false;
+        deleteOldGenerations();
+        try {
+            MappedByteBuffer source;
+            List<Map.Entry<String, Integer>> records;
+            int copiedEnd;
+            lock.readLock().lock();
+            try {
+                if (closed) return;
+                source = buffer;
+                records = new ArrayList<>(index.entrySet());
+                copiedEnd = end;
+            } finally {
+                lock.readLock().unlock();
+            }
+            FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                HashMap<String, Integer> moved = new HashMap<>();
+                for (Map.Entry<String, Integer> record : records) {
+                    moved.put(record.getKey(), copy(source, record.getValue(), out));
+                }
+                lock.writeLock().lock();
+                try {
+                    if (closed) {
+                        out.close();
+                        return;
+                    }
+                    for (Map.Entry<String, Integer> record : index.entrySet()) {
+                        if (record.getValue() >= copiedEnd) moved.put(record.getKey(), copy(buffer, record.getValue(), out));
+                    }
+                    int size = (int) out.position();
+                    out.force(true);
+                    out.close();
+                    Path next = generationFile(generation + 1);
+                    Files.move(target, next, StandardCopyOption.ATOMIC_MOVE);
+                    FileChannel opened = null;
+                    MappedByteBuffer mapped;
+                    try {
+                        opened = FileChannel.open(next, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                        mapped = opened.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_CAPACITY, (long) size * 2));
+                    } catch (IOException | RuntimeException e) {
+                        // The current generation stays in use, so the next one must not be found when the store is opened again.
+                        if (opened != null) opened.close();
+                        Files.deleteIfExists(next);
+                        throw e;
+                    }
+                    if (size <= mapped.capacity() - Integer.BYTES) mapped.putInt(size, 0);
+                    channel.close();
+                    channel = opened;
+                    buffer = mapped;
+                    file = next;
+                    generation++;
+                    index = moved;
+                    end = size;
+                    liveBytes = size;
+                    done = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } catch (IOException | RuntimeException e) {
+                out.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                compacting = false;
+                // Do not try again on every write, only once the log has grown as much again.
+                if (!done && !closed) compactAfter = Math.max(compactAfter, (long) end * 2);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (done) deleteOldGenerations();
+    }
+
+    /**
+     * Appends a record to a channel.
+     * @return The position the record was written at.
+     */
+    private static int copy(ByteBuffer source, int position, FileChannel out) throws IOException {
+        int target = (int) out.position();
+        ByteBuffer record = source.slice(position, recordSize(source, position));
+        while (record.hasRemaining()) {
+            out.write(record);
+        }
+        return target;
+    }
+
+    private static int recordSize(ByteBuffer buffer, int position) {
+        return Integer.BYTES + buffer.getInt(position);
+    }
+
+    private static boolean isIntact(ByteBuffer buffer, int position, int length) {
+        int keyLength = buffer.getShort(position + Integer.BYTES + Long.BYTES) & 0xFFFF;
+        if (keyLength > length - OVERHEAD) return false;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position + Integer.BYTES, length - Integer.BYTES));
+        return (int) crc.getValue() == buffer.getInt(position + length);
+    }
+
+    private static String key(ByteBuffer buffer, int position) {
+        int keyLength = buffer.getShort(position + Integer.BYTES + Long.BYTES) & 0xFFFF;
+        byte[] key = new byte[keyLength];
+        buffer.get(position + Integer.BYTES + Long.BYTES + Short.BYTES, key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A stored value.
+     * @param value The value.
+     * @param storedAt When the value was stored.
+     * @param <T> The type of the value.
+     */
+    public record Stored<T>(T value, Instant storedAt) {}
+
+    public static final class Builder {
+
+        private final Path directory;
+        private Duration uuidMaxAge = Duration.ofDays(1);
+        private Duration profileMaxAge = Duration.ofHours(1);
+        private @Nullable Executor executor;
+
+        private Builder(Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Sets how old a stored uuid may be to answer {@link MojangAPI#getUUIDbyName(String)}, defaults to 1 day.
+         * @param uuidMaxAge The maximum age.
+         * @return This builder.
+         */
+        public Builder uuidMaxAge(Duration uuidMaxAge) {
+            if (uuidMaxAge.isNegative()) throw new IllegalArgumentException("uuidMaxAge must not be negative");
+            this.uuidMaxAge = uuidMaxAge;
+            return this;
+        }
+
+        /**
+         * Sets how old a stored profile may be to answer {@link MojangAPI#getProfile(String, boolean)}, defaults to 1 hour.
+         * @param profileMaxAge The maximum age.
+         * @return This builder.
+         */
+        public Builder profileMaxAge(Duration profileMaxAge) {
+            if (profileMaxAge.isNegative()) throw new IllegalArgumentException("profileMaxAge must not be negative");
+            this.profileMaxAge = profileMaxAge;
+            return this;
+        }
+
+        /**
+         * Sets the executor the log is compacted on, defaults to the library's shared, unbounded daemon worker pool.
+         * @param executor The executor.
+         * @return This builder.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Opens the store, indexing the records already in its directory.
+         * @return The store.
+         */
+        public PlayerStore build() {
+            try {
+                return new PlayerStore(this);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
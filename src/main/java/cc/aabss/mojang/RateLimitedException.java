@@ -0,0 +1,37 @@
+package cc.aabss.mojang;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is not sent because its host is rate limited for longer than the transport is willing to wait.
+ * @see Transport.Builder#maxQueueTime(Duration)
+ */
+public class RateLimitedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String host;
+    private final Duration retryAfter;
+
+    public RateLimitedException(String host, Duration retryAfter) {
+        super("Rate limited by " + host + ", retry after " + retryAfter.toMillis() + "ms");
+        this.host = host;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets the host that is rate limited.
+     * @return The host.
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Gets how long until the host accepts requests again.
+     * @return The time to wait.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
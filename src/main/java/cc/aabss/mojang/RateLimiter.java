@@ -0,0 +1,148 @@
+package cc.aabss.mojang;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Spaces out the requests to each host with a token bucket and pauses a host after it answers 429.
+ */
+final class RateLimiter {
+
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    private final Map<String, Limit> limits;
+    private final long maxQueueTime;
+    private final Duration defaultRetryAfter;
+    private final LongSupplier nanoTime;
+    private final Clock clock;
+
+    RateLimiter(Map<String, Limit> limits, Duration maxQueueTime, Duration defaultRetryAfter) {
+        this(limits, maxQueueTime, defaultRetryAfter, System::nanoTime, Clock.systemUTC());
+    }
+
+    /**
+     * @param nanoTime The time slots are reserved against, {@link System#nanoTime()} outside of tests.
+     * @param clock The clock Retry-After dates are compared to.
+     */
+    RateLimiter(Map<String, Limit> limits, Duration maxQueueTime, Duration defaultRetryAfter, LongSupplier nanoTime, Clock clock) {
+        this.limits = Map.copyOf(limits);
+        this.maxQueueTime = maxQueueTime.toNanos();
+        this.defaultRetryAfter = defaultRetryAfter;
+        this.nanoTime = nanoTime;
+        this.clock = clock;
+    }
+
+    Host host(URI uri) {
+        String name = uri.getHost();
+        return hosts.computeIfAbsent(name, key -> new Host(key, limits.get(key)));
+    }
+
+    /**
+     * Reserves the next slot of a host.
+     * @return How many nanoseconds to wait before sending.
+     * @throws RateLimitedException If the wait is longer than the maximum queue time.
+     */
+    long reserve(Host host) {
+        long wait = host.reserve(nanoTime.getAsLong(), maxQueueTime);
+        if (wait < 0) {
+            throw new RateLimitedException(host.name, Duration.ofNanos(-wait));
+        }
+        return wait;
+    }
+
+    /**
+     * Pauses a host that answered 429 for as long as its Retry-After header asks.
+     * @return How long the host is paused.
+     */
+    Duration pause(Host host, HttpResponse<?> response) {
+        return pause(host, response.headers().firstValue("Retry-After").orElse(null));
+    }
+
+    /**
+     * Pauses a host that answered 429.
+     * @param retryAfter The Retry-After header, or null if the response had none.
+     * @return How long the host is paused.
+     */
+    Duration pause(Host host, @Nullable String retryAfter) {
+        Duration duration = retryAfter == null ? defaultRetryAfter : parseRetryAfter(retryAfter, clock);
+        host.pause(nanoTime.getAsLong() + duration.toNanos());
+        return duration;
+    }
+
+    /**
+     * Parses a Retry-After header, which is either an amount of seconds or an RFC 1123 date.
+     * @return The time to wait, zero if the date has passed or the header could not be parsed.
+     */
+    static Duration parseRetryAfter(String value, Clock clock) {
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            Duration duration = Duration.between(ZonedDateTime.now(clock), ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+            return duration.isNegative() ? Duration.ZERO : duration;
+        } catch (DateTimeParseException ignored) {
+            return Duration.ZERO;
+        }
+    }
+
+    /**
+     * The request rate allowed for a host.
+     * @param interval The nanoseconds between two requests.
+     * @param tolerance The nanoseconds a request may come early, which allows bursts.
+     */
+    record Limit(long interval, long tolerance) {
+
+        static Limit of(double requestsPerSecond, int burst) {
+            long interval = (long) (1_000_000_000L / requestsPerSecond);
+            return new Limit(interval, interval * (burst - 1));
+        }
+    }
+
+    static final class Host {
+
+        final String name;
+        private final Limit limit;
+        private long theoreticalArrival = Long.MIN_VALUE;
+        private long pausedUntil = Long.MIN_VALUE;
+
+        Host(String name, Limit limit) {
+            this.name = name;
+            this.limit = limit;
+        }
+
+        /**
+         * Reserves the next slot, which is a generic cell rate algorithm with reservations.
+         * @return The nanoseconds to wait, or the negated wait if it is longer than the maximum.
+         */
+        synchronized long reserve(long now, long maxWait) {
+            long start = pausedUntil == Long.MIN_VALUE ? now : Math.max(now, pausedUntil);
+            if (limit == null) {
+                long wait = start - now;
+                return wait > maxWait ? -wait : wait;
+            }
+            long scheduled = theoreticalArrival == Long.MIN_VALUE ? start : Math.max(start, theoreticalArrival - limit.tolerance);
+            long wait = scheduled - now;
+            if (wait > maxWait) {
+                return -wait;
+            }
+            theoreticalArrival = (theoreticalArrival == Long.MIN_VALUE ? scheduled : Math.max(theoreticalArrival, scheduled)) + limit.interval;
+            return wait;
+        }
+
+        synchronized void pause(long until) {
+            if (pausedUntil == Long.MIN_VALUE || until - pausedUntil > 0) {
+                pausedUntil = until;
+            }
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package cc.aabss.mojang;
 
 import cc.aabss.mojang.objects.realms.*;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @SuppressWarnings("unused")
 public class RealmsAPI extends MojangAPI {
@@ -22,9 +35,24 @@ public class RealmsAPI extends MojangAPI {
      * @param enviornment The realms api URL.
      */
     public RealmsAPI(RealmsCookie cookie, Enviornment enviornment) {
-        super(cookie.sid().accessToken());
-        this.cookie = cookie.toString();
-        this.enviornment = enviornment.url;
+        this(Transport.getDefault(), enviornment.url, cookie);
+    }
+
+    /**
+     * Makes a new instance of RealmsAPI whose requests go to the realms URL of the transport,
+     * which is production unless it overrides {@link Transport.Service#REALMS}.
+     * @param cookie The realms cookie needed to authenticate.
+     * @param transport The transport requests are sent through.
+     */
+    public RealmsAPI(RealmsCookie cookie, Transport transport) {
+        this(transport, transport.baseUrl(Transport.Service.REALMS), cookie);
+    }
+
+    private RealmsAPI(Transport transport, String url, RealmsCookie cookie) {
+        super(cookie.sid(), transport);
+        String value = cookie.toString();
+        this.cookie = token -> value;
+        this.enviornment = url;
     }
 
     /**
@@ -35,9 +63,19 @@ public class RealmsAPI extends MojangAPI {
      * @param enviornment The realms api URL.
      */
     public RealmsAPI(SessionID sid, String user, String version, Enviornment enviornment) {
-        super(sid.accessToken());
-        this.cookie = new RealmsCookie(sid, user, version).toString();
-        this.enviornment = enviornment.url;
+        this(new RealmsCookie(sid, user, version), enviornment);
+    }
+
+    /**
+     * Makes a new instance of RealmsAPI whose requests go to the realms URL of the transport,
+     * which is production unless it overrides {@link Transport.Service#REALMS}.
+     * @param sid The session id of the player.
+     * @param user The name of the user.
+     * @param version The minecraft version the user is playing on.
+     * @param transport The transport requests are sent through.
+     */
+    public RealmsAPI(SessionID sid, String user, String version, Transport transport) {
+        this(new RealmsCookie(sid, user, version), transport);
     }
 
     /**
@@ -49,9 +87,20 @@ public class RealmsAPI extends MojangAPI {
      * @param enviornment The realms api URL.
      */
     public RealmsAPI(String accessToken, String uuid, String user, String version, Enviornment enviornment) {
-        super(new SessionID(accessToken, uuid).accessToken());
-        this.cookie = new RealmsCookie(new SessionID(accessToken, uuid), user, version).toString();
-        this.enviornment = enviornment.url;
+        this(new RealmsCookie(new SessionID(accessToken, uuid), user, version), enviornment);
+    }
+
+    /**
+     * Makes a new instance of RealmsAPI whose requests go to the realms URL of the transport,
+     * which is production unless it overrides {@link Transport.Service#REALMS}.
+     * @param accessToken The access token from the account.
+     * @param uuid The uuid of the user.
+     * @param user The name of the user.
+     * @param version The minecraft version the user is playing on.
+     * @param transport The transport requests are sent through.
+     */
+    public RealmsAPI(String accessToken, String uuid, String user, String version, Transport transport) {
+        this(new RealmsCookie(new SessionID(accessToken, uuid), user, version), transport);
     }
 
     /**
@@ -62,29 +111,109 @@ public class RealmsAPI extends MojangAPI {
      * @param enviornment The realms api URL.
      */
     public RealmsAPI(String accessToken, String nameOrUuid, String version, Enviornment enviornment) {
-        super(new SessionID(accessToken, (nameOrUuid.length() > 16 ? nameOrUuid : getUUIDbyName(nameOrUuid))).accessToken());
-        this.cookie = new RealmsCookie(this.sessionID, this.getProfile().name(), version).toString();
-        this.enviornment = enviornment.url;
+        this(Transport.getDefault(), enviornment.url, accessToken, nameOrUuid, version);
+    }
+
+    /**
+     * Makes a new instance of RealmsAPI whose requests go to the realms URL of the transport,
+     * which is production unless it overrides {@link Transport.Service#REALMS}.
+     * @param accessToken The access token from the account.
+     * @param nameOrUuid Either the uuid or the name of the user.
+     * @param version The minecraft version the user is playing on.
+     * @param transport The transport requests are sent through.
+     */
+    public RealmsAPI(String accessToken, String nameOrUuid, String version, Transport transport) {
+        this(transport, transport.baseUrl(Transport.Service.REALMS), accessToken, nameOrUuid, version);
+    }
+
+    private RealmsAPI(Transport transport, String url, String accessToken, String nameOrUuid, String version) {
+        super(new SessionID(accessToken, (nameOrUuid.length() > 16 ? nameOrUuid : uuidByNameCall(transport, nameOrUuid).send())), transport);
+        String value = new RealmsCookie(this.sessionID, this.getProfile().name(), version).toString();
+        this.cookie = token -> value;
+        this.enviornment = url;
+    }
+
+    /**
+     * Makes a new instance of RealmsAPI that asks for the access token on every request, so it can be refreshed.
+     * @param accessToken Supplies the access token from the account.
+     * @param uuid The uuid of the user.
+     * @param user The name of the user.
+     * @param version The minecraft version the user is playing on.
+     * @param enviornment The realms api URL.
+     * @see TokenManager
+     */
+    public RealmsAPI(Supplier<String> accessToken, String uuid, String user, String version, Enviornment enviornment) {
+        this(Transport.getDefault(), enviornment.url, accessToken, uuid, user, version);
+    }
+
+    /**
+     * Makes a new instance of RealmsAPI that asks for the access token on every request, so it can be refreshed.
+     * Its requests go to the realms URL of the transport, which is production unless it overrides {@link Transport.Service#REALMS}.
+     * @param accessToken Supplies the access token from the account.
+     * @param uuid The uuid of the user.
+     * @param user The name of the user.
+     * @param version The minecraft version the user is playing on.
+     * @param transport The transport requests are sent through.
+     * @see TokenManager
+     */
+    public RealmsAPI(Supplier<String> accessToken, String uuid, String user, String version, Transport transport) {
+        this(transport, transport.baseUrl(Transport.Service.REALMS), accessToken, uuid, user, version);
+    }
+
+    private RealmsAPI(Transport transport, String url, Supplier<String> accessToken, String uuid, String user, String version) {
+        super(accessToken, transport);
+        this.cookie = token -> new RealmsCookie(new SessionID(token, uuid), user, version).toString();
+        this.enviornment = url;
     }
 
-    private final String cookie;
+    /**
+     * Makes the realms cookie of an access token.
+     */
+    private final Function<String, String> cookie;
     private final String enviornment;
 
+    private String cookie() {
+        return cookie.apply(authorization.get());
+    }
+
+    /**
+     * Gets the realms cookie without blocking the caller.
+     * @see #authorizationAsync(Executor)
+     */
+    CompletableFuture<String> cookieAsync(Executor executor) {
+        return authorizationAsync(executor).thenApply(cookie);
+    }
+
+    /**
+     * Sends a call once the realms cookie is known.
+     * @param call Makes the call with the cookie.
+     */
+    private <T> CompletableFuture<T> withCookie(Executor executor, Function<String, Call<T>> call) {
+        return cookieAsync(executor).thenCompose(cookie -> call.apply(cookie).sendAsync(executor));
+    }
+
     /**
      * Whether the user can access realms.
      * @return True if the user can access realms, otherwise false.
      */
     public boolean isRealmsAvailable() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/mco/available"))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.body().equals("true");
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return realmsAvailableCall(cookie()).send();
+    }
+
+    /**
+     * Whether the user can access realms without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if the user can access realms, otherwise false.
+     */
+    public CompletableFuture<Boolean> isRealmsAvailableAsync(Executor executor) {
+        return withCookie(executor, this::realmsAvailableCall);
+    }
+
+    private Call<Boolean> realmsAvailableCall(String cookie) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/mco/available"))
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.realmsAvailable", request, response -> response.body().equals("true"));
     }
 
     /**
@@ -92,16 +221,23 @@ public class RealmsAPI extends MojangAPI {
      * @return The client compatibility.
      */
     public ClientCompatibility getClientCompatibility() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/mco/client/compatible"))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return ClientCompatibility.valueOf(response.body());
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return clientCompatibilityCall(cookie()).send();
+    }
+
+    /**
+     * Gets the realms compatibility of the client without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the client compatibility.
+     */
+    public CompletableFuture<ClientCompatibility> getClientCompatibilityAsync(Executor executor) {
+        return withCookie(executor, this::clientCompatibilityCall);
+    }
+
+    private Call<ClientCompatibility> clientCompatibilityCall(String cookie) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/mco/client/compatible"))
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.clientCompatibility", request, response -> ClientCompatibility.valueOf(response.body()));
     }
 
     /**
@@ -109,17 +245,38 @@ public class RealmsAPI extends MojangAPI {
      * @return The list of realms that the user is invited to or owns.
      */
     public List<Realm> getWorlds() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/worlds"))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            JsonArray jsonArray = JsonParser.parseString(response.body()).getAsJsonObject().getAsJsonArray("servers");
-            return jsonArray.asList().stream().map(jsonElement -> gson.fromJson(jsonElement.getAsJsonObject(), Realm.class)).toList();
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return worldsCall(cookie()).send();
+    }
+
+    /**
+     * Gets the realms the user can join without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the list of realms that the user is invited to or owns.
+     */
+    public CompletableFuture<List<Realm>> getWorldsAsync(Executor executor) {
+        return withCookie(executor, this::worldsCall);
+    }
+
+    private Call<List<Realm>> worldsCall(String cookie) {
+        return Call.json(transport, "RealmsAPI.worlds", worldsRequest(cookie), (response, reader) -> Json.list(reader, "servers", Realm.class));
+    }
+
+    /**
+     * Gets the undecoded body of the realms the user can join, so a poller can skip decoding bodies it already saw.
+     */
+    Call<byte[]> worldsBodyCall(String cookie) {
+        return new Call<>(transport, "RealmsAPI.worlds", worldsRequest(cookie), HttpResponse.BodyHandlers.ofByteArray(), response -> {
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("Could not get the realms: " + response.statusCode());
+            }
+            return response.body();
+        });
+    }
+
+    private HttpRequest worldsRequest(String cookie) {
+        return transport.request(URI.create(enviornment+"/worlds"))
+                .header("Cookie", cookie)
+                .build();
     }
 
     /**
@@ -128,16 +285,25 @@ public class RealmsAPI extends MojangAPI {
      * @return The realm.
      */
     public Realm getWorld(long id) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/worlds/"+id))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return gson.fromJson(response.body(), Realm.class);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return worldCall(cookie(), id).send();
+    }
+
+    /**
+     * Gets a realm by its ID without blocking.
+     * @param id The realm ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the realm.
+     */
+    public CompletableFuture<Realm> getWorldAsync(long id, Executor executor) {
+        return withCookie(executor, cookie -> worldCall(cookie, id));
+    }
+
+    private Call<Realm> worldCall(String cookie, long id) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/worlds/"+id))
+                .header("Cookie", cookie)
+                .build();
+        return Call.json(transport, "RealmsAPI.world", request, (response, reader) -> Json.read(reader, Realm.class))
+                .shared("world:"+enviornment+":"+cookie+":"+id);
     }
 
     /**
@@ -146,16 +312,24 @@ public class RealmsAPI extends MojangAPI {
      * @return The server object.
      */
     public Server getServerAddress(long id) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/worlds/v1/"+id+"/join/pc"))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return gson.fromJson(response.body(), Server.class);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return serverAddressCall(cookie(), id).send();
+    }
+
+    /**
+     * Gets the server address without blocking.
+     * @param id The realm ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the server object.
+     */
+    public CompletableFuture<Server> getServerAddressAsync(long id, Executor executor) {
+        return withCookie(executor, cookie -> serverAddressCall(cookie, id));
+    }
+
+    private Call<Server> serverAddressCall(String cookie, long id) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/worlds/v1/"+id+"/join/pc"))
+                .header("Cookie", cookie)
+                .build();
+        return Call.json(transport, "RealmsAPI.serverAddress", request, (response, reader) -> Json.read(reader, Server.class));
     }
 
     /**
@@ -164,17 +338,24 @@ public class RealmsAPI extends MojangAPI {
      * @return The list of backups.
      */
     public List<Backup> getBackups(long id) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/worlds/"+id+"/backups"))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            JsonArray jsonArray = JsonParser.parseString(response.body()).getAsJsonObject().getAsJsonArray("backups");
-            return jsonArray.asList().stream().map(jsonElement -> gson.fromJson(jsonElement.getAsJsonObject(), Backup.class)).toList();
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return backupsCall(cookie(), id).send();
+    }
+
+    /**
+     * Gets all the backups that the realm has without blocking.
+     * @param id The realm ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the list of backups.
+     */
+    public CompletableFuture<List<Backup>> getBackupsAsync(long id, Executor executor) {
+        return withCookie(executor, cookie -> backupsCall(cookie, id));
+    }
+
+    private Call<List<Backup>> backupsCall(String cookie, long id) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/worlds/"+id+"/backups"))
+                .header("Cookie", cookie)
+                .build();
+        return Call.json(transport, "RealmsAPI.backups", request, (response, reader) -> Json.list(reader, "backups", Backup.class));
     }
 
     /**
@@ -184,35 +365,119 @@ public class RealmsAPI extends MojangAPI {
      * @return The download of the backup.
      */
     public BackupDownload getBackupDownload(long id, @Range(from = 1, to = 4) int world) {
+        return backupDownloadCall(cookie(), id, world).send();
+    }
+
+    /**
+     * Gets the download of the latest realm world backup without blocking.
+     * @param id The realm ID.
+     * @param world The world ID. (1-4)
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the download of the backup.
+     */
+    public CompletableFuture<BackupDownload> getBackupDownloadAsync(long id, @Range(from = 1, to = 4) int world, Executor executor) {
+        return withCookie(executor, cookie -> backupDownloadCall(cookie, id, world));
+    }
+
+    private Call<BackupDownload> backupDownloadCall(String cookie, long id, int world) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/worlds/"+id+"/slot/"+world+"/download"))
+                .header("Cookie", cookie)
+                .build();
+        return Call.json(transport, "RealmsAPI.backupDownload", request, (response, reader) -> Json.read(reader, BackupDownload.class));
+    }
+
+    /**
+     * Downloads the latest realm world backup to a file.
+     * @param id The realm ID.
+     * @param world The world ID. (1-4)
+     * @param target The file the backup is written to.
+     * @return The target.
+     * @see #downloadBackup(long, int, Path, DownloadProgress)
+     */
+    public Path downloadBackup(long id, @Range(from = 1, to = 4) int world, Path target) {
+        return downloadBackup(id, world, target, null);
+    }
+
+    /**
+     * Downloads the latest realm world backup to a file, in up to four parallel range requests.
+     * The backup is streamed to {@code <target>.part} and verified before it is moved to the target.
+     * A download that was interrupted continues where it stopped when it is started again with the same target.
+     * @param id The realm ID.
+     * @param world The world ID. (1-4)
+     * @param target The file the backup is written to.
+     * @param progress Receives the progress, or null.
+     * @return The target.
+     */
+    public Path downloadBackup(long id, @Range(from = 1, to = 4) int world, Path target, @Nullable DownloadProgress progress) {
+        BackupDownload download = getBackupDownload(id, world);
+        ExecutorService executor = Executors.newFixedThreadPool(SegmentedDownload.MAX_SEGMENTS);
         try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/worlds/"+id+"/slot/"+world+"/download"))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return gson.fromJson(response.body(), BackupDownload.class);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
+            return new SegmentedDownload(transport, URI.create(download.downloadLink()), target, progress).run(executor).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdown();
         }
     }
 
+    /**
+     * Downloads the latest realm world backup to a file without blocking.
+     * @param id The realm ID.
+     * @param world The world ID. (1-4)
+     * @param target The file the backup is written to.
+     * @param progress Receives the progress, or null.
+     * @param executor The executor the segments are downloaded on, each of them blocks a thread while it streams to disk.
+     * @return A future completing with the target.
+     * @see #downloadBackup(long, int, Path, DownloadProgress)
+     */
+    public CompletableFuture<Path> downloadBackupAsync(long id, @Range(from = 1, to = 4) int world, Path target, @Nullable DownloadProgress progress, Executor executor) {
+        return getBackupDownloadAsync(id, world, executor)
+                .thenCompose(download -> new SegmentedDownload(transport, URI.create(download.downloadLink()), target, progress).run(executor));
+    }
+
     /**
      * Gets the list of operators of the realm, you must own the server.
      * @param id The realm ID.
      * @return The download of the backup.
      */
     public List<String> getOps(long id) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/ops/"+id))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            JsonArray jsonArray = JsonParser.parseString(response.body()).getAsJsonObject().getAsJsonArray("ops");
-            return jsonArray.asList().stream().map(JsonElement::getAsString).toList();
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return opsCall(cookie(), id).send();
+    }
+
+    /**
+     * Gets the list of operators of the realm without blocking, you must own the server.
+     * @param id The realm ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the download of the backup.
+     */
+    public CompletableFuture<List<String>> getOpsAsync(long id, Executor executor) {
+        return withCookie(executor, cookie -> opsCall(cookie, id));
+    }
+
+    /**
+     * Gets the uuids of the operators of the realm as a set, you must own the server.
+     * @param id The realm ID.
+     * @return The uuids of the operators, skipping operators that are not listed by uuid.
+     */
+    public UUIDSet getOpsUUIDs(long id) {
+        return UUIDSet.copyOf(getOps(id));
+    }
+
+    /**
+     * Gets the uuids of the operators of the realm as a set without blocking, you must own the server.
+     * @param id The realm ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the uuids of the operators, skipping operators that are not listed by uuid.
+     */
+    public CompletableFuture<UUIDSet> getOpsUUIDsAsync(long id, Executor executor) {
+        return getOpsAsync(id, executor).thenApply(UUIDSet::copyOf);
+    }
+
+    private Call<List<String>> opsCall(String cookie, long id) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/ops/"+id))
+                .header("Cookie", cookie)
+                .build();
+        return Call.json(transport, "RealmsAPI.ops", request, (response, reader) -> Json.list(reader, "ops", String.class));
     }
 
     /**
@@ -221,16 +486,117 @@ public class RealmsAPI extends MojangAPI {
      * @return The current subscription.
      */
     public Subscription getSubscriptions(long id) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/subscriptions/"+id))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return gson.fromJson(response.body(), Subscription.class);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
+        return subscriptionsCall(cookie(), id).send();
+    }
+
+    /**
+     * Gets the current life of a server subscription without blocking.
+     * @param id The realm ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the current subscription.
+     */
+    public CompletableFuture<Subscription> getSubscriptionsAsync(long id, Executor executor) {
+        return withCookie(executor, cookie -> subscriptionsCall(cookie, id));
+    }
+
+    private Call<Subscription> subscriptionsCall(String cookie, long id) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/subscriptions/"+id))
+                .header("Cookie", cookie)
+                .build();
+        return Call.json(transport, "RealmsAPI.subscriptions", request, (response, reader) -> Json.read(reader, Subscription.class));
+    }
+
+    /**
+     * Gets the realm, server address, backups, operators and subscription of a realm, with every request sent at once.
+     * @param id The realm ID.
+     * @return The snapshot, with the parts that could not be fetched left null.
+     */
+    public RealmSnapshot getSnapshot(long id) {
+        return getSnapshots(List.of(id), RealmSnapshot.Part.values().length).get(0);
+    }
+
+    /**
+     * Gets the realm, server address, backups, operators and subscription of a realm without blocking, with every request sent at once.
+     * @param id The realm ID.
+     * @param executor The executor the responses are processed on.
+     * @return A future completing with the snapshot, with the parts that could not be fetched left null.
+     */
+    public CompletableFuture<RealmSnapshot> getSnapshotAsync(long id, Executor executor) {
+        return getSnapshotsAsync(List.of(id), RealmSnapshot.Part.values().length, executor).thenApply(snapshots -> snapshots.get(0));
+    }
+
+    /**
+     * Gets the snapshots of many realms, sending their requests concurrently.
+     * Failed requests do not fail the others, they are reported in the {@link RealmSnapshot#failures()} of their realm.
+     * @param ids The realm IDs, duplicates are fetched once.
+     * @param maxConcurrency The most requests sent at once, over all realms.
+     * @return The snapshots, in the order of the IDs.
+     */
+    public List<RealmSnapshot> getSnapshots(Collection<Long> ids, int maxConcurrency) {
+        // The responses are decoded from blocking streams, which must not happen on the http client's threads.
+        return getSnapshotsAsync(ids, maxConcurrency, SharedExecutors.WORKERS).join();
+    }
+
+    /**
+     * Gets the snapshots of many realms without blocking, sending their requests concurrently.
+     * Failed requests do not fail the future, they are reported in the {@link RealmSnapshot#failures()} of their realm.
+     * @param ids The realm IDs, duplicates are fetched once.
+     * @param maxConcurrency The most requests sent at once, over all realms.
+     * @param executor The executor the responses are processed on.
+     * @return A future completing with the snapshots, in the order of the IDs.
+     */
+    public CompletableFuture<List<RealmSnapshot>> getSnapshotsAsync(Collection<Long> ids, int maxConcurrency, Executor executor) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be positive");
+        List<Long> realms = List.copyOf(new LinkedHashSet<>(ids));
+        RealmSnapshot.Part[] parts = RealmSnapshot.Part.values();
+        int tasks = realms.size() * parts.length;
+        // Each slot is written by one request, and read once every request completed.
+        Object[] results = new Object[tasks];
+        Throwable[] failures = new Throwable[tasks];
+
+        return Dispatcher.dispatch(tasks, maxConcurrency, index -> {
+            long id = realms.get(index / parts.length);
+            CompletableFuture<?> call;
+            try {
+                call = switch (parts[index % parts.length]) {
+                    case WORLD -> withCookie(executor, cookie -> worldCall(cookie, id));
+                    case ADDRESS -> withCookie(executor, cookie -> serverAddressCall(cookie, id));
+                    case BACKUPS -> withCookie(executor, cookie -> backupsCall(cookie, id));
+                    case OPS -> withCookie(executor, cookie -> opsCall(cookie, id));
+                    case SUBSCRIPTION -> withCookie(executor, cookie -> subscriptionsCall(cookie, id));
+                };
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            return call.whenComplete((value, throwable) -> {
+                if (throwable != null) {
+                    failures[index] = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                } else {
+                    results[index] = value;
+                }
+            });
+        }).thenApply(done -> {
+            List<RealmSnapshot> snapshots = new ArrayList<>(realms.size());
+            for (int i = 0; i < realms.size(); i++) {
+                snapshots.add(snapshot(realms.get(i), parts, results, failures, i * parts.length));
+            }
+            return Collections.unmodifiableList(snapshots);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RealmSnapshot snapshot(long id, RealmSnapshot.Part[] parts, Object[] results, Throwable[] failures, int offset) {
+        Map<RealmSnapshot.Part, Throwable> failed = new EnumMap<>(RealmSnapshot.Part.class);
+        for (int i = 0; i < parts.length; i++) {
+            if (failures[offset + i] != null) failed.put(parts[i], failures[offset + i]);
         }
+        return new RealmSnapshot(id,
+                (Realm) results[offset + RealmSnapshot.Part.WORLD.ordinal()],
+                (Server) results[offset + RealmSnapshot.Part.ADDRESS.ordinal()],
+                (List<Backup>) results[offset + RealmSnapshot.Part.BACKUPS.ordinal()],
+                (List<String>) results[offset + RealmSnapshot.Part.OPS.ordinal()],
+                (Subscription) results[offset + RealmSnapshot.Part.SUBSCRIPTION.ordinal()],
+                Collections.unmodifiableMap(failed));
     }
 
     /**
@@ -239,16 +605,24 @@ public class RealmsAPI extends MojangAPI {
      * @return The buy object.
      */
     public Buy getBuy(long id) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/mco/buy"))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return gson.fromJson(response.body(), Buy.class);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return buyCall(cookie(), id).send();
+    }
+
+    /**
+     * Displays a status message to the user without blocking, along with a link to the Mojang website.
+     * @param id The realm ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the buy object.
+     */
+    public CompletableFuture<Buy> getBuyAsync(long id, Executor executor) {
+        return withCookie(executor, cookie -> buyCall(cookie, id));
+    }
+
+    private Call<Buy> buyCall(String cookie, long id) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/mco/buy"))
+                .header("Cookie", cookie)
+                .build();
+        return Call.json(transport, "RealmsAPI.buy", request, (response, reader) -> Json.read(reader, Buy.class));
     }
 
     /**
@@ -257,16 +631,24 @@ public class RealmsAPI extends MojangAPI {
      * @return The pending invites count.
      */
     public Integer getInvitesPendingCount(long id) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/mco/buy"))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return Integer.valueOf(response.body());
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return invitesPendingCountCall(cookie(), id).send();
+    }
+
+    /**
+     * Gets the amount of invites the player currently has waiting without blocking.
+     * @param id The realm ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the pending invites count.
+     */
+    public CompletableFuture<Integer> getInvitesPendingCountAsync(long id, Executor executor) {
+        return withCookie(executor, cookie -> invitesPendingCountCall(cookie, id));
+    }
+
+    private Call<Integer> invitesPendingCountCall(String cookie, long id) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/mco/buy"))
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.invitesPendingCount", request, response -> Integer.valueOf(response.body()));
     }
 
     /**
@@ -275,17 +657,24 @@ public class RealmsAPI extends MojangAPI {
      * @return The pending invites.
      */
     public List<Invite> getInvitesPending(long id) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/mco/buy"))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            JsonArray jsonArray = JsonParser.parseString(response.body()).getAsJsonObject().getAsJsonArray("invites");
-            return jsonArray.asList().stream().map(jsonElement -> gson.fromJson(jsonElement, Invite.class)).toList();
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return invitesPendingCall(cookie(), id).send();
+    }
+
+    /**
+     * Gets the amount of invites the player currently has waiting without blocking.
+     * @param id The realm ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the pending invites.
+     */
+    public CompletableFuture<List<Invite>> getInvitesPendingAsync(long id, Executor executor) {
+        return withCookie(executor, cookie -> invitesPendingCall(cookie, id));
+    }
+
+    private Call<List<Invite>> invitesPendingCall(String cookie, long id) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/mco/buy"))
+                .header("Cookie", cookie)
+                .build();
+        return Call.json(transport, "RealmsAPI.invitesPending", request, (response, reader) -> Json.list(reader, "invites", Invite.class));
     }
 
     /**
@@ -296,16 +685,54 @@ public class RealmsAPI extends MojangAPI {
      * @return The pending invites.
      */
     public Templates getTemplates(WorldType type, int page, int pageSize) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/worlds/templates/"+type+"?page="+page+"&pageSize="+pageSize))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return gson.fromJson(response.body(), Templates.class);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return templatesCall(cookie(), type, page, pageSize).send();
+    }
+
+    /**
+     * Gets already existed maps in Realms without blocking.
+     * @param type The world type/template.
+     * @param page The page number.
+     * @param pageSize The page size.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the pending invites.
+     */
+    public CompletableFuture<Templates> getTemplatesAsync(WorldType type, int page, int pageSize, Executor executor) {
+        return withCookie(executor, cookie -> templatesCall(cookie, type, page, pageSize));
+    }
+
+    /**
+     * Gets every template of a type as a lazy stream, 10 templates per page with the next 2 pages fetched ahead.
+     * Close the stream when it is not consumed to the end, so no more pages are requested.
+     * @param type The world type/template.
+     * @return The templates, in the order of their pages.
+     * @see #streamTemplates(WorldType, int, int, Executor)
+     */
+    public Stream<Template> streamTemplates(WorldType type) {
+        return streamTemplates(type, 10, 2, SharedExecutors.WORKERS);
+    }
+
+    /**
+     * Gets every template of a type as a lazy stream. While a page is consumed the next pages are already requested,
+     * and a parallel stream processes the fetched pages while the next ones arrive.
+     * Close the stream when it is not consumed to the end, so no more pages are requested.
+     * @param type The world type/template.
+     * @param pageSize The page size.
+     * @param prefetch How many pages are requested ahead of the one being consumed, 0 to request each page when it is needed.
+     * @param executor The executor the responses are processed on.
+     * @return The templates, in the order of their pages.
+     */
+    public Stream<Template> streamTemplates(WorldType type, int pageSize, int prefetch, Executor executor) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be positive");
+        if (prefetch < 0) throw new IllegalArgumentException("prefetch must not be negative");
+        TemplatePages pages = new TemplatePages(page -> withCookie(executor, cookie -> templatesCall(cookie, type, page, pageSize)), pageSize, prefetch);
+        return StreamSupport.stream(pages, false).onClose(pages::close);
+    }
+
+    private Call<Templates> templatesCall(String cookie, WorldType type, int page, int pageSize) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/worlds/templates/"+type+"?page="+page+"&pageSize="+pageSize))
+                .header("Cookie", cookie)
+                .build();
+        return Call.json(transport, "RealmsAPI.templates", request, (response, reader) -> Json.read(reader, Templates.class));
     }
 
     /**
@@ -313,16 +740,23 @@ public class RealmsAPI extends MojangAPI {
      * @return True if you can use the free trial, false otherwise.
      */
     public boolean getTrial() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/trial"))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return Boolean.getBoolean(response.body());
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return trialCall(cookie()).send();
+    }
+
+    /**
+     * Gets the trial boolean without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if you can use the free trial, false otherwise.
+     */
+    public CompletableFuture<Boolean> getTrialAsync(Executor executor) {
+        return withCookie(executor, this::trialCall);
+    }
+
+    private Call<Boolean> trialCall(String cookie) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/trial"))
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.trial", request, response -> Boolean.getBoolean(response.body()));
     }
 
     /**
@@ -330,16 +764,23 @@ public class RealmsAPI extends MojangAPI {
      * @return The player activities.
      */
     public List<String> getActiveLivePlayerList() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/activities/liveplayerlist"))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return Arrays.stream(response.body().split("\n")).toList();
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return activeLivePlayerListCall(cookie()).send();
+    }
+
+    /**
+     * Gets player activities at the moment without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the player activities.
+     */
+    public CompletableFuture<List<String>> getActiveLivePlayerListAsync(Executor executor) {
+        return withCookie(executor, this::activeLivePlayerListCall);
+    }
+
+    private Call<List<String>> activeLivePlayerListCall(String cookie) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/activities/liveplayerlist"))
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.activeLivePlayerList", request, response -> Arrays.stream(response.body().split("\n")).toList());
     }
 
     /**
@@ -347,17 +788,24 @@ public class RealmsAPI extends MojangAPI {
      * @return True if successful, false otherwise.
      */
     public boolean agreeToTOS() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/mco/tos/agreed"))
-                    .POST(HttpRequest.BodyPublishers.noBody())
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return agreeToTOSCall(cookie()).send();
+    }
+
+    /**
+     * Agrees/Accepts the TOS without blocking.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise.
+     */
+    public CompletableFuture<Boolean> agreeToTOSAsync(Executor executor) {
+        return withCookie(executor, this::agreeToTOSCall);
+    }
+
+    private Call<Boolean> agreeToTOSCall(String cookie) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/mco/tos/agreed"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.agreeToTOS", request, Call::isSuccess);
     }
 
     /**
@@ -367,18 +815,26 @@ public class RealmsAPI extends MojangAPI {
      * @return The list of operators.
      */
     public List<String> opPlayer(long id, String uuid) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/ops/"+id+"/"+uuid))
-                    .POST(HttpRequest.BodyPublishers.noBody())
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            JsonArray jsonArray = JsonParser.parseString(response.body()).getAsJsonObject().getAsJsonArray("ops");
-            return jsonArray.asList().stream().map(JsonElement::getAsString).toList();
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return opPlayerCall(cookie(), id, uuid).send();
+    }
+
+    /**
+     * Gets player activities at the moment without blocking.
+     * @param id The world ID.
+     * @param uuid The player's uuid.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the list of operators.
+     */
+    public CompletableFuture<List<String>> opPlayerAsync(long id, String uuid, Executor executor) {
+        return withCookie(executor, cookie -> opPlayerCall(cookie, id, uuid));
+    }
+
+    private Call<List<String>> opPlayerCall(String cookie, long id, String uuid) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/ops/"+id+"/"+uuid))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .header("Cookie", cookie)
+                .build();
+        return Call.json(transport, "RealmsAPI.opPlayer", request, (response, reader) -> Json.list(reader, "ops", String.class));
     }
 
     /**
@@ -388,17 +844,26 @@ public class RealmsAPI extends MojangAPI {
      * @return The new realm.
      */
     public PrivateRealm invitePlayer(long id, PlayerInvite player) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/invites/"+id))
-                    .POST(HttpRequest.BodyPublishers.ofString(player.toJson().toString()))
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return gson.fromJson(response.body(), PrivateRealm.class);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return invitePlayerCall(cookie(), id, player).send();
+    }
+
+    /**
+     * Invites a player to the realm without blocking.
+     * @param id The world ID.
+     * @param player The player invite.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the new realm.
+     */
+    public CompletableFuture<PrivateRealm> invitePlayerAsync(long id, PlayerInvite player, Executor executor) {
+        return withCookie(executor, cookie -> invitePlayerCall(cookie, id, player));
+    }
+
+    private Call<PrivateRealm> invitePlayerCall(String cookie, long id, PlayerInvite player) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/invites/"+id))
+                .POST(HttpRequest.BodyPublishers.ofString(player.toJson().toString()))
+                .header("Cookie", cookie)
+                .build();
+        return Call.json(transport, "RealmsAPI.invitePlayer", request, (response, reader) -> Json.read(reader, PrivateRealm.class));
     }
 
     /**
@@ -408,17 +873,26 @@ public class RealmsAPI extends MojangAPI {
      * @return True if successful, false otherwise.
      */
     public boolean setWorld(long worldId, long minigameId) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/worlds/minigames/"+minigameId+"/"+worldId))
-                    .PUT(HttpRequest.BodyPublishers.noBody())
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return setWorldCall(cookie(), worldId, minigameId).send();
+    }
+
+    /**
+     * Sets world to mini-games without blocking.
+     * @param worldId The world ID.
+     * @param minigameId The mini-game ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise.
+     */
+    public CompletableFuture<Boolean> setWorldAsync(long worldId, long minigameId, Executor executor) {
+        return withCookie(executor, cookie -> setWorldCall(cookie, worldId, minigameId));
+    }
+
+    private Call<Boolean> setWorldCall(String cookie, long worldId, long minigameId) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/worlds/minigames/"+minigameId+"/"+worldId))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.setWorld", request, Call::isSuccess);
     }
 
     /**
@@ -427,17 +901,25 @@ public class RealmsAPI extends MojangAPI {
      * @return True if successful, false otherwise.
      */
     public boolean rejectInvitation(long invitationId) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/invites/reject/"+invitationId))
-                    .PUT(HttpRequest.BodyPublishers.noBody())
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return rejectInvitationCall(cookie(), invitationId).send();
+    }
+
+    /**
+     * Rejects an invitation to a realm without blocking.
+     * @param invitationId The invitation ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise.
+     */
+    public CompletableFuture<Boolean> rejectInvitationAsync(long invitationId, Executor executor) {
+        return withCookie(executor, cookie -> rejectInvitationCall(cookie, invitationId));
+    }
+
+    private Call<Boolean> rejectInvitationCall(String cookie, long invitationId) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/invites/reject/"+invitationId))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.rejectInvitation", request, Call::isSuccess);
     }
 
     /**
@@ -446,17 +928,25 @@ public class RealmsAPI extends MojangAPI {
      * @return True if successful, false otherwise.
      */
     public boolean acceptInvitation(long invitationId) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/invites/accept/"+invitationId))
-                    .PUT(HttpRequest.BodyPublishers.noBody())
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return acceptInvitationCall(cookie(), invitationId).send();
+    }
+
+    /**
+     * Accepts an invitation to a realm without blocking.
+     * @param invitationId The invitation ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise.
+     */
+    public CompletableFuture<Boolean> acceptInvitationAsync(long invitationId, Executor executor) {
+        return withCookie(executor, cookie -> acceptInvitationCall(cookie, invitationId));
+    }
+
+    private Call<Boolean> acceptInvitationCall(String cookie, long invitationId) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/invites/accept/"+invitationId))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.acceptInvitation", request, Call::isSuccess);
     }
 
     /**
@@ -466,17 +956,26 @@ public class RealmsAPI extends MojangAPI {
      * @return True if successful, false otherwise.
      */
     public boolean replaceBackup(long worldId, long backupId) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/worlds/"+worldId+"/backups?backupId="+backupId))
-                    .PUT(HttpRequest.BodyPublishers.noBody())
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return replaceBackupCall(cookie(), worldId, backupId).send();
+    }
+
+    /**
+     * Replaces the world of the realm with the specified backup without blocking.
+     * @param worldId The world ID.
+     * @param backupId The backup ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise.
+     */
+    public CompletableFuture<Boolean> replaceBackupAsync(long worldId, long backupId, Executor executor) {
+        return withCookie(executor, cookie -> replaceBackupCall(cookie, worldId, backupId));
+    }
+
+    private Call<Boolean> replaceBackupCall(String cookie, long worldId, long backupId) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/worlds/"+worldId+"/backups?backupId="+backupId))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.replaceBackup", request, Call::isSuccess);
     }
 
     /**
@@ -485,17 +984,25 @@ public class RealmsAPI extends MojangAPI {
      * @return True if successful, false otherwise.
      */
     public boolean openRealm(long worldId) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/worlds/"+worldId+"/open"))
-                    .PUT(HttpRequest.BodyPublishers.noBody())
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return openRealmCall(cookie(), worldId).send();
+    }
+
+    /**
+     * Opens the realm without blocking.
+     * @param worldId The world ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise.
+     */
+    public CompletableFuture<Boolean> openRealmAsync(long worldId, Executor executor) {
+        return withCookie(executor, cookie -> openRealmCall(cookie, worldId));
+    }
+
+    private Call<Boolean> openRealmCall(String cookie, long worldId) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/worlds/"+worldId+"/open"))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.openRealm", request, Call::isSuccess);
     }
 
     /**
@@ -504,17 +1011,25 @@ public class RealmsAPI extends MojangAPI {
      * @return True if successful, false otherwise.
      */
     public boolean closeRealm(long worldId) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/worlds/"+worldId+"/close"))
-                    .PUT(HttpRequest.BodyPublishers.noBody())
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return closeRealmCall(cookie(), worldId).send();
+    }
+
+    /**
+     * Closes the realm without blocking.
+     * @param worldId The world ID.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise.
+     */
+    public CompletableFuture<Boolean> closeRealmAsync(long worldId, Executor executor) {
+        return withCookie(executor, cookie -> closeRealmCall(cookie, worldId));
+    }
+
+    private Call<Boolean> closeRealmCall(String cookie, long worldId) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/worlds/"+worldId+"/close"))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.closeRealm", request, Call::isSuccess);
     }
 
     /**
@@ -524,17 +1039,26 @@ public class RealmsAPI extends MojangAPI {
      * @return True if successful, false otherwise.
      */
     public boolean unInvite(long worldId, String uuid) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/invites/"+worldId+"/invite/"+uuid))
-                    .DELETE()
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() == 200 || response.statusCode() == 201 || response.statusCode() == 204;
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return unInviteCall(cookie(), worldId, uuid).send();
+    }
+
+    /**
+     * Kick player from your realms even if player not accept invitation without blocking.
+     * @param worldId The world ID.
+     * @param uuid The player uuid.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with true if successful, false otherwise.
+     */
+    public CompletableFuture<Boolean> unInviteAsync(long worldId, String uuid, Executor executor) {
+        return withCookie(executor, cookie -> unInviteCall(cookie, worldId, uuid));
+    }
+
+    private Call<Boolean> unInviteCall(String cookie, long worldId, String uuid) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/invites/"+worldId+"/invite/"+uuid))
+                .DELETE()
+                .header("Cookie", cookie)
+                .build();
+        return new Call<>(transport, "RealmsAPI.unInvite", request, Call::isSuccess);
     }
 
     /**
@@ -544,18 +1068,26 @@ public class RealmsAPI extends MojangAPI {
      * @return The operators.
      */
     public List<String> deop(long worldId, String uuid) {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(enviornment+"/ops/"+worldId+"/"+uuid))
-                    .DELETE()
-                    .header("Cookie", cookie)
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            JsonArray jsonArray = JsonParser.parseString(response.body()).getAsJsonObject().getAsJsonArray("ops");
-            return jsonArray.asList().stream().map(JsonElement::getAsString).toList();
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        return deopCall(cookie(), worldId, uuid).send();
+    }
+
+    /**
+     * Remove operator status for player by uuid without blocking.
+     * @param worldId The world ID.
+     * @param uuid The player uuid.
+     * @param executor The executor the response is processed on.
+     * @return A future completing with the operators.
+     */
+    public CompletableFuture<List<String>> deopAsync(long worldId, String uuid, Executor executor) {
+        return withCookie(executor, cookie -> deopCall(cookie, worldId, uuid));
+    }
+
+    private Call<List<String>> deopCall(String cookie, long worldId, String uuid) {
+        HttpRequest request = transport.request(URI.create(enviornment+"/ops/"+worldId+"/"+uuid))
+                .DELETE()
+                .header("Cookie", cookie)
+                .build();
+        return Call.json(transport, "RealmsAPI.deop", request, (response, reader) -> Json.list(reader, "ops", String.class));
     }
 
 }
@@ -0,0 +1,485 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.realms.Realm;
+import cc.aabss.mojang.objects.realms.ServerState;
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the realms of an account with one request at a time, however many listeners there are, and reports what changed.
+ * Successive polls are diffed by {@link Realm#id()}. The poll interval drops to the minimum whenever something changed
+ * and grows towards the maximum while nothing does. A response identical to the previous one is not decoded again.
+ * <pre>{@code
+ * RealmsWatcher watcher = RealmsWatcher.builder(realmsAPI).build();
+ * AutoCloseable subscription = watcher.subscribe(event -> {
+ *     if (event instanceof RealmsWatcher.StateChanged changed) System.out.println(changed.realm().name() + " is " + changed.current());
+ * });
+ * }</pre>
+ */
+public final class RealmsWatcher implements AutoCloseable {
+
+    private final RealmsAPI api;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final double backoff;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ArrayDeque<Runnable> deliveries = new ArrayDeque<>();
+
+    private volatile Map<Long, Realm> realms = Map.of();
+    private byte @Nullable [] body;
+    private Duration interval;
+    private @Nullable ScheduledFuture<?> scheduled;
+    private boolean polling;
+    private int generation;
+    private boolean closed;
+    private boolean delivering;
+
+    private RealmsWatcher(Builder builder) {
+        this.api = builder.api;
+        this.minInterval = builder.minInterval;
+        this.maxInterval = builder.maxInterval;
+        this.backoff = builder.backoff;
+        this.scheduler = builder.scheduler != null ? builder.scheduler : SharedExecutors.SCHEDULER;
+        this.executor = builder.executor != null ? builder.executor : SharedExecutors.WORKERS;
+        this.interval = minInterval;
+    }
+
+    /**
+     * Makes a new watcher builder.
+     * @param api The RealmsAPI of the account whose realms are watched.
+     * @return The builder.
+     */
+    public static Builder builder(RealmsAPI api) {
+        return new Builder(api);
+    }
+
+    /**
+     * Adds a listener, polling starts with the first one. The listener first gets an {@link Added} event for every
+     * realm that is already known. Events are delivered one at a time and in order on the executor, never while the
+     * watcher is locked, and listeners must not block. A removed listener gets no further events.
+     * @param listener The listener.
+     * @return A handle that removes the listener when closed, polling stops once the last one is removed.
+     */
+    public AutoCloseable subscribe(Listener listener) {
+        boolean deliver;
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("The watcher is closed");
+            listeners.add(listener);
+            List<Event> added = new ArrayList<>();
+            for (Realm realm : realms.values()) {
+                added.add(new Added(realm));
+            }
+            deliver = queue(List.of(listener), added);
+            if (!polling) {
+                polling = true;
+                interval = minInterval;
+                schedule(Duration.ZERO);
+            }
+        }
+        if (deliver) startDelivery();
+        return () -> unsubscribe(listener);
+    }
+
+    private synchronized void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) stop();
+    }
+
+    /**
+     * Gets the realms of the last successful poll.
+     * @return The realms by their ID, empty before the first poll.
+     */
+    public Map<Long, Realm> realms() {
+        return realms;
+    }
+
+    /**
+     * Gets how long the watcher currently waits between two polls.
+     * @return The interval.
+     */
+    public synchronized Duration interval() {
+        return interval;
+    }
+
+    /**
+     * Stops polling and removes every listener.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        listeners.clear();
+        stop();
+    }
+
+    private void stop() {
+        polling = false;
+        // A poll still in flight must not schedule the next one.
+        generation++;
+        if (scheduled != null) scheduled.cancel(false);
+        scheduled = null;
+    }
+
+    private void schedule(Duration delay) {
+        int generation = this.generation;
+        scheduled = scheduler.schedule(() -> poll(generation), delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void poll(int generation) {
+        CompletableFuture<byte[]> response;
+        try {
+            response = api.cookieAsync(executor).thenCompose(cookie -> api.worldsBodyCall(cookie).sendAsync(executor));
+        } catch (RuntimeException e) {
+            // Thrown from the scheduler's task it would be swallowed, and no poll would ever be scheduled again.
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((body, throwable) -> {
+            boolean deliver = false;
+            synchronized (this) {
+                if (generation != this.generation) return;
+                Throwable failure = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                if (failure == null) {
+                    try {
+                        boolean first = this.body == null;
+                        List<Event> events = update(body);
+                        // The first poll only fills in what is there, which is not a change worth polling faster for.
+                        interval = !first && !events.isEmpty() ? minInterval : grow(interval);
+                        deliver = queue(listeners, events);
+                    } catch (RuntimeException e) {
+                        failure = e;
+                    }
+                }
+                if (failure != null) {
+                    Throwable error = failure;
+                    for (Listener listener : listeners) {
+                        deliver |= queue(() -> {
+                            if (!listeners.contains(listener)) return;
+                            try {
+                                listener.onError(error);
+                            } catch (RuntimeException ignored) {
+                            }
+                        });
+                    }
+                    interval = maxInterval;
+                }
+                schedule(interval);
+            }
+            if (deliver) startDelivery();
+        });
+    }
+
+    private Duration grow(Duration interval) {
+        long nanos = (long) (interval.toNanos() * backoff);
+        return nanos >= maxInterval.toNanos() ? maxInterval : Duration.ofNanos(nanos);
+    }
+
+    /**
+     * Diffs a new body against the previous one.
+     * @return The events of what changed.
+     */
+    private List<Event> update(byte[] body) {
+        if (Arrays.equals(body, this.body)) return List.of();
+        List<Realm> current;
+        try {
+            current = Json.list(new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8)), "servers", Realm.class);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        this.body = body;
+        Map<Long, Realm> previous = realms;
+        Map<Long, Realm> next = new LinkedHashMap<>();
+        for (Realm realm : current) {
+            next.put(realm.id(), realm);
+        }
+        realms = Collections.unmodifiableMap(next);
+
+        List<Event> events = new ArrayList<>();
+        for (Realm realm : next.values()) {
+            Realm before = previous.get(realm.id());
+            if (before == null) {
+                events.add(new Added(realm));
+            } else {
+                diff(before, realm, events);
+            }
+        }
+        for (Realm realm : previous.values()) {
+            if (!next.containsKey(realm.id())) events.add(new Removed(realm));
+        }
+        return events;
+    }
+
+    private static void diff(Realm before, Realm realm, List<Event> events) {
+        if (before.state() != realm.state()) {
+            events.add(new StateChanged(realm, before.state(), realm.state()));
+        }
+        List<String> joined = missing(realm.players(), before.players());
+        List<String> left = missing(before.players(), realm.players());
+        if (!joined.isEmpty() || !left.isEmpty()) {
+            events.add(new PlayersChanged(realm, joined, left));
+        }
+        if (before.activeSlot() != realm.activeSlot()) {
+            events.add(new ActiveSlotChanged(realm, before.activeSlot(), realm.activeSlot()));
+        }
+        if (before.daysLeft() != realm.daysLeft()) {
+            events.add(new DaysLeftChanged(realm, before.daysLeft(), realm.daysLeft()));
+        }
+        if (!Objects.equals(before.activeVersion(), realm.activeVersion())) {
+            events.add(new VersionChanged(realm, before.activeVersion(), realm.activeVersion()));
+        }
+    }
+
+    /**
+     * Gets the players of a list that another list does not have.
+     */
+    private static List<String> missing(@Nullable Collection<String> players, @Nullable Collection<String> others) {
+        if (players == null || players.isEmpty()) return List.of();
+        Set<String> exclude = others == null ? Set.of() : new HashSet<>(others);
+        List<String> missing = new ArrayList<>();
+        for (String player : players) {
+            if (!exclude.contains(player)) missing.add(player);
+        }
+        return missing;
+    }
+
+    /**
+     * Queues events for listeners, must be called while the watcher is locked so events keep the order they happened in.
+     * @return True if the delivery has to be started with {@link #startDelivery()} once the lock is released.
+     */
+    private boolean queue(Collection<Listener> targets, List<Event> events) {
+        boolean start = false;
+        for (Event event : events) {
+            for (Listener listener : targets) {
+                start |= queue(() -> {
+                    if (!listeners.contains(listener)) return;
+                    try {
+                        listener.onEvent(event);
+                    } catch (RuntimeException ignored) {
+                        // One broken listener must not keep the others from their events.
+                    }
+                });
+            }
+        }
+        return start;
+    }
+
+    private boolean queue(Runnable delivery) {
+        deliveries.add(delivery);
+        if (delivering) return false;
+        delivering = true;
+        return true;
+    }
+
+    private void startDelivery() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                deliveries.clear();
+                delivering = false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the queued deliveries one at a time until the queue is empty, without holding the lock while a listener runs.
+     */
+    private void drain() {
+        while (true) {
+            Runnable delivery;
+            synchronized (this) {
+                delivery = deliveries.poll();
+                if (delivery == null) {
+                    delivering = false;
+                    return;
+                }
+            }
+            delivery.run();
+        }
+    }
+
+    /**
+     * Receives the changes of the watched realms.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called for every change.
+         * @param event The change.
+         */
+        void onEvent(Event event);
+
+        /**
+         * Called when a poll failed, the next poll is sent after the maximum interval.
+         * @param throwable Why the poll failed.
+         */
+        default void onError(Throwable throwable) {}
+    }
+
+    /**
+     * A change of a realm.
+     */
+    public sealed interface Event permits Added, Removed, StateChanged, PlayersChanged, ActiveSlotChanged, DaysLeftChanged, VersionChanged {
+
+        /**
+         * Gets the realm as it is now, or as it was last seen if it was removed.
+         * @return The realm.
+         */
+        Realm realm();
+    }
+
+    /**
+     * The user can join a realm it could not join before, or the realm was seen for the first time.
+     * @param realm The realm.
+     */
+    public record Added(Realm realm) implements Event {}
+
+    /**
+     * The user can no longer join a realm.
+     * @param realm The realm as it was last seen.
+     */
+    public record Removed(Realm realm) implements Event {}
+
+    /**
+     * A realm opened, closed or otherwise changed its state.
+     * @param realm The realm.
+     * @param previous The previous state.
+     * @param current The new state.
+     */
+    public record StateChanged(Realm realm, ServerState previous, ServerState current) implements Event {}
+
+    /**
+     * Players were added to or removed from a realm.
+     * @param realm The realm.
+     * @param joined The players that were added.
+     * @param left The players that were removed.
+     */
+    public record PlayersChanged(Realm realm, List<String> joined, List<String> left) implements Event {}
+
+    /**
+     * A realm switched to another world slot.
+     * @param realm The realm.
+     * @param previous The previous slot.
+     * @param current The new slot.
+     */
+    public record ActiveSlotChanged(Realm realm, int previous, int current) implements Event {}
+
+    /**
+     * The remaining days of a realm's subscription changed.
+     * @param realm The realm.
+     * @param previous The previous amount of days.
+     * @param current The new amount of days.
+     */
+    public record DaysLeftChanged(Realm realm, int previous, int current) implements Event {}
+
+    /**
+     * A realm runs another minecraft version.
+     * @param realm The realm.
+     * @param previous The previous version.
+     * @param current The new version.
+     */
+    public record VersionChanged(Realm realm, @Nullable String previous, @Nullable String current) implements Event {}
+
+    public static final class Builder {
+
+        private final RealmsAPI api;
+        private Duration minInterval = Duration.ofSeconds(5);
+        private Duration maxInterval = Duration.ofMinutes(1);
+        private double backoff = 1.5;
+        private @Nullable ScheduledExecutorService scheduler;
+        private @Nullable Executor executor;
+
+        private Builder(RealmsAPI api) {
+            this.api = api;
+        }
+
+        /**
+         * Sets the interval used while realms are changing, defaults to 5 seconds.
+         * @param minInterval The interval.
+         * @return This builder.
+         */
+        public Builder minInterval(Duration minInterval) {
+            if (minInterval.isNegative() || minInterval.isZero()) throw new IllegalArgumentException("minInterval must be positive");
+            this.minInterval = minInterval;
+            return this;
+        }
+
+        /**
+         * Sets the interval used while nothing changes and after failed polls, defaults to 1 minute.
+         * @param maxInterval The interval.
+         * @return This builder.
+         */
+        public Builder maxInterval(Duration maxInterval) {
+            if (maxInterval.isNegative() || maxInterval.isZero()) throw new IllegalArgumentException("maxInterval must be positive");
+            this.maxInterval = maxInterval;
+            return this;
+        }
+
+        /**
+         * Sets how much the interval grows after every poll that saw no change, defaults to 1.5.
+         * @param backoff The factor, at least 1.
+         * @return This builder.
+         */
+        public Builder backoff(double backoff) {
+            if (!(backoff >= 1)) throw new IllegalArgumentException("backoff must be at least 1");
+            this.backoff = backoff;
+            return this;
+        }
+
+        /**
+         * Sets the scheduler the polls are started from, defaults to the library's shared daemon scheduler thread.
+         * @param scheduler The scheduler.
+         * @return This builder.
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Sets the executor the responses are processed and the events are delivered on, defaults to the library's shared, unbounded daemon worker pool.
+         * @param executor The executor.
+         * @return This builder.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Builds the watcher, nothing is polled until the first listener subscribes.
+         * @return The watcher.
+         */
+        public RealmsWatcher build() {
+            if (maxInterval.compareTo(minInterval) < 0) throw new IllegalArgumentException("maxInterval must not be below minInterval");
+            return new RealmsWatcher(this);
+        }
+    }
+}
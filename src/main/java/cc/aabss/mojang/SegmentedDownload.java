@@ -0,0 +1,366 @@
+package cc.aabss.mojang;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Downloads a file to disk in parallel HTTP range segments.
+ * The download is written to {@code <target>.part}, and the progress of every segment is kept in
+ * {@code <target>.part.state}, so a download that was interrupted continues where it stopped.
+ * Every range is requested with {@code If-Range}, so a file that changed on the server is downloaded again from the start
+ * instead of being pieced together from two versions. Files without an ETag or Last-Modified date are not resumed.
+ * Servers that do not support ranges are downloaded in one stream.
+ */
+final class SegmentedDownload {
+
+    static final int MAX_SEGMENTS = 4;
+    static final long MIN_SEGMENT_SIZE = 4L * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long STATE_INTERVAL = 4L * 1024 * 1024;
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes \\d+-\\d+/(\\d+)");
+
+    private final Transport transport;
+    private final URI uri;
+    private final Path target;
+    private final Path part;
+    private final Path state;
+    private final @Nullable DownloadProgress progress;
+    private final int restarts;
+    private final AtomicLong downloaded = new AtomicLong();
+    private long total = -1;
+    /**
+     * The strong ETag or Last-Modified date sent as {@code If-Range}, or {@code -} if the server gave neither.
+     */
+    private String validator = "-";
+    private volatile boolean changed;
+
+    SegmentedDownload(Transport transport, URI uri, Path target, @Nullable DownloadProgress progress) {
+        this(transport, uri, target, progress, 0);
+    }
+
+    private SegmentedDownload(Transport transport, URI uri, Path target, @Nullable DownloadProgress progress, int restarts) {
+        this.transport = transport;
+        this.uri = uri;
+        this.target = target;
+        this.part = target.resolveSibling(target.getFileName() + ".part");
+        this.state = target.resolveSibling(target.getFileName() + ".part.state");
+        this.progress = progress;
+        this.restarts = restarts;
+    }
+
+    /**
+     * Runs the download, the segments are downloaded on the executor.
+     * @return A future completing with the target once it is verified and moved into place.
+     */
+    CompletableFuture<Path> run(Executor executor) {
+        return CompletableFuture.supplyAsync(this::probe, executor).thenCompose(segments -> {
+            if (segments == null) {
+                return CompletableFuture.completedFuture(finish());
+            }
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            try {
+                FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                for (Segment segment : segments) {
+                    futures.add(CompletableFuture.runAsync(() -> download(channel, segment, segments), executor));
+                }
+                return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                        .whenComplete((ignored, throwable) -> close(channel))
+                        .thenApply(ignored -> finish())
+                        .exceptionallyCompose(throwable -> restart(throwable, executor));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Downloads the file again from the start if it changed on the server while it was downloaded.
+     * @param failure Why the download failed.
+     */
+    private CompletableFuture<Path> restart(Throwable failure, Executor executor) {
+        if (!changed || restarts + 1 >= MAX_ATTEMPTS) {
+            return CompletableFuture.failedFuture(failure);
+        }
+        try {
+            Files.deleteIfExists(state);
+            Files.deleteIfExists(part);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+            return CompletableFuture.failedFuture(failure);
+        }
+        return new SegmentedDownload(transport, uri, target, progress, restarts + 1).run(executor);
+    }
+
+    /**
+     * Finds the size of the download and plans the segments, resuming the ones of an earlier attempt.
+     * @return The segments, or null if the server does not support ranges and the download was already written in one stream.
+     */
+    @Nullable
+    private List<Segment> probe() {
+        HttpRequest request = transport.request(uri).header("Range", "bytes=0-0").build();
+        try {
+            HttpResponse<InputStream> response = transport.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() == 200) {
+                    total = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+                    stream(body);
+                    return null;
+                }
+                if (response.statusCode() != 206) {
+                    throw new IOException("Could not download " + uri.getHost() + ": " + response.statusCode());
+                }
+                Matcher matcher = CONTENT_RANGE.matcher(response.headers().firstValue("Content-Range").orElse(""));
+                if (!matcher.matches()) {
+                    throw new IOException("Invalid Content-Range of " + uri.getHost());
+                }
+                total = Long.parseLong(matcher.group(1));
+                validator = validator(response);
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            List<Segment> segments = resume();
+            if (segments == null) {
+                segments = plan();
+                Files.deleteIfExists(part);
+                writeState(segments);
+            }
+            long done = 0;
+            for (Segment segment : segments) {
+                done += segment.position - segment.start;
+            }
+            downloaded.set(done);
+            return segments;
+        } catch (IOException | InterruptedException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Picks the validator of a response. Weak ETags can not be used with {@code If-Range}.
+     * @return The validator, or {@code -} if there is none.
+     */
+    private static String validator(HttpResponse<?> response) {
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        if (etag != null && !etag.startsWith("W/")) return etag;
+        return response.headers().firstValue("Last-Modified").orElse("-");
+    }
+
+    private List<Segment> plan() {
+        int count = (int) Math.max(1, Math.min(MAX_SEGMENTS, total / MIN_SEGMENT_SIZE));
+        long size = total / count;
+        List<Segment> segments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long start = i * size;
+            long end = i == count - 1 ? total : start + size;
+            segments.add(new Segment(start, end, start));
+        }
+        return segments;
+    }
+
+    /**
+     * Reads the state of an earlier attempt at the same download.
+     * @return The segments, or null if there is no earlier attempt, the download changed since or it can not be validated.
+     */
+    @Nullable
+    private List<Segment> resume() throws IOException {
+        if (validator.equals("-")) {
+            return null;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(state, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (lines.isEmpty() || !lines.get(0).equals(total + " " + validator) || !Files.exists(part)) {
+            return null;
+        }
+        List<Segment> segments = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split(" ");
+            if (fields.length != 3) return null;
+            segments.add(new Segment(Long.parseLong(fields[0]), Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+        }
+        return segments.isEmpty() ? null : segments;
+    }
+
+    private void writeState(List<Segment> segments) throws IOException {
+        StringBuilder builder = new StringBuilder().append(total).append(' ').append(validator).append('\n');
+        synchronized (segments) {
+            for (Segment segment : segments) {
+                builder.append(segment.start).append(' ').append(segment.end).append(' ').append(segment.position).append('\n');
+            }
+            Path temporary = state.resolveSibling(state.getFileName() + ".tmp");
+            Files.writeString(temporary, builder, StandardCharsets.UTF_8);
+            Files.move(temporary, state, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Downloads the rest of a segment, sending the range again from where it stopped if the connection breaks
+     * or the response ends early. Only attempts that wrote nothing count towards the limit.
+     * A 200 response means the file changed since it was probed, which stops every segment so the download restarts.
+     */
+    private void download(FileChannel channel, Segment segment, List<Segment> segments) {
+        int attempt = 0;
+        while (segment.position < segment.end) {
+            checkUnchanged();
+            attempt++;
+            long started = segment.position;
+            HttpRequest.Builder builder = transport.request(uri)
+                    .header("Range", "bytes=" + segment.position + "-" + (segment.end - 1));
+            if (!validator.equals("-")) builder.header("If-Range", validator);
+            try {
+                HttpResponse<InputStream> response = transport.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream body = response.body()) {
+                    if (response.statusCode() == 200) {
+                        changed = true;
+                        checkUnchanged();
+                    }
+                    if (response.statusCode() != 206) {
+                        throw new IOException("Could not download range of " + uri.getHost() + ": " + response.statusCode());
+                    }
+                    long sinceState = 0;
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+                    int read;
+                    while (segment.position < segment.end && !changed
+                            && (read = body.read(buffer, 0, (int) Math.min(buffer.length, segment.end - segment.position))) >= 0) {
+                        wrapped.clear().limit(read);
+                        long position = segment.position;
+                        while (wrapped.hasRemaining()) {
+                            position += channel.write(wrapped, position);
+                        }
+                        segment.position = position;
+                        report(read);
+                        if ((sinceState += read) >= STATE_INTERVAL) {
+                            sinceState = 0;
+                            writeState(segments);
+                        }
+                    }
+                }
+                writeState(segments);
+                checkUnchanged();
+                if (segment.position < segment.end) {
+                    throw new IOException("Range of " + uri.getHost() + " ended at " + segment.position + " of " + segment.end);
+                }
+            } catch (IOException e) {
+                if (segment.position > started) {
+                    attempt = 0;
+                } else if (attempt >= MAX_ATTEMPTS) {
+                    throw new CompletionException(e);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }
+    }
+
+    private void checkUnchanged() {
+        if (changed) {
+            throw new CompletionException(new IOException(uri.getHost() + " changed the file while it was downloaded"));
+        }
+    }
+
+    private void stream(InputStream body) throws IOException {
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+            int read;
+            while ((read = body.read(buffer)) >= 0) {
+                wrapped.clear().limit(read);
+                while (wrapped.hasRemaining()) {
+                    channel.write(wrapped);
+                }
+                report(read);
+            }
+        }
+    }
+
+    private void report(int read) {
+        long done = downloaded.addAndGet(read);
+        if (progress != null) progress.progress(done, total);
+    }
+
+    /**
+     * Verifies the download and moves it to the target.
+     */
+    private Path finish() {
+        try {
+            long size = Files.size(part);
+            if (total >= 0 && size != total) {
+                throw new IOException("Downloaded " + size + " bytes of " + total);
+            }
+            verifyArchive();
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(state);
+            return target;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Checks the CRC and length of a gzip download, which world backups are.
+     */
+    private void verifyArchive() throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(part), BUFFER_SIZE)) {
+            in.mark(2);
+            if (in.read() != 0x1f || in.read() != 0x8b) return;
+            in.reset();
+            try (GZIPInputStream gzip = new GZIPInputStream(in, BUFFER_SIZE)) {
+                gzip.transferTo(OutputStream.nullOutputStream());
+            } catch (IOException e) {
+                // A corrupt part can not be resumed, start over next time.
+                Files.deleteIfExists(state);
+                throw new IOException("Downloaded archive is corrupt", e);
+            }
+        }
+    }
+
+    private static void close(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static final class Segment {
+
+        final long start;
+        final long end;
+        volatile long position;
+
+        Segment(long start, long end, long position) {
+            this.start = start;
+            this.end = end;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package cc.aabss.mojang;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The daemon threads the library's background work runs on unless other ones are given, shared by the token manager,
+ * certificate holder, realms watcher, player store and the blocking bulk calls.
+ * The scheduler thread only starts work, anything that blocks or maps a response runs on the workers,
+ * so a task of the scheduler waiting for a token refresh can never wait for itself.
+ */
+final class SharedExecutors {
+
+    /**
+     * The single thread timed work is started from, it must never block.
+     */
+    static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mojang-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final AtomicInteger WORKER_COUNT = new AtomicInteger();
+
+    /**
+     * The workers, an unbounded cached pool whose idle threads stop after a minute.
+     * It is unbounded on purpose: a task on it may wait for another task on it, such as a credential lookup waiting for
+     * a token refresh to be mapped, and a bounded pool full of such tasks would wait forever. Callers that need to
+     * bound the threads pass their own executor.
+     */
+    static final ExecutorService WORKERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "mojang-worker-" + WORKER_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SharedExecutors() {}
+}
@@ -0,0 +1,210 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.mojang.Property;
+import cc.aabss.mojang.objects.mojang.PublicPlayerProfile;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Verifies signatures made by Mojang, with the keys of {@link MojangAPI#getPublicKeys()} decoded once.
+ * Profile properties are checked against the {@code profilePropertyKeys} and player keys against
+ * the {@code playerCertificateKeys}. Every thread reuses its own {@link Signature}.
+ */
+public final class SignatureVerifier {
+
+    private static final ThreadLocal<Signature> SIGNATURE = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance("SHA1withRSA");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Transport transport;
+    private volatile Keys keys = Keys.of(Map.of());
+
+    /**
+     * Makes a new verifier that rejects every signature until {@link #refresh(Executor)} is called.
+     * @param transport The transport the public keys are fetched through.
+     */
+    public SignatureVerifier(Transport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Makes a new verifier of already fetched public keys.
+     * @param publicKeys The base64 public keys by their kind, as returned by {@link MojangAPI#getPublicKeys()}.
+     * @return The verifier.
+     */
+    public static SignatureVerifier of(Map<String, List<String>> publicKeys) {
+        SignatureVerifier verifier = new SignatureVerifier(Transport.getDefault());
+        verifier.keys = Keys.of(publicKeys);
+        return verifier;
+    }
+
+    /**
+     * Fetches the public keys again, the previous keys are used until the new ones are in.
+     * @param executor The executor the response is processed on.
+     * @return A future completing once the new keys are used.
+     */
+    public CompletableFuture<Void> refresh(Executor executor) {
+        return MojangAPI.publicKeysCall(transport).sendAsync(executor)
+                .thenAccept(publicKeys -> this.keys = Keys.of(publicKeys));
+    }
+
+    /**
+     * Fetches the public keys now and then every interval, failed fetches keep the previous keys.
+     * @param scheduler The scheduler the fetches are started and processed on.
+     * @param interval The time between two fetches.
+     * @return The scheduled task, cancel it to stop refreshing.
+     */
+    public ScheduledFuture<?> scheduleRefresh(ScheduledExecutorService scheduler, Duration interval) {
+        return scheduler.scheduleWithFixedDelay(() -> refresh(scheduler), 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Whether a property, like the textures of a profile, is signed by Mojang.
+     * @param property The property.
+     * @return True if it has a valid signature, otherwise false.
+     */
+    public boolean verify(Property property) {
+        if (property.signature() == null || property.value() == null) return false;
+        byte[] signature;
+        try {
+            signature = Base64.getDecoder().decode(property.signature());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return verify(keys.profileProperty, property.value().getBytes(StandardCharsets.US_ASCII), signature);
+    }
+
+    /**
+     * Whether every property of a profile is signed by Mojang, the profile must be fetched signed.
+     * @param profile The profile.
+     * @return True if it has properties and all of them have a valid signature, otherwise false.
+     * @see MojangAPI#getProfile(String, boolean)
+     */
+    public boolean verify(PublicPlayerProfile profile) {
+        if (profile.properties() == null || profile.properties().isEmpty()) return false;
+        for (Property property : profile.properties()) {
+            if (!verify(property)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks the signatures of many properties in parallel, on the common fork join pool.
+     * @param properties The properties.
+     * @return Whether each property has a valid signature, in the same order.
+     */
+    public boolean[] verifyAll(List<Property> properties) {
+        boolean[] valid = new boolean[properties.size()];
+        IntStream.range(0, valid.length).parallel().forEach(i -> valid[i] = verify(properties.get(i)));
+        return valid;
+    }
+
+    /**
+     * Whether a player's chat key is signed by Mojang, which is the {@code publicKeySignatureV2} of its certificates.
+     * The signed data is the uuid of the player, the expiry in milliseconds and the encoded public key.
+     * @param uuid The uuid of the player, with or without dashes.
+     * @param expiresAt When the key expires.
+     * @param publicKey The public key of the player.
+     * @param signature The signature.
+     * @return True if the signature is valid and the key did not expire, otherwise false.
+     */
+    public boolean verifyPlayerKey(String uuid, Instant expiresAt, PublicKey publicKey, byte[] signature) {
+        if (!Instant.now().isBefore(expiresAt)) return false;
+        String hex = uuid.replace("-", "");
+        if (hex.length() != 32) return false;
+        byte[] encoded = publicKey.getEncoded();
+        ByteBuffer data = ByteBuffer.allocate(24 + encoded.length);
+        try {
+            data.putLong(Long.parseUnsignedLong(hex, 0, 16, 16)).putLong(Long.parseUnsignedLong(hex, 16, 32, 16));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        data.putLong(expiresAt.toEpochMilli()).put(encoded);
+        return verify(keys.playerCertificate, data.array(), signature);
+    }
+
+    /**
+     * Whether the chat key of an account is signed by Mojang.
+     * @param uuid The uuid of the player the certificates belong to.
+     * @param certificates The certificates.
+     * @return True if the signature is valid and the key did not expire, otherwise false.
+     */
+    public boolean verifyPlayerKey(String uuid, CertificateHolder.Keys certificates) {
+        return verifyPlayerKey(uuid, certificates.expiresAt(), certificates.publicKey(), certificates.publicKeySignatureV2());
+    }
+
+    private static boolean verify(KeySet keys, byte[] data, byte[] signature) {
+        Signature verifier = SIGNATURE.get();
+        PublicKey[] candidates = keys.keys;
+        // Start with the key that matched last, which is almost always the one that matches.
+        int first = keys.last;
+        for (int i = 0; i < candidates.length; i++) {
+            int index = (first + i) % candidates.length;
+            try {
+                verifier.initVerify(candidates[index]);
+                verifier.update(data);
+                if (verifier.verify(signature)) {
+                    if (index != first) keys.last = index;
+                    return true;
+                }
+            } catch (GeneralSecurityException ignored) {
+                // A malformed signature is not valid for any key.
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private record Keys(KeySet profileProperty, KeySet playerCertificate) {
+
+        static Keys of(Map<String, List<String>> publicKeys) {
+            return new Keys(KeySet.of(publicKeys.getOrDefault("profilePropertyKeys", List.of())),
+                    KeySet.of(publicKeys.getOrDefault("playerCertificateKeys", List.of())));
+        }
+    }
+
+    private static final class KeySet {
+
+        final PublicKey[] keys;
+        volatile int last;
+
+        private KeySet(PublicKey[] keys) {
+            this.keys = keys;
+        }
+
+        static KeySet of(List<String> keys) {
+            try {
+                KeyFactory factory = KeyFactory.getInstance("RSA");
+                PublicKey[] decoded = new PublicKey[keys.size()];
+                for (int i = 0; i < decoded.length; i++) {
+                    decoded[i] = factory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(keys.get(i))));
+                }
+                return new KeySet(decoded);
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.realms.Template;
+import cc.aabss.mojang.objects.realms.Templates;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Walks every page of a paginated template listing, requesting the next pages while the current one is consumed.
+ * Splitting hands out whole pages that were already fetched, so a parallel stream processes them while this
+ * spliterator waits for the next one.
+ */
+final class TemplatePages implements Spliterator<Template> {
+
+    private final IntFunction<CompletableFuture<Templates>> fetch;
+    private final int pageSize;
+    private final int prefetch;
+    private final ArrayDeque<CompletableFuture<Templates>> ahead = new ArrayDeque<>();
+
+    private int nextPage = 1;
+    private int lastPage = -1;
+    private List<Template> current = List.of();
+    private int index;
+    private boolean done;
+
+    /**
+     * @param fetch Requests a page, starting at 1.
+     * @param pageSize The amount of templates per page.
+     * @param prefetch How many pages are requested ahead of the one being consumed.
+     */
+    TemplatePages(IntFunction<CompletableFuture<Templates>> fetch, int pageSize, int prefetch) {
+        this.fetch = fetch;
+        this.pageSize = pageSize;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Template> action) {
+        while (index >= current.size()) {
+            if (!advancePage()) return false;
+        }
+        action.accept(current.get(index++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Template> action) {
+        do {
+            while (index < current.size()) {
+                action.accept(current.get(index++));
+            }
+        } while (advancePage());
+    }
+
+    @Override
+    public Spliterator<Template> trySplit() {
+        if (index >= current.size() && !advancePage()) return null;
+        List<Template> page = current.subList(index, current.size());
+        current = List.of();
+        index = 0;
+        return Spliterators.spliterator(page, ORDERED | NONNULL);
+    }
+
+    @Override
+    public long estimateSize() {
+        // A known size would stop a parallel stream from splitting off the pages that are still to come.
+        return done || (lastPage >= 0 && nextPage > lastPage && ahead.isEmpty()) ? current.size() - index : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * Stops requesting pages, the responses of pages already requested are ignored.
+     */
+    void close() {
+        done = true;
+        CompletableFuture<Templates> page;
+        while ((page = ahead.poll()) != null) {
+            page.cancel(false);
+        }
+    }
+
+    /**
+     * Waits for the next page and makes it the current one.
+     * @return False if there are no more templates.
+     */
+    private boolean advancePage() {
+        request(1);
+        CompletableFuture<Templates> next = ahead.poll();
+        if (next == null) return false;
+        Templates page;
+        try {
+            page = next.join();
+        } catch (CompletionException e) {
+            close();
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        }
+        if (lastPage < 0) {
+            lastPage = (int) Math.min(Integer.MAX_VALUE, (page.total() + (long) pageSize - 1) / pageSize);
+        }
+        List<Template> templates = page.templates() == null ? List.of() : page.templates();
+        if (templates.isEmpty()) {
+            // The listing shrank since its total was read.
+            close();
+            return false;
+        }
+        current = templates;
+        index = 0;
+        request(prefetch);
+        return true;
+    }
+
+    /**
+     * Requests pages until the given amount is in flight, only the first page is requested before the total is known.
+     */
+    private void request(int depth) {
+        while (!done && ahead.size() < depth && (nextPage == 1 || nextPage <= lastPage)) {
+            ahead.add(fetch.apply(nextPage++));
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.mojang.Texture;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * A cache of the skin and cape images on {@code textures.minecraft.net}, stored on disk under the hash in their URL.
+ * Texture URLs never change their content, so a texture is only downloaded once and then read from disk
+ * through a memory mapping. The most recently used textures are also kept mapped in memory,
+ * and concurrent requests for the same texture share one download.
+ */
+public final class TextureCache {
+
+    private final Transport transport;
+    private final Path directory;
+    private final long maximumDiskSize;
+    private final int maximumSize;
+    private final LinkedHashMap<String, ByteBuffer> memory;
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskSize;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder downloads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private TextureCache(Builder builder) throws IOException {
+        this.transport = builder.transport;
+        this.directory = builder.directory;
+        this.maximumDiskSize = builder.maximumDiskSize;
+        this.maximumSize = builder.maximumSize;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ByteBuffer> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        Files.createDirectories(directory);
+        index();
+    }
+
+    /**
+     * Makes a new cache builder.
+     * @param directory The directory the textures are stored in.
+     * @return The builder.
+     */
+    public static Builder builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    /**
+     * Gets the image of a texture, downloading it if it is not cached.
+     * @param texture The texture.
+     * @return The PNG bytes, as a read-only buffer.
+     */
+    public ByteBuffer get(Texture texture) {
+        return get(texture.url());
+    }
+
+    /**
+     * Gets the image of a texture, downloading it if it is not cached.
+     * @param url The URL of the texture.
+     * @return The PNG bytes, as a read-only buffer.
+     */
+    public ByteBuffer get(String url) {
+        String hash = hash(url);
+        ByteBuffer cached = cached(hash);
+        return cached != null ? cached : downloadCall(url, hash).send();
+    }
+
+    /**
+     * Gets the image of a texture without blocking, downloading it if it is not cached.
+     * @param texture The texture.
+     * @param executor The executor the download is stored on.
+     * @return A future completing with the PNG bytes, as a read-only buffer.
+     */
+    public CompletableFuture<ByteBuffer> getAsync(Texture texture, Executor executor) {
+        return getAsync(texture.url(), executor);
+    }
+
+    /**
+     * Gets the image of a texture without blocking, downloading it if it is not cached.
+     * @param url The URL of the texture.
+     * @param executor The executor the download is stored on.
+     * @return A future completing with the PNG bytes, as a read-only buffer.
+     */
+    public CompletableFuture<ByteBuffer> getAsync(String url, Executor executor) {
+        String hash;
+        ByteBuffer cached;
+        try {
+            hash = hash(url);
+            cached = cached(hash);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return cached != null ? CompletableFuture.completedFuture(cached) : downloadCall(url, hash).sendAsync(executor);
+    }
+
+    /**
+     * Whether a texture is stored on disk.
+     * @param url The URL of the texture.
+     * @return True if it is stored, otherwise false.
+     */
+    public boolean contains(String url) {
+        String hash = hash(url);
+        synchronized (this) {
+            return disk.containsKey(hash);
+        }
+    }
+
+    /**
+     * Gets the amount of textures stored on disk.
+     * @return The size of the cache.
+     */
+    public synchronized int size() {
+        return disk.size();
+    }
+
+    /**
+     * Gets the amount of bytes stored on disk.
+     * @return The size of the cache in bytes.
+     */
+    public synchronized long diskSize() {
+        return diskSize;
+    }
+
+    /**
+     * Gets the hit and miss statistics of the cache.
+     * @return The statistics.
+     */
+    public Stats stats() {
+        return new Stats(memoryHits.sum(), diskHits.sum(), downloads.sum(), evictions.sum());
+    }
+
+    /**
+     * Gets the hash a texture is stored under, which is the last segment of its URL.
+     * @throws IllegalArgumentException If the URL does not end with a hexadecimal hash.
+     */
+    static String hash(String url) {
+        String hash = url.substring(url.lastIndexOf('/') + 1);
+        if (hash.isEmpty() || hash.length() > 128) throw new IllegalArgumentException("Not a texture URL: " + url);
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) throw new IllegalArgumentException("Not a texture URL: " + url);
+        }
+        return hash;
+    }
+
+    @Nullable
+    private ByteBuffer cached(String hash) {
+        synchronized (this) {
+            ByteBuffer buffer = memory.get(hash);
+            if (buffer != null) {
+                // Touch the disk entry too, or the textures used most would be the first evicted from disk.
+                disk.get(hash);
+                memoryHits.increment();
+                FlightEvents.cacheLookup("TextureCache", hash, "hit");
+                return buffer.asReadOnlyBuffer();
+            }
+            if (disk.get(hash) == null) {
+                FlightEvents.cacheLookup("TextureCache", hash, "miss");
+                return null;
+            }
+        }
+        try {
+            ByteBuffer buffer = map(path(hash));
+            diskHits.increment();
+            FlightEvents.cacheLookup("TextureCache", hash, "diskHit");
+            synchronized (this) {
+                memory.put(hash, buffer);
+            }
+            return buffer.asReadOnlyBuffer();
+        } catch (IOException e) {
+            // Removed from under us, download it again.
+            FlightEvents.cacheLookup("TextureCache", hash, "miss");
+            synchronized (this) {
+                Long size = disk.remove(hash);
+                if (size != null) diskSize -= size;
+            }
+            return null;
+        }
+    }
+
+    private Call<ByteBuffer> downloadCall(String url, String hash) {
+        Path target = path(hash);
+        try {
+            Files.createDirectories(target.getParent());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        Path temporary = target.resolveSibling(hash + "." + Thread.currentThread().getId() + "." + System.nanoTime() + ".tmp");
+        HttpRequest request = transport.request(URI.create(url)).build();
+        return new Call<>(transport, "TextureCache.download", request, HttpResponse.BodyHandlers.ofFile(temporary), response -> {
+            try {
+                if (response.statusCode() != 200) {
+                    throw new RuntimeException("Could not download texture " + url + ": " + response.statusCode());
+                }
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                ByteBuffer buffer = map(target);
+                downloads.increment();
+                store(hash, buffer);
+                return buffer.asReadOnlyBuffer();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                }
+            }
+        }).shared("texture:" + directory + ":" + hash);
+    }
+
+    private Path path(String hash) {
+        // Two levels, so no single directory holds every texture.
+        return directory.resolve(hash.substring(0, Math.min(2, hash.length()))).resolve(hash + ".png");
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private void store(String hash, ByteBuffer buffer) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            memory.put(hash, buffer);
+            Long previous = disk.put(hash, (long) buffer.capacity());
+            diskSize += buffer.capacity() - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<String, Long>> iterator = disk.entrySet().iterator();
+            while (diskSize > maximumDiskSize && iterator.hasNext()) {
+                Map.Entry<String, Long> eldest = iterator.next();
+                if (eldest.getKey().equals(hash)) continue;
+                iterator.remove();
+                memory.remove(eldest.getKey());
+                diskSize -= eldest.getValue();
+                evicted.add(eldest.getKey());
+            }
+        }
+        for (String key : evicted) {
+            evictions.increment();
+            try {
+                Files.deleteIfExists(path(key));
+            } catch (IOException ignored) {
+                // Still mapped on platforms that do not allow deleting mapped files, it is overwritten if downloaded again.
+            }
+        }
+    }
+
+    /**
+     * Reads the textures already on disk, least recently modified first, so they are evicted first.
+     */
+    private void index() throws IOException {
+        record Stored(String hash, long size, long modified) {}
+        List<Stored> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(directory, 2)) {
+            for (Iterator<Path> iterator = paths.iterator(); iterator.hasNext(); ) {
+                Path path = iterator.next();
+                String name = path.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(path);
+                } else if (name.endsWith(".png")) {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    files.add(new Stored(name.substring(0, name.length() - 4), attributes.size(), attributes.lastModifiedTime().toMillis()));
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(Stored::modified));
+        synchronized (this) {
+            for (Stored file : files) {
+                disk.put(file.hash, file.size);
+                diskSize += file.size;
+            }
+        }
+    }
+
+    /**
+     * The statistics of a cache.
+     * @param memoryHitCount The amount of textures answered from memory.
+     * @param diskHitCount The amount of textures answered from disk.
+     * @param downloadCount The amount of textures that had to be downloaded.
+     * @param evictionCount The amount of textures removed from disk to stay within the maximum disk size.
+     */
+    public record Stats(long memoryHitCount, long diskHitCount, long downloadCount, long evictionCount) {
+
+        /**
+         * Gets the amount of lookups, concurrent lookups sharing a download are counted once.
+         * @return The request count.
+         */
+        public long requestCount() {
+            return memoryHitCount + diskHitCount + downloadCount;
+        }
+
+        /**
+         * Gets the share of lookups answered without downloading.
+         * @return The hit rate, between 0 and 1.
+         */
+        public double hitRate() {
+            long requests = requestCount();
+            return requests == 0 ? 1 : (double) (memoryHitCount + diskHitCount) / requests;
+        }
+    }
+
+    public static final class Builder {
+
+        private final Path directory;
+        private Transport transport = Transport.getDefault();
+        private long maximumDiskSize = 256L * 1024 * 1024;
+        private int maximumSize = 1024;
+
+        private Builder(Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Sets the transport textures are downloaded through, defaults to {@link Transport#getDefault()}.
+         * @param transport The transport.
+         * @return This builder.
+         */
+        public Builder transport(Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Sets how many bytes of textures are kept on disk, the least recently used are removed first. Defaults to 256 MiB.
+         * @param maximumDiskSize The maximum size in bytes.
+         * @return This builder.
+         */
+        public Builder maximumDiskSize(long maximumDiskSize) {
+            if (maximumDiskSize < 1) throw new IllegalArgumentException("maximumDiskSize must be positive");
+            this.maximumDiskSize = maximumDiskSize;
+            return this;
+        }
+
+        /**
+         * Sets how many textures are kept mapped in memory, the least recently used are unmapped first. Defaults to 1,024.
+         * @param maximumSize The maximum size.
+         * @return This builder.
+         */
+        public Builder maximumSize(int maximumSize) {
+            if (maximumSize < 1) throw new IllegalArgumentException("maximumSize must be positive");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Builds the cache, reading the textures already in its directory.
+         * @return The cache.
+         */
+        public TextureCache build() {
+            try {
+                return new TextureCache(this);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
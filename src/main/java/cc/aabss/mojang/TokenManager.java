@@ -0,0 +1,280 @@
+package cc.aabss.mojang;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the Minecraft access token of an account valid.
+ * The Xbox Live, XSTS and Minecraft tokens of the login are cached until they expire, so a new Minecraft token
+ * only needs the steps whose tokens expired, and it is fetched in the background before the current one expires.
+ * The manager is a token supplier, so it can be given to {@link MojangAPI#MojangAPI(Supplier)}
+ * and {@link RealmsAPI#RealmsAPI(Supplier, String, String, String, cc.aabss.mojang.objects.realms.Enviornment)}.
+ */
+public final class TokenManager implements Supplier<String>, AutoCloseable {
+
+    /**
+     * Tokens expiring within this margin are not used anymore, so they do not expire in flight.
+     */
+    private static final Duration MARGIN = Duration.ofMinutes(1);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final Authenticator authenticator;
+    private final Supplier<String> microsoftToken;
+    private final Duration refreshAhead;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+
+    private @Nullable Authenticator.Token xbl;
+    private @Nullable Authenticator.Token xsts;
+    private volatile @Nullable Authenticator.Token minecraft;
+    private @Nullable CompletableFuture<String> refreshing;
+    private @Nullable ScheduledFuture<?> scheduled;
+    private boolean closed;
+
+    private TokenManager(Builder builder) {
+        this.authenticator = new Authenticator(builder.transport);
+        this.microsoftToken = builder.microsoftToken;
+        this.refreshAhead = builder.refreshAhead;
+        this.scheduler = builder.scheduler != null ? builder.scheduler : SharedExecutors.SCHEDULER;
+        this.executor = builder.executor != null ? builder.executor : SharedExecutors.WORKERS;
+    }
+
+    /**
+     * Makes a new token manager builder.
+     * @param microsoftToken Supplies the Microsoft OAuth2 access token, it is only asked for when the Xbox Live token expired.
+     * @return The builder.
+     */
+    public static Builder builder(Supplier<String> microsoftToken) {
+        return new Builder(microsoftToken);
+    }
+
+    /**
+     * Gets a valid Minecraft access token, logging in first if the cached one expired.
+     * @return The Minecraft access token.
+     */
+    @Override
+    public String get() {
+        return token();
+    }
+
+    /**
+     * Gets a valid Minecraft access token, logging in first if the cached one expired.
+     * @return The Minecraft access token.
+     */
+    public String token() {
+        Authenticator.Token token = minecraft;
+        if (isValid(token)) {
+            return token.value();
+        }
+        try {
+            // Not run on the http client's threads, the responses are read from blocking streams,
+            // nor on the scheduler, which may be the thread waiting here.
+            return refresh(executor).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Gets a valid Minecraft access token without blocking, logging in first if the cached one expired.
+     * @param executor The executor the responses are processed on.
+     * @return A future completing with the Minecraft access token.
+     */
+    public CompletableFuture<String> tokenAsync(Executor executor) {
+        Authenticator.Token token = minecraft;
+        if (isValid(token)) {
+            return CompletableFuture.completedFuture(token.value());
+        }
+        return refresh(executor);
+    }
+
+    /**
+     * Gets when the cached Minecraft access token expires.
+     * @return The expiry, or null if no token is cached.
+     */
+    @Nullable
+    public Instant expiresAt() {
+        Authenticator.Token token = minecraft;
+        return token == null ? null : token.expiresAt();
+    }
+
+    /**
+     * Drops the cached Minecraft access token, for example after it was rejected, so the next one is fetched again.
+     * The Xbox Live and XSTS tokens are kept.
+     */
+    public void invalidate() {
+        minecraft = null;
+    }
+
+    /**
+     * Stops refreshing the token in the background.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (scheduled != null) scheduled.cancel(false);
+    }
+
+    private static boolean isValid(@Nullable Authenticator.Token token) {
+        return token != null && Instant.now().plus(MARGIN).isBefore(token.expiresAt());
+    }
+
+    /**
+     * Fetches a new Minecraft token, redoing only the steps whose tokens expired.
+     * Concurrent callers share one refresh.
+     */
+    private synchronized CompletableFuture<String> refresh(Executor executor) {
+        if (refreshing != null) {
+            return refreshing.copy();
+        }
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        refreshing = flight;
+        xstsToken(executor)
+                .thenCompose(xsts -> FlightEvents.stageAsync("minecraft", () -> authenticator.minecraft(xsts).sendAsync(executor)).whenComplete((minecraft, throwable) -> {
+                    // A rejected XSTS token is fetched again next time.
+                    if (throwable != null) dropXsts(xsts);
+                }))
+                .whenComplete((token, throwable) -> {
+                    synchronized (this) {
+                        if (refreshing == flight) refreshing = null;
+                        if (token != null) {
+                            minecraft = token;
+                            schedule(token.expiresAt().minus(refreshAhead));
+                        }
+                    }
+                    if (throwable != null) {
+                        flight.completeExceptionally(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+                    } else {
+                        flight.complete(token.value());
+                    }
+                });
+        return flight.copy();
+    }
+
+    private synchronized CompletableFuture<Authenticator.Token> xstsToken(Executor executor) {
+        if (isValid(xsts)) {
+            FlightEvents.cachedStage("xboxLive");
+            FlightEvents.cachedStage("xsts");
+            return CompletableFuture.completedFuture(xsts);
+        }
+        CompletableFuture<Authenticator.Token> xbl;
+        if (isValid(this.xbl)) {
+            FlightEvents.cachedStage("xboxLive");
+            xbl = CompletableFuture.completedFuture(this.xbl);
+        } else {
+            xbl = CompletableFuture.supplyAsync(microsoftToken, executor)
+                    .thenCompose(accessToken -> FlightEvents.stageAsync("xboxLive", () -> authenticator.xboxLive(accessToken).sendAsync(executor)))
+                    .thenApply(this::storeXbl);
+        }
+        return xbl.thenCompose(token -> FlightEvents.stageAsync("xsts", () -> authenticator.xsts(token).sendAsync(executor)).whenComplete((xsts, throwable) -> {
+            if (throwable != null) dropXbl(token);
+        })).thenApply(this::storeXsts);
+    }
+
+    private synchronized Authenticator.Token storeXbl(Authenticator.Token token) {
+        return xbl = token;
+    }
+
+    private synchronized Authenticator.Token storeXsts(Authenticator.Token token) {
+        return xsts = token;
+    }
+
+    private synchronized void dropXbl(Authenticator.Token token) {
+        if (xbl == token) xbl = null;
+    }
+
+    private synchronized void dropXsts(Authenticator.Token token) {
+        if (xsts == token) xsts = null;
+    }
+
+    /**
+     * Schedules the next background refresh, replacing the one scheduled before.
+     */
+    private void schedule(Instant at) {
+        if (closed) return;
+        if (scheduled != null) scheduled.cancel(false);
+        long delay = Math.max(0, Duration.between(Instant.now(), at).toMillis());
+        scheduled = scheduler.schedule(() -> refresh(executor).whenComplete((token, throwable) -> {
+            // Keep trying while the current token is still usable, after that callers refresh it themselves.
+            if (throwable != null && isValid(minecraft)) {
+                synchronized (this) {
+                    schedule(Instant.now().plus(RETRY_DELAY));
+                }
+            }
+        }), delay, TimeUnit.MILLISECONDS);
+    }
+
+    public static final class Builder {
+
+        private final Supplier<String> microsoftToken;
+        private Transport transport = Transport.getDefault();
+        private Duration refreshAhead = Duration.ofMinutes(5);
+        private @Nullable ScheduledExecutorService scheduler;
+        private @Nullable Executor executor;
+
+        private Builder(Supplier<String> microsoftToken) {
+            this.microsoftToken = microsoftToken;
+        }
+
+        /**
+         * Sets the transport the login requests are sent through, defaults to {@link Transport#getDefault()}.
+         * @param transport The transport.
+         * @return This builder.
+         */
+        public Builder transport(Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Sets how long before the Minecraft token expires a new one is fetched in the background, defaults to 5 minutes.
+         * @param refreshAhead The time before the expiry.
+         * @return This builder.
+         */
+        public Builder refreshAhead(Duration refreshAhead) {
+            if (refreshAhead.isNegative()) throw new IllegalArgumentException("refreshAhead must not be negative");
+            this.refreshAhead = refreshAhead;
+            return this;
+        }
+
+        /**
+         * Sets the scheduler the background refreshes are started from, defaults to the library's shared daemon scheduler thread.
+         * Nothing runs or waits on it for longer than it takes to start a refresh.
+         * @param scheduler The scheduler.
+         * @return This builder.
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Sets the executor the responses of background and blocking refreshes are processed on,
+         * defaults to the library's shared, unbounded daemon worker pool. {@link #token()} waits for a refresh on it,
+         * so a bounded executor must not call {@link #token()} from its own threads.
+         * @param executor The executor.
+         * @return This builder.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Builds the token manager, no token is fetched until one is asked for.
+         * @return The token manager.
+         */
+        public TokenManager build() {
+            return new TokenManager(this);
+        }
+    }
+}
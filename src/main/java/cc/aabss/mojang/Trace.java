@@ -0,0 +1,169 @@
+package cc.aabss.mojang;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * Collects the timings and sizes of one call while it is sent, only made when the transport has a {@link MetricsListener}
+ * or a flight recording has the exchange event enabled.
+ */
+final class Trace {
+
+    private final @Nullable MetricsListener listener;
+    private final @Nullable FlightEvents.Exchange event;
+    private final String endpoint;
+    private final String host;
+    private final long requestBytes;
+
+    volatile long queueNanos;
+    volatile long networkNanos;
+    volatile long responseBytes;
+    volatile int retries;
+    volatile int statusCode = -1;
+
+    private volatile long receivedAt;
+    private volatile boolean bodyReceived;
+    private volatile long bodyStart;
+    private volatile long bodyEnd;
+    private volatile boolean mapped;
+    private volatile long mapStart;
+    private volatile long mapEnd;
+
+    Trace(@Nullable MetricsListener listener, @Nullable FlightEvents.Exchange event, String endpoint, HttpRequest request) {
+        this.listener = listener;
+        this.event = event;
+        this.endpoint = endpoint;
+        this.host = request.uri().getHost();
+        this.requestBytes = request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(0L);
+    }
+
+    /**
+     * Wraps a body handler so the received body bytes are counted and the time they arrived in is recorded.
+     */
+    <B> HttpResponse.BodyHandler<B> count(HttpResponse.BodyHandler<B> handler) {
+        return info -> {
+            statusCode = info.statusCode();
+            return new Counting<>(handler.apply(info));
+        };
+    }
+
+    /**
+     * Records that the response headers of an attempt were received.
+     * @param sent When the attempt was sent, in {@link System#nanoTime()}.
+     */
+    void received(long sent) {
+        long now = System.nanoTime();
+        networkNanos += now - sent;
+        receivedAt = now;
+    }
+
+    <B, T> T map(Function<HttpResponse<B>, T> mapper, HttpResponse<B> response) {
+        mapStart = System.nanoTime();
+        try {
+            return mapper.apply(response);
+        } finally {
+            mapEnd = System.nanoTime();
+            mapped = true;
+        }
+    }
+
+    void finish(@Nullable Throwable failure) {
+        if (failure instanceof CompletionException && failure.getCause() != null) failure = failure.getCause();
+        // A body handler that buffers the body receives it before the response, inside the network time. A streamed
+        // body arrives while it is mapped, so the time between its first and last bytes is waiting, not decoding.
+        long bodyNanos = 0;
+        long decodeNanos = mapped ? mapEnd - mapStart : 0;
+        if (bodyReceived) {
+            long from = Math.max(bodyStart, receivedAt);
+            bodyNanos = Math.max(0, bodyEnd - from);
+            if (mapped) {
+                decodeNanos -= Math.max(0, Math.min(bodyEnd, mapEnd) - Math.max(from, mapStart));
+            }
+        }
+        if (event != null) {
+            event.endpoint = endpoint;
+            event.host = host;
+            event.statusCode = statusCode;
+            event.requestBytes = requestBytes;
+            event.responseBytes = responseBytes;
+            event.retries = retries;
+            event.queueTime = queueNanos;
+            event.networkTime = networkNanos;
+            event.bodyTime = bodyNanos;
+            event.decodeTime = decodeNanos;
+            event.failure = failure == null ? null : failure.toString();
+            event.commit();
+        }
+        if (listener == null) return;
+        try {
+            listener.onExchange(new MetricsListener.Exchange(endpoint, host, statusCode, requestBytes, responseBytes, retries,
+                    Duration.ofNanos(queueNanos), Duration.ofNanos(networkNanos), Duration.ofNanos(bodyNanos),
+                    Duration.ofNanos(decodeNanos), failure));
+        } catch (RuntimeException ignored) {
+            // A broken listener must not break the call.
+        }
+    }
+
+    private final class Counting<B> implements HttpResponse.BodySubscriber<B> {
+
+        private final HttpResponse.BodySubscriber<B> delegate;
+        private boolean started;
+        private long firstByte;
+
+        Counting(HttpResponse.BodySubscriber<B> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletionStage<B> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            if (!started) {
+                started = true;
+                firstByte = System.nanoTime();
+            }
+            long bytes = 0;
+            for (ByteBuffer buffer : item) {
+                bytes += buffer.remaining();
+            }
+            responseBytes += bytes;
+            delegate.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            received();
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            received();
+            delegate.onComplete();
+        }
+
+        private void received() {
+            long now = System.nanoTime();
+            bodyStart = started ? firstByte : now;
+            bodyEnd = now;
+            bodyReceived = true;
+        }
+    }
+}
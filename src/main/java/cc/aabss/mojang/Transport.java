@@ -0,0 +1,485 @@
+package cc.aabss.mojang;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The HTTP transport shared by {@link MojangAPI}, {@link RealmsAPI} and {@link Authenticator}.
+ * It owns the {@link HttpClient}, the base URL of every service and the request limits.
+ * Unless configured otherwise, connecting times out after 10 seconds and waiting for a response after 30 seconds;
+ * pass null to {@link Builder#connectTimeout} and {@link Builder#requestTimeout} to wait forever as before.
+ */
+public final class Transport {
+
+    /**
+     * The services this library talks to, with their default base URLs.
+     */
+    public enum Service {
+        MOJANG_API("https://api.mojang.com"),
+        SESSION_SERVER("https://sessionserver.mojang.com"),
+        MINECRAFT_SERVICES("https://api.minecraftservices.com"),
+        XBOX_LIVE("https://user.auth.xboxlive.com"),
+        XSTS("https://xsts.auth.xboxlive.com"),
+        REALMS("https://pc.realms.minecraft.net");
+
+        public final String url;
+
+        Service(String url) {
+            this.url = url;
+        }
+    }
+
+    private static volatile Transport defaultTransport = builder().build();
+
+    private final HttpClient httpClient;
+    private final Map<Service, String> baseUrls;
+    private final @Nullable Duration requestTimeout;
+    private final @Nullable Permits permits;
+    private final RateLimiter rateLimiter;
+    private final int maxRetries;
+    private final @Nullable MetricsListener metrics;
+    private final ConcurrentHashMap<String, CompletableFuture<?>> flights = new ConcurrentHashMap<>();
+
+    private Transport(Builder builder) {
+        if (builder.httpClient != null) {
+            this.httpClient = builder.httpClient;
+        } else {
+            HttpClient.Builder client = HttpClient.newBuilder().version(builder.version);
+            if (builder.connectTimeout != null) client.connectTimeout(builder.connectTimeout);
+            if (builder.executor != null) client.executor(builder.executor);
+            if (builder.proxy != null) client.proxy(builder.proxy);
+            this.httpClient = client.build();
+        }
+        this.baseUrls = new EnumMap<>(builder.baseUrls);
+        this.requestTimeout = builder.requestTimeout;
+        this.permits = builder.maxConnections > 0 ? new Permits(builder.maxConnections) : null;
+        Map<String, RateLimiter.Limit> limits = new HashMap<>(builder.hostLimits);
+        builder.serviceLimits.forEach((service, limit) -> limits.put(URI.create(baseUrl(service)).getHost(), limit));
+        this.rateLimiter = new RateLimiter(limits, builder.maxQueueTime, Duration.ofSeconds(1));
+        this.maxRetries = builder.maxRetries;
+        this.metrics = builder.metrics;
+    }
+
+    /**
+     * Gets the transport used by the static methods and by instances constructed without one.
+     * @return The default transport.
+     */
+    public static Transport getDefault() {
+        return defaultTransport;
+    }
+
+    /**
+     * Replaces the transport used by the static methods and by instances constructed without one.
+     * @param transport The new default transport.
+     */
+    public static void setDefault(Transport transport) {
+        defaultTransport = transport;
+    }
+
+    /**
+     * Makes a new transport builder.
+     * @return The builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the underlying http client.
+     * @return The http client.
+     */
+    public HttpClient httpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Gets the base URL requests to a service are sent to.
+     * @param service The service.
+     * @return The base URL, without a trailing slash.
+     */
+    public String baseUrl(Service service) {
+        return baseUrls.getOrDefault(service, service.url);
+    }
+
+    String baseUrl(Service service, String fallback) {
+        return baseUrls.getOrDefault(service, fallback);
+    }
+
+    HttpRequest.Builder request(Service service, String path) {
+        return request(URI.create(baseUrl(service) + path));
+    }
+
+    HttpRequest.Builder request(URI uri) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().uri(uri);
+        if (requestTimeout != null) builder.timeout(requestTimeout);
+        return builder;
+    }
+
+    <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        return send(request, handler, null);
+    }
+
+    /**
+     * Sends a request, waiting for its host's rate limit and sending it again after a 429.
+     * @param trace Records the timings of every attempt, or null if the transport has no metrics listener.
+     */
+    <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler, @Nullable Trace trace) throws IOException, InterruptedException {
+        RateLimiter.Host host = rateLimiter.host(request.uri());
+        if (trace != null) handler = trace.count(handler);
+        for (int attempt = 0; ; attempt++) {
+            long queued = System.nanoTime();
+            long wait = rateLimiter.reserve(host);
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            HttpResponse<T> response = exchange(request, handler, trace, queued);
+            if (response.statusCode() != 429) {
+                return response;
+            }
+            discard(response);
+            Duration retryAfter = rateLimiter.pause(host, response);
+            if (attempt >= maxRetries) {
+                throw new RateLimitedException(host.name, retryAfter);
+            }
+            if (trace != null) trace.retries++;
+        }
+    }
+
+    <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        return sendAsync(request, handler, null);
+    }
+
+    <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler, @Nullable Trace trace) {
+        return sendAsync(request, trace != null ? trace.count(handler) : handler, trace, rateLimiter.host(request.uri()), 0);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler, @Nullable Trace trace, RateLimiter.Host host, int attempt) {
+        long queued = System.nanoTime();
+        long wait;
+        try {
+            wait = rateLimiter.reserve(host);
+        } catch (RateLimitedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<HttpResponse<T>> future = wait > 0
+                ? CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS))
+                        .thenCompose(ignored -> exchangeAsync(request, handler, trace, queued))
+                : exchangeAsync(request, handler, trace, queued);
+        return future.thenCompose(response -> {
+            if (response.statusCode() != 429) {
+                return CompletableFuture.completedFuture(response);
+            }
+            discard(response);
+            Duration retryAfter = rateLimiter.pause(host, response);
+            if (attempt >= maxRetries) {
+                return CompletableFuture.failedFuture(new RateLimitedException(host.name, retryAfter));
+            }
+            if (trace != null) trace.retries++;
+            return sendAsync(request, handler, trace, host, attempt + 1);
+        });
+    }
+
+    private static void discard(HttpResponse<?> response) {
+        if (response.body() instanceof InputStream body) {
+            try {
+                body.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Sends a request once its rate limit was waited for, taking a connection permit first.
+     * @param queued When the request started waiting for its rate limit, in {@link System#nanoTime()}.
+     */
+    private <T> HttpResponse<T> exchange(HttpRequest request, HttpResponse.BodyHandler<T> handler, @Nullable Trace trace, long queued) throws IOException, InterruptedException {
+        if (permits != null) permits.acquire();
+        long sent = System.nanoTime();
+        if (trace != null) trace.queueNanos += sent - queued;
+        try {
+            return httpClient.send(request, handler);
+        } finally {
+            if (trace != null) trace.received(sent);
+            if (permits != null) permits.release();
+        }
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> exchangeAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler, @Nullable Trace trace, long queued) {
+        if (permits == null) {
+            return trace == null ? httpClient.sendAsync(request, handler) : traced(request, handler, trace, queued);
+        }
+        return permits.acquireAsync()
+                .thenCompose(ignored -> trace == null ? httpClient.sendAsync(request, handler) : traced(request, handler, trace, queued))
+                .whenComplete((response, throwable) -> permits.release());
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> traced(HttpRequest request, HttpResponse.BodyHandler<T> handler, Trace trace, long queued) {
+        long sent = System.nanoTime();
+        trace.queueNanos += sent - queued;
+        return httpClient.sendAsync(request, handler)
+                .whenComplete((response, throwable) -> trace.received(sent));
+    }
+
+    /**
+     * Makes a trace for a call if the transport has a metrics listener or a flight recording records exchanges.
+     * @return The trace, or null if the call is not measured.
+     */
+    @Nullable
+    Trace trace(String endpoint, HttpRequest request) {
+        FlightEvents.Exchange event = FlightEvents.exchange();
+        return metrics == null && event == null ? null : new Trace(metrics, event, endpoint, request);
+    }
+
+    /**
+     * Registers a request in flight under a key.
+     * @return The request already in flight under the key, or null if the given one was registered.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    <T> CompletableFuture<T> joinFlight(String key, CompletableFuture<T> flight) {
+        return (CompletableFuture<T>) flights.putIfAbsent(key, flight);
+    }
+
+    void leaveFlight(String key, CompletableFuture<?> flight) {
+        flights.remove(key, flight);
+    }
+
+    public static final class Builder {
+
+        private @Nullable HttpClient httpClient;
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+        private @Nullable Duration connectTimeout = Duration.ofSeconds(10);
+        private @Nullable Duration requestTimeout = Duration.ofSeconds(30);
+        private @Nullable Executor executor;
+        private @Nullable ProxySelector proxy;
+        private int maxConnections;
+        private final Map<Service, String> baseUrls = new EnumMap<>(Service.class);
+        private final Map<Service, RateLimiter.Limit> serviceLimits = new EnumMap<>(Service.class);
+        private final Map<String, RateLimiter.Limit> hostLimits = new HashMap<>();
+        private Duration maxQueueTime = Duration.ofSeconds(30);
+        private int maxRetries = 2;
+        private @Nullable MetricsListener metrics;
+
+        private Builder() {}
+
+        /**
+         * Uses an already configured http client, the version, connect timeout, executor and proxy settings are then ignored.
+         * @param httpClient The http client.
+         * @return This builder.
+         */
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        /**
+         * Sets the preferred HTTP version, defaults to HTTP/2 with a fallback to HTTP/1.1.
+         * @param version The HTTP version.
+         * @return This builder.
+         */
+        public Builder version(HttpClient.Version version) {
+            this.version = version;
+            return this;
+        }
+
+        /**
+         * Sets how long to wait for a connection to be established, defaults to 10 seconds.
+         * @param connectTimeout The timeout, or null to wait forever.
+         * @return This builder.
+         */
+        public Builder connectTimeout(@Nullable Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Sets how long to wait for a response, defaults to 30 seconds.
+         * A request that takes longer fails with an {@link java.net.http.HttpTimeoutException}.
+         * @param requestTimeout The timeout, or null to wait forever.
+         * @return This builder.
+         */
+        public Builder requestTimeout(@Nullable Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the executor the http client runs its asynchronous tasks on.
+         * @param executor The executor.
+         * @return This builder.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the proxy selector of the http client.
+         * @param proxy The proxy selector.
+         * @return This builder.
+         */
+        public Builder proxy(ProxySelector proxy) {
+            this.proxy = proxy;
+            return this;
+        }
+
+        /**
+         * Limits how many requests may be in flight at once, which bounds the size of the connection pool.
+         * Requests over the limit wait for a free slot.
+         * @param maxConnections The limit, or 0 for no limit.
+         * @return This builder.
+         */
+        public Builder maxConnections(int maxConnections) {
+            if (maxConnections < 0) throw new IllegalArgumentException("maxConnections must not be negative");
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Sends the requests of a service to another base URL, for example a local stand-in.
+         * @param service The service.
+         * @param url The base URL, without a trailing slash.
+         * @return This builder.
+         */
+        public Builder baseUrl(Service service, String url) {
+            this.baseUrls.put(service, url.endsWith("/") ? url.substring(0, url.length() - 1) : url);
+            return this;
+        }
+
+        /**
+         * Limits the rate of requests sent to the host of a service.
+         * @param service The service.
+         * @param requestsPerSecond The sustained amount of requests per second.
+         * @param burst The amount of requests that may be sent at once after the host was idle.
+         * @return This builder.
+         */
+        public Builder rateLimit(Service service, double requestsPerSecond, int burst) {
+            this.serviceLimits.put(service, limit(requestsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * Limits the rate of requests sent to a host, for example a realms environment.
+         * @param host The host name.
+         * @param requestsPerSecond The sustained amount of requests per second.
+         * @param burst The amount of requests that may be sent at once after the host was idle.
+         * @return This builder.
+         */
+        public Builder rateLimit(String host, double requestsPerSecond, int burst) {
+            this.hostLimits.put(host, limit(requestsPerSecond, burst));
+            return this;
+        }
+
+        private static RateLimiter.Limit limit(double requestsPerSecond, int burst) {
+            if (!(requestsPerSecond > 0)) throw new IllegalArgumentException("requestsPerSecond must be positive");
+            if (burst < 1) throw new IllegalArgumentException("burst must be positive");
+            return RateLimiter.Limit.of(requestsPerSecond, burst);
+        }
+
+        /**
+         * Sets how long a request may wait for its host's rate limit or 429 pause, defaults to 30 seconds.
+         * Requests that would wait longer fail with a {@link RateLimitedException}.
+         * @param maxQueueTime The maximum wait, or zero to fail fast.
+         * @return This builder.
+         */
+        public Builder maxQueueTime(Duration maxQueueTime) {
+            if (maxQueueTime.isNegative()) throw new IllegalArgumentException("maxQueueTime must not be negative");
+            this.maxQueueTime = maxQueueTime;
+            return this;
+        }
+
+        /**
+         * Sets how many times a request answered with 429 is sent again once the host's Retry-After has passed, defaults to 2.
+         * @param maxRetries The amount of retries.
+         * @return This builder.
+         */
+        public Builder maxRetries(int maxRetries) {
+            if (maxRetries < 0) throw new IllegalArgumentException("maxRetries must not be negative");
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Reports every call sent through the transport to a listener, with its endpoint, status, sizes and timings.
+         * @param metrics The listener, for example an {@link InMemoryMetrics}, or null to not measure calls.
+         * @return This builder.
+         */
+        public Builder metrics(@Nullable MetricsListener metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Builds the transport.
+         * @return The transport.
+         */
+        public Transport build() {
+            return new Transport(this);
+        }
+    }
+
+    private static final class Permits {
+
+        private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        private int available;
+
+        Permits(int available) {
+            this.available = available;
+        }
+
+        CompletableFuture<Void> acquireAsync() {
+            synchronized (this) {
+                if (available > 0) {
+                    available--;
+                    return CompletableFuture.completedFuture(null);
+                }
+                CompletableFuture<Void> waiter = new CompletableFuture<>();
+                waiters.add(waiter);
+                return waiter;
+            }
+        }
+
+        void acquire() throws InterruptedException {
+            CompletableFuture<Void> waiter = acquireAsync();
+            try {
+                waiter.get();
+            } catch (InterruptedException e) {
+                if (!waiter.cancel(false)) release();
+                throw e;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void release() {
+            while (true) {
+                CompletableFuture<Void> next;
+                synchronized (this) {
+                    next = waiters.poll();
+                    if (next == null) {
+                        available++;
+                        return;
+                    }
+                }
+                if (next.complete(null)) return;
+            }
+        }
+    }
+}
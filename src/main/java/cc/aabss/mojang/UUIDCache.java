@@ -0,0 +1,224 @@
+package cc.aabss.mojang;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, expiring cache of name to uuid lookups placed in front of {@link MojangAPI#getUUIDbyName(String)}.
+ * Names are matched case-insensitively, names that do not exist are remembered separately for a shorter time.
+ * @see MojangAPI#setUUIDCache(UUIDCache)
+ */
+public final class UUIDCache {
+
+    private final long ttl;
+    private final long negativeTtl;
+    private final int maximumSize;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private UUIDCache(Builder builder) {
+        this.ttl = builder.ttl.toNanos();
+        this.negativeTtl = builder.negativeTtl.toNanos();
+        this.maximumSize = builder.maximumSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Makes a new cache builder.
+     * @return The builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the cached uuid of a player.
+     * @param name The name of the player.
+     * @return The uuid of the player, or null if it is not cached or the player does not exist.
+     */
+    @Nullable
+    public String get(String name) {
+        Entry entry = lookup(name);
+        return entry == null ? null : entry.uuid;
+    }
+
+    /**
+     * Removes a name from the cache.
+     * @param name The name of the player.
+     */
+    public void invalidate(String name) {
+        synchronized (entries) {
+            entries.remove(key(name));
+        }
+    }
+
+    /**
+     * Removes every name from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the amount of names in the cache, including expired ones that were not removed yet.
+     * @return The size of the cache.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the hit and miss statistics of the cache.
+     * @return The statistics.
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), negativeHits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Looks up a name, counting the hit or miss.
+     * @return The entry, which has a null uuid for names that do not exist, or null on a miss.
+     */
+    @Nullable
+    Entry lookup(String name) {
+        String key = key(name);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            FlightEvents.cacheLookup("UUIDCache", key, "miss");
+        } else if (entry.uuid == null) {
+            negativeHits.increment();
+            FlightEvents.cacheLookup("UUIDCache", key, "negativeHit");
+        } else {
+            hits.increment();
+            FlightEvents.cacheLookup("UUIDCache", key, "hit");
+        }
+        return entry;
+    }
+
+    void put(String name, String uuid) {
+        store(name, new Entry(uuid, System.nanoTime() + ttl));
+    }
+
+    void putMissing(String name) {
+        if (negativeTtl > 0) store(name, new Entry(null, System.nanoTime() + negativeTtl));
+    }
+
+    private void store(String name, Entry entry) {
+        synchronized (entries) {
+            entries.put(key(name), entry);
+        }
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    record Entry(@Nullable String uuid, long expiresAt) {}
+
+    /**
+     * The statistics of a cache.
+     * @param hitCount The amount of lookups answered with a uuid.
+     * @param negativeHitCount The amount of lookups answered with a name known not to exist.
+     * @param missCount The amount of lookups that had to be sent to Mojang.
+     * @param evictionCount The amount of names removed to stay within the maximum size.
+     */
+    public record Stats(long hitCount, long negativeHitCount, long missCount, long evictionCount) {
+
+        /**
+         * Gets the amount of lookups.
+         * @return The request count.
+         */
+        public long requestCount() {
+            return hitCount + negativeHitCount + missCount;
+        }
+
+        /**
+         * Gets the share of lookups answered from the cache.
+         * @return The hit rate, between 0 and 1.
+         */
+        public double hitRate() {
+            long requests = requestCount();
+            return requests == 0 ? 1 : (double) (hitCount + negativeHitCount) / requests;
+        }
+    }
+
+    public static final class Builder {
+
+        private Duration ttl = Duration.ofMinutes(10);
+        private Duration negativeTtl = Duration.ofMinutes(1);
+        private int maximumSize = 10_000;
+
+        private Builder() {}
+
+        /**
+         * Sets how long a resolved uuid is kept, defaults to 10 minutes.
+         * @param ttl The time to live.
+         * @return This builder.
+         */
+        public Builder ttl(Duration ttl) {
+            if (ttl.isNegative()) throw new IllegalArgumentException("ttl must not be negative");
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Sets how long a name that does not exist is kept, defaults to 1 minute.
+         * @param negativeTtl The time to live, or zero to not remember missing names.
+         * @return This builder.
+         */
+        public Builder negativeTtl(Duration negativeTtl) {
+            if (negativeTtl.isNegative()) throw new IllegalArgumentException("negativeTtl must not be negative");
+            this.negativeTtl = negativeTtl;
+            return this;
+        }
+
+        /**
+         * Sets how many names are kept, the least recently used are removed first. Defaults to 10,000.
+         * @param maximumSize The maximum size.
+         * @return This builder.
+         */
+        public Builder maximumSize(int maximumSize) {
+            if (maximumSize < 1) throw new IllegalArgumentException("maximumSize must be positive");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Builds the cache.
+         * @return The cache.
+         */
+        public UUIDCache build() {
+            return new UUIDCache(this);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.mojang.PlayerUUID;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * A map keyed by uuids that keeps each key as two longs in one array instead of an object per entry,
+ * so it holds millions of players in a fraction of the memory of a {@code HashMap<String, V>}.
+ * Keys can be given as a {@link PlayerUUID}, its two halves, or a dashed or undashed string,
+ * which is parsed without being copied. Values must not be null. The map is not thread-safe.
+ * @param <V> The type of the values.
+ */
+public final class UUIDMap<V> {
+
+    private final UUIDTable table;
+
+    /**
+     * Makes an empty map.
+     */
+    public UUIDMap() {
+        this(0);
+    }
+
+    /**
+     * Makes an empty map that holds the given amount of uuids before it grows.
+     * @param expectedSize The expected amount of uuids.
+     */
+    public UUIDMap(int expectedSize) {
+        this.table = new UUIDTable(expectedSize, true);
+    }
+
+    /**
+     * Gets the amount of uuids in the map.
+     * @return The size of the map.
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Whether the map has no uuids.
+     * @return True if the map is empty, otherwise false.
+     */
+    public boolean isEmpty() {
+        return table.size() == 0;
+    }
+
+    /**
+     * Gets the value of a uuid.
+     * @param uuid The uuid.
+     * @return The value, or null if the uuid is not in the map.
+     */
+    @Nullable
+    public V get(PlayerUUID uuid) {
+        return get(uuid.mostSignificantBits(), uuid.leastSignificantBits());
+    }
+
+    /**
+     * Gets the value of a uuid.
+     * @param uuid The uuid, with or without dashes.
+     * @return The value, or null if the uuid is not in the map.
+     * @throws IllegalArgumentException If it is not a uuid.
+     */
+    @Nullable
+    public V get(CharSequence uuid) {
+        return get(PlayerUUID.mostSignificantBits(uuid), PlayerUUID.leastSignificantBits(uuid));
+    }
+
+    /**
+     * Gets the value of a uuid.
+     * @param mostSignificantBits The first 64 bits of the uuid.
+     * @param leastSignificantBits The last 64 bits of the uuid.
+     * @return The value, or null if the uuid is not in the map.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(long mostSignificantBits, long leastSignificantBits) {
+        return (V) table.get(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Whether a uuid is in the map.
+     * @param uuid The uuid.
+     * @return True if the map has a value for the uuid, otherwise false.
+     */
+    public boolean containsKey(PlayerUUID uuid) {
+        return get(uuid) != null;
+    }
+
+    /**
+     * Whether a uuid is in the map.
+     * @param uuid The uuid, with or without dashes.
+     * @return True if the map has a value for the uuid, otherwise false.
+     * @throws IllegalArgumentException If it is not a uuid.
+     */
+    public boolean containsKey(CharSequence uuid) {
+        return get(uuid) != null;
+    }
+
+    /**
+     * Sets the value of a uuid.
+     * @param uuid The uuid.
+     * @param value The value.
+     * @return The previous value, or null if the uuid was not in the map.
+     */
+    @Nullable
+    public V put(PlayerUUID uuid, V value) {
+        return put(uuid.mostSignificantBits(), uuid.leastSignificantBits(), value);
+    }
+
+    /**
+     * Sets the value of a uuid.
+     * @param uuid The uuid, with or without dashes.
+     * @param value The value.
+     * @return The previous value, or null if the uuid was not in the map.
+     * @throws IllegalArgumentException If it is not a uuid.
+     */
+    @Nullable
+    public V put(CharSequence uuid, V value) {
+        return put(PlayerUUID.mostSignificantBits(uuid), PlayerUUID.leastSignificantBits(uuid), value);
+    }
+
+    /**
+     * Sets the value of a uuid.
+     * @param mostSignificantBits The first 64 bits of the uuid.
+     * @param leastSignificantBits The last 64 bits of the uuid.
+     * @param value The value.
+     * @return The previous value, or null if the uuid was not in the map.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V put(long mostSignificantBits, long leastSignificantBits, V value) {
+        Objects.requireNonNull(value, "value");
+        return (V) table.put(mostSignificantBits, leastSignificantBits, value);
+    }
+
+    /**
+     * Removes a uuid from the map.
+     * @param uuid The uuid.
+     * @return The value it had, or null if the uuid was not in the map.
+     */
+    @Nullable
+    public V remove(PlayerUUID uuid) {
+        return remove(uuid.mostSignificantBits(), uuid.leastSignificantBits());
+    }
+
+    /**
+     * Removes a uuid from the map.
+     * @param uuid The uuid, with or without dashes.
+     * @return The value it had, or null if the uuid was not in the map.
+     * @throws IllegalArgumentException If it is not a uuid.
+     */
+    @Nullable
+    public V remove(CharSequence uuid) {
+        return remove(PlayerUUID.mostSignificantBits(uuid), PlayerUUID.leastSignificantBits(uuid));
+    }
+
+    /**
+     * Removes a uuid from the map.
+     * @param mostSignificantBits The first 64 bits of the uuid.
+     * @param leastSignificantBits The last 64 bits of the uuid.
+     * @return The value it had, or null if the uuid was not in the map.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V remove(long mostSignificantBits, long leastSignificantBits) {
+        return (V) table.remove(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Removes every uuid from the map, keeping its capacity.
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * Calls an action for every uuid in the map, in no particular order.
+     * @param action The action.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<PlayerUUID, ? super V> action) {
+        table.forEach((most, least, value) -> action.accept(new PlayerUUID(most, least), (V) value));
+    }
+
+    /**
+     * Calls an action for every uuid in the map, in no particular order, without making an object per uuid.
+     * @param visitor The action.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Visitor<? super V> visitor) {
+        table.forEach((most, least, value) -> visitor.accept(most, least, (V) value));
+    }
+
+    /**
+     * An action on the uuids of a map and their values.
+     * @param <V> The type of the values.
+     */
+    @FunctionalInterface
+    public interface Visitor<V> {
+
+        /**
+         * Called for a uuid and its value.
+         * @param mostSignificantBits The first 64 bits of the uuid.
+         * @param leastSignificantBits The last 64 bits of the uuid.
+         * @param value The value.
+         */
+        void accept(long mostSignificantBits, long leastSignificantBits, V value);
+    }
+}
@@ -0,0 +1,187 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.mojang.PlayerUUID;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * A set of uuids that keeps each one as two longs in one array instead of an object per uuid,
+ * so it holds millions of players in a fraction of the memory of a {@code HashSet<String>}.
+ * Uuids can be given as a {@link PlayerUUID}, its two halves, or a dashed or undashed string,
+ * which is parsed without being copied. The set is not thread-safe.
+ */
+public final class UUIDSet {
+
+    private final UUIDTable table;
+
+    /**
+     * Makes an empty set.
+     */
+    public UUIDSet() {
+        this(0);
+    }
+
+    /**
+     * Makes an empty set that holds the given amount of uuids before it grows.
+     * @param expectedSize The expected amount of uuids.
+     */
+    public UUIDSet(int expectedSize) {
+        this.table = new UUIDTable(expectedSize, false);
+    }
+
+    /**
+     * Makes a set of the uuids in a list of strings, as the API returns them.
+     * @param uuids The uuids, with or without dashes. Strings that are not uuids are skipped.
+     * @return The set.
+     */
+    public static UUIDSet copyOf(@Nullable Collection<? extends CharSequence> uuids) {
+        if (uuids == null) return new UUIDSet();
+        UUIDSet set = new UUIDSet(uuids.size());
+        for (CharSequence uuid : uuids) {
+            if (PlayerUUID.isValid(uuid)) set.add(uuid);
+        }
+        return set;
+    }
+
+    /**
+     * Gets the amount of uuids in the set.
+     * @return The size of the set.
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Whether the set has no uuids.
+     * @return True if the set is empty, otherwise false.
+     */
+    public boolean isEmpty() {
+        return table.size() == 0;
+    }
+
+    /**
+     * Whether a uuid is in the set.
+     * @param uuid The uuid.
+     * @return True if the uuid is in the set, otherwise false.
+     */
+    public boolean contains(PlayerUUID uuid) {
+        return contains(uuid.mostSignificantBits(), uuid.leastSignificantBits());
+    }
+
+    /**
+     * Whether a uuid is in the set.
+     * @param uuid The uuid, with or without dashes.
+     * @return True if the uuid is in the set, otherwise false.
+     * @throws IllegalArgumentException If it is not a uuid.
+     */
+    public boolean contains(CharSequence uuid) {
+        return contains(PlayerUUID.mostSignificantBits(uuid), PlayerUUID.leastSignificantBits(uuid));
+    }
+
+    /**
+     * Whether a uuid is in the set.
+     * @param mostSignificantBits The first 64 bits of the uuid.
+     * @param leastSignificantBits The last 64 bits of the uuid.
+     * @return True if the uuid is in the set, otherwise false.
+     */
+    public boolean contains(long mostSignificantBits, long leastSignificantBits) {
+        return table.get(mostSignificantBits, leastSignificantBits) != null;
+    }
+
+    /**
+     * Adds a uuid to the set.
+     * @param uuid The uuid.
+     * @return True if the uuid was not in the set yet, otherwise false.
+     */
+    public boolean add(PlayerUUID uuid) {
+        return add(uuid.mostSignificantBits(), uuid.leastSignificantBits());
+    }
+
+    /**
+     * Adds a uuid to the set.
+     * @param uuid The uuid, with or without dashes.
+     * @return True if the uuid was not in the set yet, otherwise false.
+     * @throws IllegalArgumentException If it is not a uuid.
+     */
+    public boolean add(CharSequence uuid) {
+        return add(PlayerUUID.mostSignificantBits(uuid), PlayerUUID.leastSignificantBits(uuid));
+    }
+
+    /**
+     * Adds a uuid to the set.
+     * @param mostSignificantBits The first 64 bits of the uuid.
+     * @param leastSignificantBits The last 64 bits of the uuid.
+     * @return True if the uuid was not in the set yet, otherwise false.
+     */
+    public boolean add(long mostSignificantBits, long leastSignificantBits) {
+        return table.put(mostSignificantBits, leastSignificantBits, UUIDTable.PRESENT) == null;
+    }
+
+    /**
+     * Removes a uuid from the set.
+     * @param uuid The uuid.
+     * @return True if the uuid was in the set, otherwise false.
+     */
+    public boolean remove(PlayerUUID uuid) {
+        return remove(uuid.mostSignificantBits(), uuid.leastSignificantBits());
+    }
+
+    /**
+     * Removes a uuid from the set.
+     * @param uuid The uuid, with or without dashes.
+     * @return True if the uuid was in the set, otherwise false.
+     * @throws IllegalArgumentException If it is not a uuid.
+     */
+    public boolean remove(CharSequence uuid) {
+        return remove(PlayerUUID.mostSignificantBits(uuid), PlayerUUID.leastSignificantBits(uuid));
+    }
+
+    /**
+     * Removes a uuid from the set.
+     * @param mostSignificantBits The first 64 bits of the uuid.
+     * @param leastSignificantBits The last 64 bits of the uuid.
+     * @return True if the uuid was in the set, otherwise false.
+     */
+    public boolean remove(long mostSignificantBits, long leastSignificantBits) {
+        return table.remove(mostSignificantBits, leastSignificantBits) != null;
+    }
+
+    /**
+     * Removes every uuid from the set, keeping its capacity.
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * Calls an action for every uuid in the set, in no particular order.
+     * @param action The action.
+     */
+    public void forEach(Consumer<PlayerUUID> action) {
+        table.forEach((most, least, value) -> action.accept(new PlayerUUID(most, least)));
+    }
+
+    /**
+     * Calls an action for every uuid in the set, in no particular order, without making an object per uuid.
+     * @param visitor The action.
+     */
+    public void forEach(Visitor visitor) {
+        table.forEach((most, least, value) -> visitor.accept(most, least));
+    }
+
+    /**
+     * An action on the uuids of a set.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * Called for a uuid.
+         * @param mostSignificantBits The first 64 bits of the uuid.
+         * @param leastSignificantBits The last 64 bits of the uuid.
+         */
+        void accept(long mostSignificantBits, long leastSignificantBits);
+    }
+}
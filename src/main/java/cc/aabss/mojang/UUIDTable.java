@@ -0,0 +1,216 @@
+package cc.aabss.mojang;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The open addressing hash table behind {@link UUIDMap} and {@link UUIDSet}. Keys are stored as pairs of longs in one
+ * array and probed linearly, removals shift the following keys back instead of leaving tombstones.
+ * The nil uuid marks an empty slot, so it is kept outside of the array.
+ */
+final class UUIDTable {
+
+    /**
+     * What a set answers for a uuid it contains.
+     */
+    static final Object PRESENT = new Object();
+
+    private static final int MINIMUM_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 29;
+
+    private final boolean hasValues;
+    private long[] keys;
+    private @Nullable Object[] values;
+    private int mask;
+    private int size;
+    private int limit;
+    private boolean hasNil;
+    private @Nullable Object nilValue;
+
+    /**
+     * @param expectedSize The amount of uuids the table holds without growing.
+     * @param hasValues Whether the table holds a value for every uuid.
+     */
+    UUIDTable(int expectedSize, boolean hasValues) {
+        if (expectedSize < 0) throw new IllegalArgumentException("expectedSize must not be negative");
+        this.hasValues = hasValues;
+        allocate(capacityFor(expectedSize));
+    }
+
+    int size() {
+        return hasNil ? size + 1 : size;
+    }
+
+    /**
+     * @return The amount of slots in the array.
+     */
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return The slot the uuid is probed from, the one it is stored in unless that was taken.
+     */
+    int home(long most, long least) {
+        return hash(most, least) & mask;
+    }
+
+    /**
+     * @return The value of the uuid, {@link #PRESENT} if the table has no values, or null if it is absent.
+     */
+    @Nullable
+    Object get(long most, long least) {
+        if (most == 0 && least == 0) return hasNil ? nilValue : null;
+        int slot = find(most, least);
+        return slot < 0 ? null : value(slot);
+    }
+
+    /**
+     * @return The previous value of the uuid, {@link #PRESENT} if the table has no values, or null if it was absent.
+     */
+    @Nullable
+    Object put(long most, long least, Object value) {
+        if (most == 0 && least == 0) {
+            Object previous = hasNil ? nilValue : null;
+            hasNil = true;
+            nilValue = hasValues ? value : PRESENT;
+            return previous;
+        }
+        int slot = find(most, least);
+        if (slot >= 0) {
+            Object previous = value(slot);
+            if (values != null) values[slot] = value;
+            return previous;
+        }
+        slot = -slot - 1;
+        keys[slot * 2] = most;
+        keys[slot * 2 + 1] = least;
+        if (values != null) values[slot] = value;
+        if (++size >= limit) grow();
+        return null;
+    }
+
+    /**
+     * @return The value the uuid had, {@link #PRESENT} if the table has no values, or null if it was absent.
+     */
+    @Nullable
+    Object remove(long most, long least) {
+        if (most == 0 && least == 0) {
+            Object previous = hasNil ? nilValue : null;
+            hasNil = false;
+            nilValue = null;
+            return previous;
+        }
+        int slot = find(most, least);
+        if (slot < 0) return null;
+        Object previous = value(slot);
+        size--;
+        shiftBack(slot);
+        return previous;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        if (values != null) Arrays.fill(values, null);
+        size = 0;
+        hasNil = false;
+        nilValue = null;
+    }
+
+    void forEach(Visitor visitor) {
+        if (hasNil) visitor.accept(0, 0, nilValue);
+        for (int slot = 0; slot <= mask; slot++) {
+            long most = keys[slot * 2];
+            long least = keys[slot * 2 + 1];
+            if (most != 0 || least != 0) visitor.accept(most, least, value(slot));
+        }
+    }
+
+    /**
+     * Finds the slot of a uuid other than the nil uuid.
+     * @return The slot, or the negative empty slot it would go in minus one.
+     */
+    private int find(long most, long least) {
+        int slot = home(most, least);
+        while (true) {
+            long slotMost = keys[slot * 2];
+            long slotLeast = keys[slot * 2 + 1];
+            if (slotMost == most && slotLeast == least) return slot;
+            if (slotMost == 0 && slotLeast == 0) return -slot - 1;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Empties a slot, moving back the following uuids that would no longer be found past the gap.
+     */
+    private void shiftBack(int slot) {
+        while (true) {
+            int gap = slot;
+            long most;
+            long least;
+            while (true) {
+                slot = (slot + 1) & mask;
+                most = keys[slot * 2];
+                least = keys[slot * 2 + 1];
+                if (most == 0 && least == 0) {
+                    keys[gap * 2] = 0;
+                    keys[gap * 2 + 1] = 0;
+                    if (values != null) values[gap] = null;
+                    return;
+                }
+                int home = home(most, least);
+                // The uuid can only move into the gap if its home slot is not between the gap and its current slot.
+                if (gap <= slot ? gap >= home || home > slot : gap >= home && home > slot) break;
+            }
+            keys[gap * 2] = most;
+            keys[gap * 2 + 1] = least;
+            if (values != null) values[gap] = values[slot];
+        }
+    }
+
+    private Object value(int slot) {
+        return values == null ? PRESENT : values[slot];
+    }
+
+    private void grow() {
+        int capacity = mask + 1;
+        if (capacity >= MAXIMUM_CAPACITY) throw new IllegalStateException("UUID table is full");
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity * 2);
+        for (int slot = 0; slot < capacity; slot++) {
+            long most = oldKeys[slot * 2];
+            long least = oldKeys[slot * 2 + 1];
+            if (most == 0 && least == 0) continue;
+            int target = -find(most, least) - 1;
+            keys[target * 2] = most;
+            keys[target * 2 + 1] = least;
+            if (values != null) values[target] = oldValues[slot];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity * 2];
+        values = hasValues ? new Object[capacity] : null;
+        mask = capacity - 1;
+        limit = capacity / 4 * 3;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) expectedSize * 4 / 3 + 1;
+        if (needed >= MAXIMUM_CAPACITY) return MAXIMUM_CAPACITY;
+        return Math.max(MINIMUM_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    private static int hash(long most, long least) {
+        long hash = (most ^ Long.rotateLeft(least, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        void accept(long most, long least, @Nullable Object value);
+    }
+}
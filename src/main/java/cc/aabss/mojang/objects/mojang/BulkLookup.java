@@ -0,0 +1,25 @@
+package cc.aabss.mojang.objects.mojang;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+public record BulkLookup(Map<String, String> uuids, List<Failure> failures) {
+
+    /**
+     * Whether every name was looked up, names that do not exist are not failures.
+     * @return True if no request failed, otherwise false.
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * A request of the lookup that failed.
+     * @param names The names sent in the request.
+     * @param statusCode The status code of the response, or -1 if no response was received.
+     * @param cause The exception the request failed with, if any.
+     */
+    public record Failure(List<String> names, int statusCode, @Nullable Throwable cause) {}
+}
@@ -0,0 +1,160 @@
+package cc.aabss.mojang.objects.mojang;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * A uuid held as its two halves. Parsing accepts the undashed form Mojang uses in ids as well as the dashed form,
+ * and reads the characters directly without making substrings. {@link #mostSignificantBits(CharSequence)} and
+ * {@link #leastSignificantBits(CharSequence)} parse a half without making an object at all.
+ * @param mostSignificantBits The first 64 bits.
+ * @param leastSignificantBits The last 64 bits.
+ */
+public record PlayerUUID(long mostSignificantBits, long leastSignificantBits) {
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Parses a uuid.
+     * @param uuid The uuid, with or without dashes.
+     * @return The uuid.
+     * @throws IllegalArgumentException If it is not a uuid.
+     */
+    public static PlayerUUID parse(CharSequence uuid) {
+        return new PlayerUUID(mostSignificantBits(uuid), leastSignificantBits(uuid));
+    }
+
+    /**
+     * Parses a uuid, if it is one.
+     * @param uuid The uuid, with or without dashes.
+     * @return The uuid, or null if it is not a uuid.
+     */
+    @Nullable
+    public static PlayerUUID tryParse(@Nullable CharSequence uuid) {
+        return isValid(uuid) ? parse(uuid) : null;
+    }
+
+    /**
+     * Whether a string is a uuid.
+     * @param uuid The string.
+     * @return True if it is a uuid with or without dashes, otherwise false.
+     */
+    public static boolean isValid(@Nullable CharSequence uuid) {
+        if (uuid == null) return false;
+        int length = uuid.length();
+        if (length != 32 && !(length == 36 && hasDashes(uuid))) return false;
+        for (int i = 0; i < length; i++) {
+            char c = uuid.charAt(i);
+            if (digit(c) < 0 && !(length == 36 && c == '-' && isDash(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses the first 64 bits of a uuid.
+     * @param uuid The uuid, with or without dashes.
+     * @return The first 64 bits.
+     * @throws IllegalArgumentException If it is not a uuid.
+     */
+    public static long mostSignificantBits(CharSequence uuid) {
+        if (uuid.length() == 32) return hex(uuid, 0, 16);
+        checkDashed(uuid);
+        return hex(uuid, 0, 8) << 32 | hex(uuid, 9, 13) << 16 | hex(uuid, 14, 18);
+    }
+
+    /**
+     * Parses the last 64 bits of a uuid.
+     * @param uuid The uuid, with or without dashes.
+     * @return The last 64 bits.
+     * @throws IllegalArgumentException If it is not a uuid.
+     */
+    public static long leastSignificantBits(CharSequence uuid) {
+        if (uuid.length() == 32) return hex(uuid, 16, 32);
+        checkDashed(uuid);
+        return hex(uuid, 19, 23) << 48 | hex(uuid, 24, 36);
+    }
+
+    /**
+     * Converts a {@link UUID}.
+     * @param uuid The uuid.
+     * @return The uuid.
+     */
+    public static PlayerUUID of(UUID uuid) {
+        return new PlayerUUID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Converts this uuid to a {@link UUID}.
+     * @return The uuid.
+     */
+    public UUID toUUID() {
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Gets the uuid with dashes, as in {@code 069a79f4-44e9-4726-a5be-fca90e38aaf5}.
+     * @return The dashed uuid.
+     */
+    public String toDashedString() {
+        char[] chars = new char[36];
+        digits(chars, 0, mostSignificantBits >>> 32, 8);
+        chars[8] = '-';
+        digits(chars, 9, mostSignificantBits >>> 16, 4);
+        chars[13] = '-';
+        digits(chars, 14, mostSignificantBits, 4);
+        chars[18] = '-';
+        digits(chars, 19, leastSignificantBits >>> 48, 4);
+        chars[23] = '-';
+        digits(chars, 24, leastSignificantBits, 12);
+        return new String(chars);
+    }
+
+    /**
+     * Gets the uuid without dashes, as Mojang writes ids, as in {@code 069a79f444e94726a5befca90e38aaf5}.
+     * @return The undashed uuid.
+     */
+    @Override
+    public String toString() {
+        char[] chars = new char[32];
+        digits(chars, 0, mostSignificantBits, 16);
+        digits(chars, 16, leastSignificantBits, 16);
+        return new String(chars);
+    }
+
+    private static void digits(char[] chars, int offset, long value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            chars[i] = DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    private static long hex(CharSequence uuid, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = digit(uuid.charAt(i));
+            if (digit < 0) throw new IllegalArgumentException("Invalid uuid: " + uuid);
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+
+    private static void checkDashed(CharSequence uuid) {
+        if (uuid.length() != 36 || !hasDashes(uuid)) throw new IllegalArgumentException("Invalid uuid: " + uuid);
+    }
+
+    private static boolean hasDashes(CharSequence uuid) {
+        return uuid.charAt(8) == '-' && uuid.charAt(13) == '-' && uuid.charAt(18) == '-' && uuid.charAt(23) == '-';
+    }
+
+    private static boolean isDash(int index) {
+        return index == 8 || index == 13 || index == 18 || index == 23;
+    }
+}
@@ -1,5 +1,89 @@
 package cc.aabss.mojang.objects.mojang;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+public record PublicPlayerProfile(String id, String name, List<Property> properties, List<ProfileAction> profileActions, boolean legacy) {
+
+    /**
+     * The decoded textures of the properties still held by a profile. A record cannot keep them itself, so they are
+     * kept by the weakly held property instead and dropped together with it.
+     */
+    private static final Map<Property, Value> DECODED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Gets the uuid of the player.
+     * @return The uuid, or null if the profile has no id.
+     */
+    @Nullable
+    public PlayerUUID playerUUID() {
+        return PlayerUUID.tryParse(id);
+    }
+
+    /**
+     * Gets the decoded textures property, it is decoded the first time it is asked for and then kept while the profile is.
+     * @return The textures, or null if the profile has no textures property.
+     */
+    @Nullable
+    public Value textures() {
+        if (properties == null) return null;
+        for (Property property : properties) {
+            if ("textures".equals(property.name()) && property.value() != null) {
+                Value textures = DECODED.get(property);
+                if (textures == null) {
+                    // Decoded outside of the lock, decoding twice when raced is harmless.
+                    textures = Value.fromBase64(property.value());
+                    Value raced = DECODED.putIfAbsent(property, textures);
+                    if (raced != null) textures = raced;
+                }
+                return textures;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the URL of the skin.
+     * @return The skin URL, or null if the player has the default skin.
+     */
+    @Nullable
+    public String skinUrl() {
+        Value textures = textures();
+        Texture skin = textures == null ? null : textures.skin();
+        return skin == null ? null : skin.url();
+    }
+
+    /**
+     * Gets the URL of the cape.
+     * @return The cape URL, or null if the player has no cape.
+     */
+    @Nullable
+    public String capeUrl() {
+        Value textures = textures();
+        Texture cape = textures == null ? null : textures.cape();
+        return cape == null ? null : cape.url();
+    }
+
+    /**
+     * Gets the model of the skin.
+     * @return The skin variant, classic unless the skin is slim.
+     */
+    public Variant skinVariant() {
+        Value textures = textures();
+        Texture skin = textures == null ? null : textures.skin();
+        return skin != null && skin.metadata() != null && skin.metadata().model() == Variant.SLIM ? Variant.SLIM : Variant.CLASSIC;
+    }
 
-public record PublicPlayerProfile(String id, String name, List<Property> properties, List<ProfileAction> profileActions, boolean legacy) {}
+    /**
+     * Gets when the textures property was generated.
+     * @return The timestamp in milliseconds, or 0 if the profile has no textures property.
+     */
+    public long texturesTimestamp() {
+        Value textures = textures();
+        return textures == null ? 0 : textures.timestamp();
+    }
+}
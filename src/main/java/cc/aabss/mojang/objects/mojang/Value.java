@@ -1,22 +1,86 @@
 package cc.aabss.mojang.objects.mojang;
 
 import cc.aabss.mojang.MojangAPI;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.List;
 
 public record Value(String rawValue, long timestamp, String profileId, String profileName, boolean signatureRequired, List<Texture> textures) {
+
     /**
      * Converts a base64 value string into a java value object.
+     * The json is decoded straight from the base64 characters, without decoding it into a string first.
      * @param value The raw value.
      * @return A value object.
      */
     public static Value fromBase64(String value) {
-        String string = new String(Base64.getDecoder().decode(value));
-        JsonObject jsonObject = JsonParser.parseString(string).getAsJsonObject();
-        jsonObject.addProperty("rawValue", value);
-        return MojangAPI.gson.fromJson(jsonObject, Value.class);
+        try (JsonReader reader = new JsonReader(new InputStreamReader(Base64.getDecoder().wrap(new Chars(value)), StandardCharsets.UTF_8))) {
+            Value decoded = MojangAPI.gson.getAdapter(Value.class).read(reader);
+            return new Value(value, decoded.timestamp, decoded.profileId, decoded.profileName, decoded.signatureRequired, decoded.textures);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Gets the skin texture.
+     * @return The skin, or null if the player has the default skin.
+     */
+    @Nullable
+    public Texture skin() {
+        return texture("SKIN");
+    }
+
+    /**
+     * Gets the cape texture.
+     * @return The cape, or null if the player has no cape.
+     */
+    @Nullable
+    public Texture cape() {
+        return texture("CAPE");
+    }
+
+    @Nullable
+    private Texture texture(String name) {
+        if (textures == null) return null;
+        for (Texture texture : textures) {
+            if (name.equals(texture.name())) return texture;
+        }
+        return null;
+    }
+
+    /**
+     * Reads the characters of a base64 string as bytes, without copying them.
+     */
+    private static final class Chars extends InputStream {
+
+        private final String string;
+        private int position;
+
+        Chars(String string) {
+            this.string = string;
+        }
+
+        @Override
+        public int read() {
+            return position < string.length() ? string.charAt(position++) : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) return 0;
+            int count = Math.min(length, string.length() - position);
+            if (count <= 0) return -1;
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) string.charAt(position++);
+            }
+            return count;
+        }
     }
 }
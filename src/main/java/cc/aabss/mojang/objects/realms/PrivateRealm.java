@@ -1,5 +1,8 @@
 package cc.aabss.mojang.objects.realms;
 
+import cc.aabss.mojang.objects.mojang.PlayerUUID;
+import org.jetbrains.annotations.Nullable;
+
 import java.util.List;
 
 public record PrivateRealm(long id,
@@ -24,4 +27,14 @@ public record PrivateRealm(long id,
                     int slots,
                     boolean member,
                     long clubId
-) {}
+) {
+
+    /**
+     * Gets the uuid of the owner.
+     * @return The uuid, or null if the owner uuid is missing.
+     */
+    @Nullable
+    public PlayerUUID ownerPlayerUUID() {
+        return PlayerUUID.tryParse(ownerUUID);
+    }
+}
@@ -1,5 +1,8 @@
 package cc.aabss.mojang.objects.realms;
 
+import cc.aabss.mojang.objects.mojang.PlayerUUID;
+import org.jetbrains.annotations.Nullable;
+
 import java.util.List;
 
 public record Realm(long id,
@@ -25,4 +28,14 @@ public record Realm(long id,
                     String parentWorldName,
                     ServerCompatibility compatibility,
                     String activeVersion
-) {}
+) {
+
+    /**
+     * Gets the uuid of the owner.
+     * @return The uuid, or null if the owner uuid is missing.
+     */
+    @Nullable
+    public PlayerUUID ownerPlayerUUID() {
+        return PlayerUUID.tryParse(ownerUUID);
+    }
+}
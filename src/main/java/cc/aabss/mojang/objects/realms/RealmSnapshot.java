@@ -0,0 +1,45 @@
+package cc.aabss.mojang.objects.realms;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything known about one realm, fetched at once. Parts whose request failed are null and have their failure in {@link #failures()}.
+ * @param id The realm ID.
+ * @param world The realm.
+ * @param address The address of the realm's server.
+ * @param backups The backups of the realm.
+ * @param ops The operators of the realm.
+ * @param subscription The subscription of the realm.
+ * @param failures The exceptions of the parts that could not be fetched.
+ */
+public record RealmSnapshot(long id,
+                            @Nullable Realm world,
+                            @Nullable Server address,
+                            @Nullable List<Backup> backups,
+                            @Nullable List<String> ops,
+                            @Nullable Subscription subscription,
+                            Map<Part, Throwable> failures
+) {
+
+    /**
+     * Whether every part was fetched.
+     * @return True if no request failed, otherwise false.
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * The parts of a snapshot, each fetched by its own request.
+     */
+    public enum Part {
+        WORLD,
+        ADDRESS,
+        BACKUPS,
+        OPS,
+        SUBSCRIPTION
+    }
+}
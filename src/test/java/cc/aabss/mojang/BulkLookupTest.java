@@ -0,0 +1,127 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.mojang.BulkLookup;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkLookupTest {
+
+    /**
+     * The players the stub knows, by their name as they spell it.
+     */
+    private static final Map<String, String> PLAYERS = Map.of(
+            "Notch", "069a79f444e94726a5befca90e38aaf5",
+            "jeb_", "853c80ef3c3749fdaa49938b674adae6",
+            "Dinnerbone", "61699b2ed3274a019f1e0ea8c3f06bc6");
+
+    private final Transport previous = Transport.getDefault();
+    private HttpServer server;
+    /**
+     * Names whose request the stub fails.
+     */
+    private volatile Set<String> failing = Set.of();
+
+    @BeforeEach
+    void start() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/minecraft/profile/lookup/bulk/byname", exchange -> {
+            JsonArray names = JsonParser.parseReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)).getAsJsonArray();
+            JsonArray found = new JsonArray();
+            int status = 200;
+            for (JsonElement element : names) {
+                String name = element.getAsString();
+                if (failing.contains(name)) status = 503;
+                PLAYERS.forEach((spelled, id) -> {
+                    if (spelled.toLowerCase(Locale.ROOT).equals(name.toLowerCase(Locale.ROOT))) {
+                        JsonObject player = new JsonObject();
+                        player.addProperty("id", id);
+                        player.addProperty("name", spelled);
+                        found.add(player);
+                    }
+                });
+            }
+            byte[] body = found.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        Transport.setDefault(Transport.builder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .baseUrl(Transport.Service.MINECRAFT_SERVICES, "http://localhost:" + server.getAddress().getPort())
+                .build());
+    }
+
+    @AfterEach
+    void stop() {
+        Transport.setDefault(previous);
+        MojangAPI.setUUIDCache(null);
+        server.stop(0);
+    }
+
+    @Test
+    void keysNetworkAnswersByTheGivenSpelling() {
+        BulkLookup lookup = MojangAPI.lookupUUIDs(List.of("NOTCH", "JEB_", "nobody"), 4);
+        assertTrue(lookup.isComplete());
+        assertEquals(Map.of("NOTCH", PLAYERS.get("Notch"), "JEB_", PLAYERS.get("jeb_")), lookup.uuids());
+    }
+
+    @Test
+    void keysCachedAnswersByTheGivenSpelling() {
+        MojangAPI.setUUIDCache(UUIDCache.builder().build());
+        MojangAPI.lookupUUIDs(List.of("notch"), 4);
+        server.removeContext("/minecraft/profile/lookup/bulk/byname");
+
+        BulkLookup lookup = MojangAPI.lookupUUIDs(List.of("nOtCh"), 4);
+        assertTrue(lookup.isComplete());
+        assertEquals(Map.of("nOtCh", PLAYERS.get("Notch")), lookup.uuids());
+    }
+
+    @Test
+    void keepsTheFirstSpellingOfADuplicate() {
+        BulkLookup lookup = MojangAPI.lookupUUIDs(List.of("dinnerBONE", "Dinnerbone"), 4);
+        assertEquals(Map.of("dinnerBONE", PLAYERS.get("Dinnerbone")), lookup.uuids());
+    }
+
+    @Test
+    void getUUIDbyNameThrowsWhenARequestFailed() {
+        // Eleven names are sent in two requests, only the second fails.
+        List<String> names = List.of("Notch", "a1", "a2", "a3", "a4", "a5", "a6", "a7", "a8", "a9", "jeb_");
+        failing = Set.of("jeb_");
+        BulkLookup lookup = MojangAPI.lookupUUIDs(names, 4);
+        assertFalse(lookup.isComplete());
+        assertEquals(Map.of("Notch", PLAYERS.get("Notch")), lookup.uuids());
+
+        RuntimeException failed = assertThrows(RuntimeException.class, () -> MojangAPI.getUUIDbyName(names));
+        assertTrue(failed.getMessage().contains("503"), failed.getMessage());
+        CompletionException failedAsync = assertThrows(CompletionException.class,
+                () -> MojangAPI.getUUIDbyNameAsync(names, ForkJoinPool.commonPool()).join());
+        assertTrue(failedAsync.getCause().getMessage().contains("1 of the names"), failedAsync.getCause().getMessage());
+    }
+
+    @Test
+    void getUUIDbyNameAnswersACompleteLookup() {
+        assertEquals(Map.of("notch", PLAYERS.get("Notch")), MojangAPI.getUUIDbyName(List.of("notch", "nobody")));
+    }
+}
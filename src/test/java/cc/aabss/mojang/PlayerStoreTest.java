@@ -0,0 +1,163 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.mojang.Property;
+import cc.aabss.mojang.objects.mojang.PublicPlayerProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerStoreTest {
+
+    private static final String NOTCH = "069a79f444e94726a5befca90e38aaf5";
+    private static final String JEB = "853c80ef3c3749fdaa49938b674adae6";
+
+    @TempDir
+    Path directory;
+
+    private PlayerStore open() {
+        return PlayerStore.builder(directory).executor(Runnable::run).build();
+    }
+
+    @Test
+    void storesAndReloads() {
+        PublicPlayerProfile profile = new PublicPlayerProfile(NOTCH, "Notch", List.of(new Property("textures", "e30=", "sig")), List.of(), false);
+        try (PlayerStore store = open()) {
+            store.putUUID("Notch", NOTCH);
+            store.putProfile(profile, false);
+            assertEquals(NOTCH, store.uuid("notch").value());
+        }
+        try (PlayerStore store = open()) {
+            assertEquals(2, store.size());
+            assertEquals(NOTCH, store.uuid("NOTCH").value());
+            assertEquals(profile, store.profile(NOTCH, false).value());
+            assertNull(store.profile(NOTCH, true));
+        }
+    }
+
+    @Test
+    void compactionDropsOverwrittenRecords() {
+        try (PlayerStore store = open()) {
+            for (int i = 0; i < 1000; i++) {
+                store.putUUID("Notch", i % 2 == 0 ? NOTCH : JEB);
+            }
+            store.putUUID("jeb_", JEB);
+            long before = store.fileSize();
+            store.compact();
+            assertTrue(store.fileSize() < before / 100, "log was not compacted: " + store.fileSize());
+            assertEquals(2, store.size());
+            assertEquals(JEB, store.uuid("Notch").value());
+            assertEquals(JEB, store.uuid("jeb_").value());
+
+            store.putUUID("Dinnerbone", NOTCH);
+            assertEquals(NOTCH, store.uuid("Dinnerbone").value());
+        }
+        assertTrue(Files.exists(directory.resolve("players.1.log")));
+        try (PlayerStore store = open()) {
+            assertEquals(3, store.size());
+            assertEquals(JEB, store.uuid("Notch").value());
+            assertEquals(NOTCH, store.uuid("Dinnerbone").value());
+        }
+    }
+
+    @Test
+    void compactsInTheBackgroundOnceMostRecordsAreOverwritten() {
+        try (PlayerStore store = open()) {
+            String value = NOTCH.repeat(4);
+            for (int i = 0; i < 20_000; i++) {
+                store.putUUID("player" + (i % 10), value);
+            }
+            assertTrue(store.fileSize() < 1 << 20, "log was not compacted: " + store.fileSize());
+            assertEquals(10, store.size());
+            assertEquals(value, store.uuid("player3").value());
+        }
+        try (PlayerStore store = open()) {
+            assertEquals(10, store.size());
+            assertEquals(NOTCH.repeat(4), store.uuid("player9").value());
+        }
+    }
+
+    @Test
+    void reloadDropsATornRecord() throws IOException {
+        long end;
+        try (PlayerStore store = open()) {
+            store.putUUID("Notch", NOTCH);
+            store.putUUID("jeb_", JEB);
+            end = store.fileSize();
+        }
+        // A record whose length was written but whose body and checksum were not.
+        try (FileChannel channel = FileChannel.open(directory.resolve("players.log"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(12).putInt(100).putLong(System.currentTimeMillis()).flip(), end);
+        }
+        try (PlayerStore store = open()) {
+            assertEquals(2, store.size());
+            assertEquals(end, store.fileSize());
+            assertEquals(JEB, store.uuid("jeb_").value());
+            store.putUUID("Dinnerbone", NOTCH);
+        }
+        try (PlayerStore store = open()) {
+            assertEquals(3, store.size());
+            assertEquals(NOTCH, store.uuid("Notch").value());
+            assertEquals(NOTCH, store.uuid("Dinnerbone").value());
+        }
+    }
+
+    @Test
+    void reloadDropsACorruptRecordAndWhatFollows() throws IOException {
+        long second;
+        try (PlayerStore store = open()) {
+            store.putUUID("Notch", NOTCH);
+            second = store.fileSize();
+            store.putUUID("jeb_", JEB);
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve("players.log"), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, second + 20);
+            last.put(0, (byte) (last.get(0) ^ 1));
+            channel.write(last.rewind(), second + 20);
+        }
+        try (PlayerStore store = open()) {
+            assertEquals(1, store.size());
+            assertEquals(NOTCH, store.uuid("Notch").value());
+            assertNull(store.uuid("jeb_"));
+            assertEquals(second, store.fileSize());
+        }
+    }
+
+    @Test
+    void opensTheNewestGeneration() throws IOException {
+        try (PlayerStore store = open()) {
+            store.putUUID("Notch", JEB);
+            store.putUUID("Notch", NOTCH);
+            store.compact();
+        }
+        // A generation left behind, as when the process stopped before deleting it.
+        Files.write(directory.resolve("players.log"), new byte[64]);
+        Files.write(directory.resolve("players.log.compact"), new byte[64]);
+        try (PlayerStore store = open()) {
+            assertEquals(NOTCH, store.uuid("Notch").value());
+            assertEquals(1, store.size());
+        }
+        assertFalse(Files.exists(directory.resolve("players.log")));
+        assertFalse(Files.exists(directory.resolve("players.log.compact")));
+        assertTrue(Files.exists(directory.resolve("players.1.log")));
+    }
+
+    @Test
+    void closedStoreAnswersNothing() {
+        PlayerStore store = open();
+        store.putUUID("Notch", NOTCH);
+        store.close();
+        assertNull(store.uuid("Notch"));
+        store.putUUID("jeb_", JEB);
+        store.compact();
+    }
+}
@@ -0,0 +1,169 @@
+package cc.aabss.mojang;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final URI LIMITED = URI.create("https://api.mojang.com/users/profiles/minecraft/jeb_");
+    private static final URI UNLIMITED = URI.create("https://sessionserver.mojang.com/session/minecraft/profile/x");
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-05-01T12:00:00Z"), ZoneOffset.UTC);
+
+    private long now = 1_000_000 * MS;
+
+    private RateLimiter limiter(double requestsPerSecond, int burst, Duration maxQueueTime) {
+        Map<String, RateLimiter.Limit> limits = Map.of(LIMITED.getHost(), RateLimiter.Limit.of(requestsPerSecond, burst));
+        return new RateLimiter(limits, maxQueueTime, Duration.ofSeconds(1), () -> now, CLOCK);
+    }
+
+    @Test
+    void burstIsSentAtOnce() {
+        RateLimiter limiter = limiter(10, 3, Duration.ofSeconds(30));
+        RateLimiter.Host host = limiter.host(LIMITED);
+        assertEquals(0, limiter.reserve(host));
+        assertEquals(0, limiter.reserve(host));
+        assertEquals(0, limiter.reserve(host));
+        assertEquals(100 * MS, limiter.reserve(host));
+        assertEquals(200 * MS, limiter.reserve(host));
+    }
+
+    @Test
+    void burstRefillsWhileIdle() {
+        RateLimiter limiter = limiter(10, 3, Duration.ofSeconds(30));
+        RateLimiter.Host host = limiter.host(LIMITED);
+        for (int i = 0; i < 3; i++) limiter.reserve(host);
+        now += 1000 * MS;
+        assertEquals(0, limiter.reserve(host));
+        assertEquals(0, limiter.reserve(host));
+        assertEquals(0, limiter.reserve(host));
+        assertEquals(100 * MS, limiter.reserve(host));
+    }
+
+    @Test
+    void steadyRateSpacesRequests() {
+        RateLimiter limiter = limiter(10, 1, Duration.ofSeconds(30));
+        RateLimiter.Host host = limiter.host(LIMITED);
+        // Requests asked for every 10ms are sent every 100ms.
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i * 100 * MS - i * 10 * MS, limiter.reserve(host), "request " + i);
+            now += 10 * MS;
+        }
+    }
+
+    @Test
+    void requestsAtTheRateNeverWait() {
+        RateLimiter limiter = limiter(10, 1, Duration.ofSeconds(30));
+        RateLimiter.Host host = limiter.host(LIMITED);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0, limiter.reserve(host));
+            now += 100 * MS;
+        }
+    }
+
+    @Test
+    void rejectsWaitsLongerThanMaxQueueTime() {
+        RateLimiter limiter = limiter(10, 1, Duration.ofMillis(150));
+        RateLimiter.Host host = limiter.host(LIMITED);
+        assertEquals(0, limiter.reserve(host));
+        assertEquals(100 * MS, limiter.reserve(host));
+        RateLimitedException rejected = assertThrows(RateLimitedException.class, () -> limiter.reserve(host));
+        assertEquals(LIMITED.getHost(), rejected.getHost());
+        assertEquals(Duration.ofMillis(200), rejected.getRetryAfter());
+        // The rejected request took no slot.
+        now += 50 * MS;
+        assertEquals(150 * MS, limiter.reserve(host));
+    }
+
+    @Test
+    void zeroMaxQueueTimeFailsFast() {
+        RateLimiter limiter = limiter(10, 1, Duration.ZERO);
+        RateLimiter.Host host = limiter.host(LIMITED);
+        assertEquals(0, limiter.reserve(host));
+        assertThrows(RateLimitedException.class, () -> limiter.reserve(host));
+    }
+
+    @Test
+    void hostWithoutLimitIsPausedAfter429() {
+        RateLimiter limiter = limiter(10, 1, Duration.ofSeconds(30));
+        RateLimiter.Host host = limiter.host(UNLIMITED);
+        for (int i = 0; i < 100; i++) assertEquals(0, limiter.reserve(host));
+
+        assertEquals(Duration.ofSeconds(2), limiter.pause(host, "2"));
+        assertEquals(2000 * MS, limiter.reserve(host));
+        assertEquals(2000 * MS, limiter.reserve(host));
+        now += 1500 * MS;
+        assertEquals(500 * MS, limiter.reserve(host));
+        now += 500 * MS;
+        assertEquals(0, limiter.reserve(host));
+    }
+
+    @Test
+    void pauseWithoutRetryAfterUsesTheDefault() {
+        RateLimiter limiter = limiter(10, 1, Duration.ofSeconds(30));
+        RateLimiter.Host host = limiter.host(UNLIMITED);
+        assertEquals(Duration.ofSeconds(1), limiter.pause(host, (String) null));
+        assertEquals(1000 * MS, limiter.reserve(host));
+    }
+
+    @Test
+    void shorterPauseDoesNotCutALongerOneShort() {
+        RateLimiter limiter = limiter(10, 1, Duration.ofSeconds(30));
+        RateLimiter.Host host = limiter.host(UNLIMITED);
+        limiter.pause(host, "10");
+        limiter.pause(host, "1");
+        assertEquals(10_000 * MS, limiter.reserve(host));
+    }
+
+    @Test
+    void pausePastMaxQueueTimeIsRejected() {
+        RateLimiter limiter = limiter(10, 1, Duration.ofSeconds(5));
+        RateLimiter.Host host = limiter.host(UNLIMITED);
+        limiter.pause(host, "60");
+        RateLimitedException rejected = assertThrows(RateLimitedException.class, () -> limiter.reserve(host));
+        assertEquals(Duration.ofSeconds(60), rejected.getRetryAfter());
+    }
+
+    @Test
+    void pausedLimitedHostKeepsItsRateAfterward() {
+        RateLimiter limiter = limiter(10, 1, Duration.ofSeconds(30));
+        RateLimiter.Host host = limiter.host(LIMITED);
+        limiter.pause(host, "1");
+        assertEquals(1000 * MS, limiter.reserve(host));
+        assertEquals(1100 * MS, limiter.reserve(host));
+    }
+
+    @Test
+    void parsesDelaySeconds() {
+        assertEquals(Duration.ofSeconds(120), RateLimiter.parseRetryAfter("120", CLOCK));
+        assertEquals(Duration.ofSeconds(5), RateLimiter.parseRetryAfter(" 5 ", CLOCK));
+        assertEquals(Duration.ZERO, RateLimiter.parseRetryAfter("0", CLOCK));
+        assertEquals(Duration.ZERO, RateLimiter.parseRetryAfter("-3", CLOCK));
+    }
+
+    @Test
+    void parsesHttpDates() {
+        ZonedDateTime now = ZonedDateTime.now(CLOCK);
+        assertEquals(Duration.ofSeconds(90), RateLimiter.parseRetryAfter(DateTimeFormatter.RFC_1123_DATE_TIME.format(now.plusSeconds(90)), CLOCK));
+        assertEquals(Duration.ofSeconds(90), RateLimiter.parseRetryAfter("Wed, 01 May 2024 12:01:30 GMT", CLOCK));
+        assertEquals(Duration.ZERO, RateLimiter.parseRetryAfter("Wed, 01 May 2024 11:59:00 GMT", CLOCK));
+    }
+
+    @Test
+    void unparseableRetryAfterIsZero() {
+        assertEquals(Duration.ZERO, RateLimiter.parseRetryAfter("soon", CLOCK));
+        assertEquals(Duration.ZERO, RateLimiter.parseRetryAfter("", CLOCK));
+        assertEquals(Duration.ZERO, RateLimiter.parseRetryAfter("2024-05-01T12:01:30Z", CLOCK));
+    }
+}
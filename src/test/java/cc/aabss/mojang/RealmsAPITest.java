@@ -0,0 +1,72 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.realms.Enviornment;
+import cc.aabss.mojang.objects.realms.RealmsCookie;
+import cc.aabss.mojang.objects.realms.SessionID;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealmsAPITest {
+
+    private static final RealmsCookie COOKIE = new RealmsCookie(new SessionID("token", "069a79f444e94726a5befca90e38aaf5"), "Notch", "1.21.1");
+
+    private final Transport previous = Transport.getDefault();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private Transport transport;
+
+    @BeforeEach
+    void start() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/mco/available", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = "true".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        transport = Transport.builder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .requestTimeout(Duration.ofSeconds(2))
+                .baseUrl(Transport.Service.REALMS, "http://localhost:" + server.getAddress().getPort())
+                .build();
+    }
+
+    @AfterEach
+    void stop() {
+        Transport.setDefault(previous);
+        server.stop(0);
+    }
+
+    @Test
+    void transportDecidesTheRealmsUrl() {
+        assertTrue(new RealmsAPI(COOKIE, transport).isRealmsAvailable());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void enviornmentDecidesTheRealmsUrlWithoutATransport() {
+        // The default transport points realms at the stub, the enviornment given explicitly must still be used.
+        Transport.setDefault(transport);
+        RealmsAPI api = new RealmsAPI(COOKIE, Enviornment.LOCAL);
+        try {
+            api.isRealmsAvailable();
+        } catch (RuntimeException ignored) {
+            // Nothing has to listen on the local enviornment.
+        }
+        assertEquals(0, requests.get());
+    }
+}
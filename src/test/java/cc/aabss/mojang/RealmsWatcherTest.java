@@ -0,0 +1,154 @@
+package cc.aabss.mojang;
+
+import cc.aabss.mojang.objects.realms.RealmsCookie;
+import cc.aabss.mojang.objects.realms.SessionID;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealmsWatcherTest {
+
+    private static final RealmsCookie COOKIE = new RealmsCookie(new SessionID("token", "069a79f444e94726a5befca90e38aaf5"), "Notch", "1.21.1");
+    private static final String WORLDS = "{\"servers\":[{\"id\":1,\"name\":\"One\",\"state\":\"OPEN\"},{\"id\":2,\"name\":\"Two\",\"state\":\"CLOSED\"}]}";
+
+    private HttpServer server;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService executor;
+    private RealmsWatcher watcher;
+
+    @BeforeEach
+    void start() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/worlds", exchange -> {
+            byte[] body = WORLDS.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        Transport transport = Transport.builder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .requestTimeout(Duration.ofSeconds(2))
+                .baseUrl(Transport.Service.REALMS, "http://localhost:" + server.getAddress().getPort())
+                .build();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "watcher-events"));
+        watcher = RealmsWatcher.builder(new RealmsAPI(COOKIE, transport))
+                .minInterval(Duration.ofMinutes(1))
+                .scheduler(scheduler)
+                .executor(executor)
+                .build();
+    }
+
+    @AfterEach
+    void stop() {
+        watcher.close();
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+        server.stop(0);
+    }
+
+    /**
+     * Records the events of a listener and where they were delivered.
+     */
+    private final class Recorder implements RealmsWatcher.Listener {
+
+        final List<RealmsWatcher.Event> events = new ArrayList<>();
+        final List<String> threads = new ArrayList<>();
+        final CountDownLatch received = new CountDownLatch(2);
+        volatile boolean heldLock;
+
+        @Override
+        public void onEvent(RealmsWatcher.Event event) {
+            if (Thread.holdsLock(watcher)) heldLock = true;
+            synchronized (this) {
+                events.add(event);
+                threads.add(Thread.currentThread().getName());
+            }
+            received.countDown();
+        }
+    }
+
+    @Test
+    void deliversPolledEventsOnTheExecutorWithoutTheLock() throws Exception {
+        Recorder recorder = new Recorder();
+        watcher.subscribe(recorder);
+        assertTrue(recorder.received.await(5, TimeUnit.SECONDS));
+        assertFalse(recorder.heldLock);
+        synchronized (recorder) {
+            assertEquals(List.of("watcher-events", "watcher-events"), recorder.threads);
+            assertEquals(1, recorder.events.get(0).realm().id());
+            assertEquals(2, recorder.events.get(1).realm().id());
+        }
+    }
+
+    @Test
+    void deliversInitialEventsOnTheExecutor() throws Exception {
+        Recorder first = new Recorder();
+        watcher.subscribe(first);
+        assertTrue(first.received.await(5, TimeUnit.SECONDS));
+
+        // Keep the executor busy, the events of a new listener must wait for it instead of running on this thread.
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Recorder second = new Recorder();
+        watcher.subscribe(second);
+        synchronized (second) {
+            assertTrue(second.events.isEmpty());
+        }
+        release.countDown();
+        assertTrue(second.received.await(5, TimeUnit.SECONDS));
+        assertFalse(second.heldLock);
+        synchronized (second) {
+            assertEquals(List.of("watcher-events", "watcher-events"), second.threads);
+            assertInstanceOf(RealmsWatcher.Added.class, second.events.get(0));
+        }
+    }
+
+    @Test
+    void removedListenerGetsNoQueuedEvents() throws Exception {
+        Recorder first = new Recorder();
+        watcher.subscribe(first);
+        assertTrue(first.received.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Recorder second = new Recorder();
+        watcher.subscribe(second).close();
+        release.countDown();
+        // Anything queued before this task has run once it completes.
+        executor.submit(() -> {}).get(5, TimeUnit.SECONDS);
+        synchronized (second) {
+            assertTrue(second.events.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package cc.aabss.mojang;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedDownloadTest {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+    private static final int SIZE = (int) (SegmentedDownload.MIN_SEGMENT_SIZE * 2 + 123);
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private volatile byte[] content = content(1);
+    private volatile String etag = "\"1\"";
+    /**
+     * Replaces the content with version 2 once this many range requests were answered, or never if negative.
+     */
+    private volatile int changeAfter = -1;
+    private final List<String> ifRanges = new ArrayList<>();
+    private int rangeRequests;
+
+    @BeforeEach
+    void start() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/backup", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        executor = Executors.newFixedThreadPool(SegmentedDownload.MAX_SEGMENTS);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = content;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+        synchronized (ifRanges) {
+            if (range != null && !range.equals("bytes=0-0")) {
+                ifRanges.add(ifRange);
+                if (rangeRequests++ == changeAfter) {
+                    content = body = content(2);
+                    etag = "\"2\"";
+                }
+            }
+        }
+        if (etag != null) exchange.getResponseHeaders().add("ETag", etag);
+        Matcher matcher = range == null ? null : RANGE.matcher(range);
+        if (matcher == null || !matcher.matches() || (ifRange != null && !ifRange.equals(etag))) {
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+            return;
+        }
+        int from = Integer.parseInt(matcher.group(1));
+        int to = Integer.parseInt(matcher.group(2));
+        exchange.getResponseHeaders().add("Content-Range", "bytes " + from + "-" + to + "/" + body.length);
+        exchange.sendResponseHeaders(206, to - from + 1);
+        exchange.getResponseBody().write(body, from, to - from + 1);
+        exchange.close();
+    }
+
+    private static byte[] content(int version) {
+        byte[] content = new byte[SIZE];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31 + version);
+        }
+        return content;
+    }
+
+    private SegmentedDownload download(Path target) {
+        Transport transport = Transport.builder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/backup");
+        return new SegmentedDownload(transport, uri, target, null);
+    }
+
+    @Test
+    void sendsIfRangeWithEveryRange() throws IOException {
+        Path target = directory.resolve("world.tar.gz");
+        assertEquals(target, download(target).run(executor).join());
+        assertArrayEquals(content(1), Files.readAllBytes(target));
+        assertEquals(2, ifRanges.size());
+        for (String ifRange : ifRanges) {
+            assertEquals("\"1\"", ifRange);
+        }
+        assertFalse(Files.exists(directory.resolve("world.tar.gz.part.state")));
+    }
+
+    @Test
+    void restartsWhenTheFileChanges() throws IOException {
+        changeAfter = 0;
+        Path target = directory.resolve("world.tar.gz");
+        download(target).run(executor).join();
+        assertArrayEquals(content(2), Files.readAllBytes(target));
+        assertTrue(ifRanges.contains("\"2\""));
+    }
+
+    @Test
+    void resumesAnEarlierAttempt() throws IOException {
+        Path target = directory.resolve("world.tar.gz");
+        byte[] half = Arrays.copyOf(content(1), SIZE / 2);
+        Files.write(directory.resolve("world.tar.gz.part"), half);
+        Files.writeString(directory.resolve("world.tar.gz.part.state"),
+                SIZE + " \"1\"\n0 " + SIZE + " " + half.length + "\n", StandardCharsets.UTF_8);
+        download(target).run(executor).join();
+        assertArrayEquals(content(1), Files.readAllBytes(target));
+        assertEquals(1, ifRanges.size());
+    }
+
+    @Test
+    void doesNotResumeWithoutValidator() throws IOException {
+        etag = null;
+        Path target = directory.resolve("world.tar.gz");
+        // A part of some other file, which must not be kept.
+        Files.write(directory.resolve("world.tar.gz.part"), new byte[SIZE / 2]);
+        Files.writeString(directory.resolve("world.tar.gz.part.state"),
+                SIZE + " -\n0 " + SIZE + " " + SIZE / 2 + "\n", StandardCharsets.UTF_8);
+        download(target).run(executor).join();
+        assertArrayEquals(content(1), Files.readAllBytes(target));
+        for (String ifRange : ifRanges) {
+            assertNull(ifRange);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package cc.aabss.mojang;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceTest {
+
+    private static final long PAUSE_MILLIS = 300;
+
+    private HttpServer server;
+    private final List<MetricsListener.Exchange> exchanges = new ArrayList<>();
+    private Transport transport;
+
+    @BeforeEach
+    void start() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // Sends the headers and half of the body, then the rest after a pause.
+        server.createContext("/slow", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+            body.write("{\"a\":".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            sleep(PAUSE_MILLIS);
+            body.write("1}".getBytes(StandardCharsets.UTF_8));
+            exchange.close();
+        });
+        server.createContext("/fast", exchange -> {
+            byte[] body = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        transport = Transport.builder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .metrics(exchange -> {
+                    synchronized (exchanges) {
+                        exchanges.add(exchange);
+                    }
+                })
+                .build();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    private HttpRequest request(String path) {
+        return transport.request(URI.create("http://localhost:" + server.getAddress().getPort() + path)).build();
+    }
+
+    private MetricsListener.Exchange exchange() {
+        synchronized (exchanges) {
+            assertEquals(1, exchanges.size());
+            return exchanges.get(0);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String read(HttpResponse<InputStream> response) {
+        try (InputStream body = response.body()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void streamedBodyIsCountedAsBodyTime() {
+        Call<String> call = new Call<>(transport, "test.slow", request("/slow"), HttpResponse.BodyHandlers.ofInputStream(), TraceTest::read);
+        assertEquals("{\"a\":1}", call.send());
+        MetricsListener.Exchange exchange = exchange();
+        assertEquals(7, exchange.responseBytes());
+        assertTrue(exchange.bodyTime().toMillis() >= PAUSE_MILLIS - 50, exchange.toString());
+        assertTrue(exchange.decodeTime().toMillis() < PAUSE_MILLIS / 2, exchange.toString());
+        assertTrue(exchange.networkTime().toMillis() < PAUSE_MILLIS / 2, exchange.toString());
+    }
+
+    @Test
+    void streamedBodyIsCountedAsBodyTimeAsync() {
+        Call<String> call = new Call<>(transport, "test.slow", request("/slow"), HttpResponse.BodyHandlers.ofInputStream(), TraceTest::read);
+        assertEquals("{\"a\":1}", call.sendAsync(Runnable::run).join());
+        MetricsListener.Exchange exchange = exchange();
+        assertTrue(exchange.bodyTime().toMillis() >= PAUSE_MILLIS - 50, exchange.toString());
+        assertTrue(exchange.decodeTime().toMillis() < PAUSE_MILLIS / 2, exchange.toString());
+    }
+
+    @Test
+    void bufferedBodyIsCountedAsNetworkTime() {
+        Call<String> call = new Call<>(transport, "test.slow", request("/slow"), HttpResponse::body);
+        assertEquals("{\"a\":1}", call.send());
+        MetricsListener.Exchange exchange = exchange();
+        assertTrue(exchange.networkTime().toMillis() >= PAUSE_MILLIS - 50, exchange.toString());
+        assertEquals(Duration.ZERO, exchange.bodyTime());
+        assertTrue(exchange.decodeTime().toMillis() < PAUSE_MILLIS / 2, exchange.toString());
+    }
+
+    @Test
+    void slowMappingIsCountedAsDecodeTime() {
+        Call<String> call = new Call<>(transport, "test.fast", request("/fast"), HttpResponse.BodyHandlers.ofInputStream(), response -> {
+            String body = read(response);
+            sleep(PAUSE_MILLIS);
+            return body;
+        });
+        assertEquals("{\"a\":1}", call.send());
+        MetricsListener.Exchange exchange = exchange();
+        assertTrue(exchange.decodeTime().toMillis() >= PAUSE_MILLIS - 50, exchange.toString());
+        assertTrue(exchange.bodyTime().toMillis() < PAUSE_MILLIS / 2, exchange.toString());
+        assertEquals(exchange.queueTime().plus(exchange.networkTime()).plus(exchange.bodyTime()).plus(exchange.decodeTime()),
+                exchange.totalTime());
+    }
+}
@@ -0,0 +1,147 @@
+package cc.aabss.mojang;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransportTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    /**
+     * The answers the server gives in order, as status and Retry-After, the last one is repeated.
+     */
+    private final Deque<String[]> answers = new ArrayDeque<>();
+
+    @BeforeEach
+    void start() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            String[] answer;
+            synchronized (answers) {
+                answer = answers.size() > 1 ? answers.poll() : answers.peek();
+            }
+            if (answer[1] != null) exchange.getResponseHeaders().add("Retry-After", answer[1]);
+            byte[] body = ("status " + answer[0]).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(Integer.parseInt(answer[0]), body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    private void answer(int status, String retryAfter) {
+        answers.add(new String[]{String.valueOf(status), retryAfter});
+    }
+
+    private Transport transport(int maxRetries, Duration maxQueueTime) {
+        return Transport.builder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .maxRetries(maxRetries)
+                .maxQueueTime(maxQueueTime)
+                .build();
+    }
+
+    private HttpRequest request(Transport transport) {
+        return transport.request(URI.create("http://localhost:" + server.getAddress().getPort() + "/x")).build();
+    }
+
+    @Test
+    void sendRetriesAfter429() throws Exception {
+        answer(429, "0");
+        answer(200, null);
+        Transport transport = transport(2, Duration.ofSeconds(5));
+        HttpResponse<String> response = transport.send(request(transport), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void sendWaitsForRetryAfter() throws Exception {
+        answer(429, "1");
+        answer(200, null);
+        Transport transport = transport(2, Duration.ofSeconds(5));
+        long start = System.nanoTime();
+        assertEquals(200, transport.send(request(transport), HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(900).toNanos(), "retried before Retry-After passed");
+    }
+
+    @Test
+    void sendGivesUpAfterMaxRetries() {
+        answer(429, "0");
+        Transport transport = transport(2, Duration.ofSeconds(5));
+        RateLimitedException rejected = assertThrows(RateLimitedException.class,
+                () -> transport.send(request(transport), HttpResponse.BodyHandlers.ofString()));
+        assertEquals("localhost", rejected.getHost());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void pausedHostRejectsWithoutSending() throws Exception {
+        answer(429, "60");
+        Transport transport = transport(0, Duration.ZERO);
+        assertThrows(RateLimitedException.class, () -> transport.send(request(transport), HttpResponse.BodyHandlers.ofString()));
+        assertEquals(1, requests.get());
+        // localhost has no rate limit, the 429 alone pauses it.
+        RateLimitedException rejected = assertThrows(RateLimitedException.class,
+                () -> transport.send(request(transport), HttpResponse.BodyHandlers.ofString()));
+        assertTrue(rejected.getRetryAfter().compareTo(Duration.ofSeconds(59)) > 0);
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void sendAsyncRetriesAfter429() {
+        answer(429, "0");
+        answer(429, "0");
+        answer(200, null);
+        Transport transport = transport(2, Duration.ofSeconds(5));
+        HttpResponse<String> response = transport.sendAsync(request(transport), HttpResponse.BodyHandlers.ofString()).join();
+        assertEquals(200, response.statusCode());
+        assertEquals("status 200", response.body());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void sendAsyncGivesUpAfterMaxRetries() {
+        answer(429, "0");
+        Transport transport = transport(1, Duration.ofSeconds(5));
+        CompletionException failed = assertThrows(CompletionException.class,
+                () -> transport.sendAsync(request(transport), HttpResponse.BodyHandlers.ofString()).join());
+        assertTrue(failed.getCause() instanceof RateLimitedException);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void sendAsyncRejectsPastMaxQueueTime() {
+        answer(429, "60");
+        Transport transport = transport(0, Duration.ofSeconds(1));
+        assertThrows(CompletionException.class, () -> transport.sendAsync(request(transport), HttpResponse.BodyHandlers.ofString()).join());
+        CompletionException rejected = assertThrows(CompletionException.class,
+                () -> transport.sendAsync(request(transport), HttpResponse.BodyHandlers.ofString()).join());
+        assertTrue(rejected.getCause() instanceof RateLimitedException);
+        assertEquals(1, requests.get());
+    }
+}
@@ -0,0 +1,166 @@
+package cc.aabss.mojang;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UUIDTableTest {
+
+    private static final long MOST = 0x069a79f444e94726L;
+
+    @Test
+    void putGetAndRemove() {
+        UUIDTable table = new UUIDTable(0, true);
+        assertNull(table.put(MOST, 1, "a"));
+        assertNull(table.put(MOST, 2, "b"));
+        assertEquals("a", table.put(MOST, 1, "c"));
+        assertEquals(2, table.size());
+        assertEquals("c", table.get(MOST, 1));
+        assertEquals("b", table.get(MOST, 2));
+        assertNull(table.get(MOST, 3));
+
+        assertEquals("c", table.remove(MOST, 1));
+        assertNull(table.remove(MOST, 1));
+        assertNull(table.get(MOST, 1));
+        assertEquals("b", table.get(MOST, 2));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void setAnswersPresent() {
+        UUIDTable table = new UUIDTable(0, false);
+        assertNull(table.put(MOST, 1, UUIDTable.PRESENT));
+        assertSame(UUIDTable.PRESENT, table.put(MOST, 1, UUIDTable.PRESENT));
+        assertSame(UUIDTable.PRESENT, table.get(MOST, 1));
+        assertSame(UUIDTable.PRESENT, table.remove(MOST, 1));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void nilUuidIsKeptOutsideTheArray() {
+        UUIDTable table = new UUIDTable(0, true);
+        table.put(MOST, 1, "a");
+        assertNull(table.get(0, 0));
+        assertNull(table.put(0, 0, "nil"));
+        assertEquals(2, table.size());
+        assertEquals("nil", table.get(0, 0));
+        assertEquals("a", table.get(MOST, 1));
+
+        List<String> visited = new ArrayList<>();
+        table.forEach((most, least, value) -> visited.add(most + ":" + least + "=" + value));
+        assertEquals(List.of("0:0=nil", MOST + ":1=a"), visited);
+
+        assertEquals("nil", table.remove(0, 0));
+        assertNull(table.get(0, 0));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void removeShiftsBackAChainThatWrapsAround() {
+        UUIDTable table = new UUIDTable(0, true);
+        int last = table.capacity() - 1;
+        // Three uuids probed from the last slot wrap around into slots 0 and 1, the one probed from 0 then lands in 2.
+        long[] wrapped = leastWithHome(table, last, 3);
+        long[] first = leastWithHome(table, 0, 1);
+        for (long least : wrapped) table.put(MOST, least, "w" + least);
+        table.put(MOST, first[0], "f");
+
+        assertEquals("w" + wrapped[0], table.remove(MOST, wrapped[0]));
+        assertNull(table.get(MOST, wrapped[0]));
+        assertEquals("w" + wrapped[1], table.get(MOST, wrapped[1]));
+        assertEquals("w" + wrapped[2], table.get(MOST, wrapped[2]));
+        assertEquals("f", table.get(MOST, first[0]));
+
+        assertEquals("w" + wrapped[2], table.remove(MOST, wrapped[2]));
+        assertEquals("w" + wrapped[1], table.get(MOST, wrapped[1]));
+        assertEquals("f", table.get(MOST, first[0]));
+
+        assertEquals("w" + wrapped[1], table.remove(MOST, wrapped[1]));
+        assertEquals("f", table.get(MOST, first[0]));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void removeKeepsUuidsWhoseHomeIsPastTheGap() {
+        UUIDTable table = new UUIDTable(0, true);
+        int last = table.capacity() - 1;
+        // Slots last and 0 hold uuids probed from last, slot 1 holds one probed from 1 that must not move into the gap.
+        long[] wrapped = leastWithHome(table, last, 2);
+        long[] own = leastWithHome(table, 1, 1);
+        for (long least : wrapped) table.put(MOST, least, "w" + least);
+        table.put(MOST, own[0], "o");
+
+        table.remove(MOST, wrapped[0]);
+        assertEquals("w" + wrapped[1], table.get(MOST, wrapped[1]));
+        assertEquals("o", table.get(MOST, own[0]));
+        table.remove(MOST, wrapped[1]);
+        assertEquals("o", table.get(MOST, own[0]));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void growKeepsEveryUuid() {
+        UUIDTable table = new UUIDTable(0, true);
+        int initial = table.capacity();
+        for (long least = 1; least <= 1000; least++) {
+            table.put(MOST, least, least);
+        }
+        assertTrue(table.capacity() > initial);
+        assertEquals(1000, table.size());
+        for (long least = 1; least <= 1000; least++) {
+            assertEquals(least, table.get(MOST, least));
+        }
+    }
+
+    @Test
+    void clearEmptiesTheTable() {
+        UUIDTable table = new UUIDTable(0, true);
+        table.put(MOST, 1, "a");
+        table.put(0, 0, "nil");
+        table.clear();
+        assertEquals(0, table.size());
+        assertNull(table.get(MOST, 1));
+        assertNull(table.get(0, 0));
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(42);
+        UUIDTable table = new UUIDTable(0, true);
+        Map<Long, Object> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            // Few distinct keys, so chains keep forming and breaking up around the end of the array.
+            long least = random.nextInt(64);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    Object value = i;
+                    assertEquals(expected.put(least, value), table.put(MOST, least, value));
+                }
+                case 1 -> assertEquals(expected.remove(least), table.remove(MOST, least));
+                default -> assertEquals(expected.get(least), table.get(MOST, least));
+            }
+            assertEquals(expected.size(), table.size());
+        }
+        Map<Long, Object> visited = new HashMap<>();
+        table.forEach((most, least, value) -> visited.put(least, value));
+        assertEquals(expected, visited);
+    }
+
+    /**
+     * Finds uuids with the given first half whose home is a slot.
+     */
+    private static long[] leastWithHome(UUIDTable table, int slot, int count) {
+        long[] found = new long[count];
+        int size = 0;
+        for (long least = 1; size < count; least++) {
+            if (table.home(MOST, least) == slot) found[size++] = least;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,89 @@
+package cc.aabss.mojang.objects.mojang;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerUUIDTest {
+
+    private static final String DASHED = "069a79f4-44e9-4726-a5be-fca90e38aaf5";
+    private static final String UNDASHED = "069a79f444e94726a5befca90e38aaf5";
+    private static final UUID EXPECTED = UUID.fromString(DASHED);
+
+    @Test
+    void parsesDashed() {
+        PlayerUUID uuid = PlayerUUID.parse(DASHED);
+        assertEquals(EXPECTED, uuid.toUUID());
+        assertEquals(DASHED, uuid.toDashedString());
+        assertEquals(UNDASHED, uuid.toString());
+    }
+
+    @Test
+    void parsesUndashed() {
+        PlayerUUID uuid = PlayerUUID.parse(UNDASHED);
+        assertEquals(EXPECTED, uuid.toUUID());
+        assertEquals(PlayerUUID.parse(DASHED), uuid);
+    }
+
+    @Test
+    void parsesMixedCase() {
+        assertEquals(EXPECTED, PlayerUUID.parse("069A79F4-44e9-4726-A5BE-fca90e38AAF5").toUUID());
+        assertEquals(EXPECTED, PlayerUUID.parse("069A79F444E94726a5befca90e38aaf5").toUUID());
+        assertEquals(UNDASHED, PlayerUUID.parse(UNDASHED.toUpperCase()).toString());
+    }
+
+    @Test
+    void parsesHalvesWithoutAnObject() {
+        assertEquals(EXPECTED.getMostSignificantBits(), PlayerUUID.mostSignificantBits(DASHED));
+        assertEquals(EXPECTED.getLeastSignificantBits(), PlayerUUID.leastSignificantBits(DASHED));
+        assertEquals(EXPECTED.getMostSignificantBits(), PlayerUUID.mostSignificantBits(new StringBuilder(UNDASHED)));
+        assertEquals(EXPECTED.getLeastSignificantBits(), PlayerUUID.leastSignificantBits(new StringBuilder(UNDASHED)));
+    }
+
+    @Test
+    void roundTripsExtremes() {
+        for (UUID uuid : new UUID[]{new UUID(0, 0), new UUID(-1, -1), new UUID(Long.MIN_VALUE, 1), UUID.randomUUID()}) {
+            PlayerUUID parsed = PlayerUUID.of(uuid);
+            assertEquals(uuid.toString(), parsed.toDashedString());
+            assertEquals(parsed, PlayerUUID.parse(parsed.toString()));
+            assertEquals(parsed, PlayerUUID.parse(parsed.toDashedString()));
+        }
+    }
+
+    @Test
+    void rejectsMalformed() {
+        String[] malformed = {
+                "",
+                "steve",
+                UNDASHED.substring(1),
+                UNDASHED + "0",
+                DASHED.substring(1),
+                DASHED + "0",
+                "069a79f4444e9-4726-a5be-fca90e38aaf5",
+                "069a79f4-44e9-4726-a5be-fca90e38aaf5".replace('-', '_'),
+                "069a79f4-44e9-4726-a5be-fca90e38aag5",
+                "069a79f444e94726a5befca90e38aaz5",
+                "069a79f4-44e9-4726-a5be-fca90e3-aaf5",
+                "069a79f444e94726a5befca90e38aaf-",
+                "0x9a79f444e94726a5befca90e38aaf5",
+                "069a79f4-44e94726-a5be-fca90e38aaf5",
+        };
+        for (String uuid : malformed) {
+            assertFalse(PlayerUUID.isValid(uuid), uuid);
+            assertNull(PlayerUUID.tryParse(uuid), uuid);
+            assertThrows(IllegalArgumentException.class, () -> PlayerUUID.parse(uuid));
+        }
+        assertFalse(PlayerUUID.isValid(null));
+        assertNull(PlayerUUID.tryParse(null));
+    }
+
+    @Test
+    void acceptsValid() {
+        assertTrue(PlayerUUID.isValid(DASHED));
+        assertTrue(PlayerUUID.isValid(UNDASHED));
+        assertTrue(PlayerUUID.isValid(DASHED.toUpperCase()));
+        assertEquals(PlayerUUID.parse(DASHED), PlayerUUID.tryParse(UNDASHED));
+    }
+}
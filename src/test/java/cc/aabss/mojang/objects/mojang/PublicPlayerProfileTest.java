@@ -0,0 +1,53 @@
+package cc.aabss.mojang.objects.mojang;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicPlayerProfileTest {
+
+    private static final String TEXTURES = Base64.getEncoder().encodeToString(("{\"timestamp\":5,\"profileId\":\"069a79f444e94726a5befca90e38aaf5\","
+            + "\"profileName\":\"Notch\",\"textures\":{\"SKIN\":{\"url\":\"http://textures.minecraft.net/texture/abc\","
+            + "\"metadata\":{\"model\":\"slim\"}},\"CAPE\":{\"url\":\"http://textures.minecraft.net/texture/def\"}}}")
+            .getBytes(StandardCharsets.UTF_8));
+
+    private static PublicPlayerProfile profile(List<Property> properties) {
+        return new PublicPlayerProfile("069a79f444e94726a5befca90e38aaf5", "Notch", properties, List.of(), false);
+    }
+
+    @Test
+    void decodesTextures() {
+        PublicPlayerProfile profile = profile(List.of(new Property("textures", TEXTURES, null)));
+        assertEquals("http://textures.minecraft.net/texture/abc", profile.skinUrl());
+        assertEquals("http://textures.minecraft.net/texture/def", profile.capeUrl());
+        assertEquals(Variant.SLIM, profile.skinVariant());
+        assertEquals(5, profile.texturesTimestamp());
+        assertEquals(TEXTURES, profile.textures().rawValue());
+    }
+
+    @Test
+    void decodesTexturesOnce() {
+        PublicPlayerProfile profile = profile(List.of(new Property("textures", TEXTURES, null)));
+        assertSame(profile.textures(), profile.textures());
+    }
+
+    @Test
+    void profileWithoutTexturesHasDefaults() {
+        PublicPlayerProfile profile = profile(null);
+        assertNull(profile.textures());
+        assertNull(profile.skinUrl());
+        assertEquals(Variant.CLASSIC, profile.skinVariant());
+        assertEquals(0, profile.texturesTimestamp());
+        assertNull(profile(List.of(new Property("other", TEXTURES, null))).textures());
+    }
+
+    @Test
+    void staysARecord() {
+        assertTrue(PublicPlayerProfile.class.isRecord());
+        assertEquals(profile(List.of(new Property("textures", TEXTURES, null))), profile(List.of(new Property("textures", TEXTURES, null))));
+    }
+}